@@ -16,8 +16,12 @@
 package net.dv8tion.jda;
 
 import net.dv8tion.jda.entities.*;
+import net.dv8tion.jda.events.Event;
+import net.dv8tion.jda.hooks.EventFilter;
 import net.dv8tion.jda.hooks.EventListener;
+import net.dv8tion.jda.hooks.EventPublisher;
 import net.dv8tion.jda.managers.AccountManager;
+import net.dv8tion.jda.utils.StringPool;
 import org.apache.http.HttpHost;
 
 import java.util.List;
@@ -30,16 +34,88 @@ public interface JDA
 {
     String getAuthToken();
 
+    /**
+     * Registers an {@link net.dv8tion.jda.hooks.EventListener EventListener}, for example a
+     * {@link net.dv8tion.jda.hooks.ListenerAdapter ListenerAdapter}.
+     *
+     * @param listener
+     *          The listener to register.
+     */
     void addEventListener(EventListener listener);
 
+    /**
+     * Registers a listener that only receives the events matching the given {@link net.dv8tion.jda.hooks.EventFilter EventFilter},
+     * for example only messages of one Guild or channel.<br>
+     * Filtered listeners are indexed by event type and Guild, so events that match no filter are never routed to them.
+     *
+     * @param listener
+     *          The listener to register.
+     * @param filter
+     *          The filter for the events passed to the listener.
+     */
+    void addEventListener(EventListener listener, EventFilter filter);
+
+    /**
+     * Registers an object with public methods annotated with {@link net.dv8tion.jda.hooks.SubscribeEvent SubscribeEvent}.
+     * Each of these methods takes exactly one event parameter and is called for the events of that type.
+     *
+     * @param listener
+     *          The object to register.
+     * @throws IllegalArgumentException
+     *          If the object has no valid annotated methods.
+     */
+    void addAnnotatedEventListener(Object listener);
+
+    /**
+     * Registers an object with methods annotated with {@link net.dv8tion.jda.hooks.SubscribeEvent SubscribeEvent}
+     * that only receives the events matching the given {@link net.dv8tion.jda.hooks.EventFilter EventFilter}.
+     *
+     * @param listener
+     *          The object to register, see {@link #addAnnotatedEventListener(Object)}.
+     * @param filter
+     *          The filter for the events passed to the listener.
+     * @throws IllegalArgumentException
+     *          If the object has no valid annotated methods.
+     */
+    void addAnnotatedEventListener(Object listener, EventFilter filter);
+
+    /**
+     * The events of this JDA instance as a stream with backpressure.<br>
+     * Use {@link net.dv8tion.jda.hooks.EventPublisher#ofType(Class) ofType} for a stream of a single event type and
+     * the {@code with...} methods of the {@link net.dv8tion.jda.hooks.EventPublisher EventPublisher} to configure buffering and conflation.
+     *
+     * @return
+     *      The publisher of all events.
+     */
+    EventPublisher<Event> getEventPublisher();
+
     void removeEventListener(EventListener listener);
 
+    /**
+     * Removes an object previously registered with {@link #addAnnotatedEventListener(Object)}.
+     *
+     * @param listener
+     *          The object to remove.
+     */
+    void removeAnnotatedEventListener(Object listener);
+
     List<User> getUsers();
 
     User getUserById(String id);
 
     List<User> getUsersByName(String name);
 
+    /**
+     * Searches all cached {@link net.dv8tion.jda.entities.User Users} for those whose name starts with the provided prefix.
+     * The case of the names is ignored.
+     *
+     * @param prefix
+     *          The start of the names to search for.
+     * @return
+     *      A List of all Users whose name starts with the prefix. Empty if no User matches.
+     */
+    List<User> getUsersByNamePrefix(String prefix);
+
     List<Guild> getGuilds();
 
     Guild getGuildById(String id);
@@ -75,6 +151,16 @@ public interface JDA
 
     int getResponseTotal();
 
+    /**
+     * The {@link net.dv8tion.jda.utils.StringPool StringPool} used to deduplicate usernames and game names
+     * of cached {@link net.dv8tion.jda.entities.User Users}.<br>
+     * Can be used to check how much memory the pool saves.
+     *
+     * @return
+     *      The StringPool of this JDA instance.
+     */
+    StringPool getStringPool();
+
     /**
      * The proxy settings used by all JDA instances.
      *
@@ -16,14 +16,27 @@
 package net.dv8tion.jda;
 
 import net.dv8tion.jda.entities.impl.JDAImpl;
+import net.dv8tion.jda.entities.impl.MessageCache;
+import net.dv8tion.jda.entities.impl.OffHeapUserStore;
 import net.dv8tion.jda.events.ReadyEvent;
 import net.dv8tion.jda.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.handle.EventCoalescer;
 import net.dv8tion.jda.hooks.EventListener;
 import net.dv8tion.jda.hooks.ListenerAdapter;
+import net.dv8tion.jda.hooks.ListenerErrorHandler;
+import net.dv8tion.jda.hooks.ListenerProfiler;
+import net.dv8tion.jda.utils.CacheSnapshot;
+import net.dv8tion.jda.utils.MessageSearchIndex;
+import net.dv8tion.jda.utils.StringPool;
 
 import javax.security.auth.login.LoginException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -44,9 +57,20 @@ public class JDABuilder
     protected static String proxyUrl = null;
     protected static int proxyPort = -1;
     final List<EventListener> listeners;
+    final List<Object> annotatedListeners;
     String email = null;
     String pass = null;
     boolean debug = false;
+    int stringPoolSize = JDAImpl.DEFAULT_STRING_POOL_SIZE;
+    Path snapshotFile = null;
+    int offHeapUsers = -1;
+    long coalescingWindow = 0;
+    int messageCacheChannelSize = 0;
+    int messageCacheTotalSize = 0;
+    MessageSearchIndex searchIndex = null;
+    Executor eventExecutor = null;
+    ListenerProfiler listenerProfiler = null;
+    ListenerErrorHandler listenerErrorHandler = null;
 
     protected final ListenerAdapter acknowledgeListener = new ListenerAdapter()
     {
@@ -83,6 +107,7 @@ public class JDABuilder
         this.email = email;
         this.pass = password;
         listeners = new LinkedList<>();
+        annotatedListeners = new LinkedList<>();
     }
 
     /**
@@ -154,6 +179,177 @@ public class JDABuilder
     {
        this.debug = debug;
     }
+    /**
+     * Sets the maximum amount of Strings held by the {@link net.dv8tion.jda.utils.StringPool StringPool}
+     * that deduplicates usernames and game names of cached Users.<br>
+     * The least recently used Strings are evicted once this size is reached. Default is
+     * {@value net.dv8tion.jda.entities.impl.JDAImpl#DEFAULT_STRING_POOL_SIZE}.
+     *
+     * @param size
+     *          The maximum size of the pool. 0 disables deduplication.
+     * @return
+     *      Returns the {@link net.dv8tion.jda.JDABuilder JDABuilder} instance. Useful for chaining.
+     * @throws IllegalArgumentException
+     *          If the provided size is negative.
+     */
+    public JDABuilder setStringPoolSize(int size)
+    {
+        if (size < 0)
+            throw new IllegalArgumentException("The size of the StringPool cannot be negative. Provided: " + size);
+        this.stringPoolSize = size;
+        return this;
+    }
+
+    /**
+     * Sets the file used to persist the entity cache between restarts.<br>
+     * If the file exists when {@link net.dv8tion.jda.JDABuilder#build() build()} is called, the cache is restored from it
+     * before logging in, so Guilds, Channels and Users are available right away. Once Discord sends READY the
+     * restored cache is reconciled with the up-to-date information.<br>
+     * The cache is written back to this file when the JVM shuts down.
+     *
+     * @param file
+     *          The snapshot file or null to disable snapshots.
+     * @return
+     *      Returns the {@link net.dv8tion.jda.JDABuilder JDABuilder} instance. Useful for chaining.
+     * @see net.dv8tion.jda.utils.CacheSnapshot
+     */
+    public JDABuilder setCacheSnapshot(Path file)
+    {
+        this.snapshotFile = file;
+        return this;
+    }
+
+    /**
+     * Enables storing the values of cached {@link net.dv8tion.jda.entities.User Users} (names, avatars, online status and game)
+     * in direct memory instead of the java heap.<br>
+     * This is only useful for very large deployments where the garbage collector spends a lot of time on the long-lived
+     * User objects. The values are materialized on every access, which makes reading them slightly more expensive.
+     *
+     * @param expectedUsers
+     *          The amount of Users that are expected to be cached. The store grows if this is exceeded.
+     * @return
+     *      Returns the {@link net.dv8tion.jda.JDABuilder JDABuilder} instance. Useful for chaining.
+     * @see net.dv8tion.jda.entities.impl.OffHeapUserStore
+     */
+    public JDABuilder setOffHeapUserStore(int expectedUsers)
+    {
+        if (expectedUsers < 0)
+            throw new IllegalArgumentException("The amount of expected Users cannot be negative. Provided: " + expectedUsers);
+        this.offHeapUsers = expectedUsers;
+        return this;
+    }
+
+    /**
+     * Enables coalescing of presence and typing events.<br>
+     * Bursts of PRESENCE_UPDATEs for the same {@link net.dv8tion.jda.entities.User User} within the window are collapsed
+     * into one event per changed property (compared to the state before the burst), repeated typing notifications of a
+     * User in the same channel within the window are dropped. The cache is always updated right away.
+     *
+     * @param window
+     *          The coalescing window. 0 disables coalescing (default).
+     * @param unit
+     *          The unit of the window.
+     * @return
+     *      Returns the {@link net.dv8tion.jda.JDABuilder JDABuilder} instance. Useful for chaining.
+     * @see net.dv8tion.jda.handle.EventCoalescer
+     */
+    public JDABuilder setEventCoalescing(long window, TimeUnit unit)
+    {
+        if (window < 0)
+            throw new IllegalArgumentException("The coalescing window cannot be negative. Provided: " + window);
+        this.coalescingWindow = unit.toMillis(window);
+        return this;
+    }
+
+    /**
+     * Enables caching of recent messages, so update and delete events can provide the previous
+     * {@link net.dv8tion.jda.entities.Message Message}.<br>
+     * Every channel keeps up to channelSize of its most recent messages (received or sent). Over all channels at most
+     * totalSize messages are kept, exceeding it evicts the oldest messages of the least recently active channels.
+     *
+     * @param channelSize
+     *          The maximum amount of messages per channel. 0 disables the cache (default).
+     * @param totalSize
+     *          The maximum amount of messages over all channels.
+     * @return
+     *      Returns the {@link net.dv8tion.jda.JDABuilder JDABuilder} instance. Useful for chaining.
+     * @see net.dv8tion.jda.entities.impl.MessageCache
+     */
+    public JDABuilder setMessageCache(int channelSize, int totalSize)
+    {
+        if (channelSize < 0)
+            throw new IllegalArgumentException("The channel size cannot be negative. Provided: " + channelSize);
+        if (channelSize > 0 && totalSize < channelSize)
+            throw new IllegalArgumentException("The total size cannot be smaller than the channel size. Provided: " + totalSize);
+        this.messageCacheChannelSize = channelSize;
+        this.messageCacheTotalSize = totalSize;
+        return this;
+    }
+
+    /**
+     * Sets a {@link net.dv8tion.jda.utils.MessageSearchIndex MessageSearchIndex} that indexes every received message
+     * and follows edits and deletes. The index is flushed and closed when the JVM shuts down.
+     *
+     * @param searchIndex
+     *          The opened index or null to not index messages (default).
+     * @return
+     *      Returns the {@link net.dv8tion.jda.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder setMessageSearchIndex(MessageSearchIndex searchIndex)
+    {
+        this.searchIndex = searchIndex;
+        return this;
+    }
+
+    /**
+     * Sets the {@link java.util.concurrent.Executor Executor} used to call the listeners.<br>
+     * By default, listeners are called on the thread that receives the events from Discord, so one slow listener
+     * delays all following events. With an Executor, events of different Guilds are dispatched in parallel
+     * while the events of one Guild keep their order.
+     *
+     * @param executor
+     *          The Executor to dispatch events with or null to dispatch them synchronously.
+     * @return
+     *      Returns the {@link net.dv8tion.jda.JDABuilder JDABuilder} instance. Useful for chaining.
+     * @see net.dv8tion.jda.hooks.EventManager#setExecutor(java.util.concurrent.Executor)
+     */
+    public JDABuilder setEventExecutor(Executor executor)
+    {
+        this.eventExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Sets the {@link net.dv8tion.jda.hooks.ListenerProfiler ListenerProfiler} that records the time each listener takes
+     * per event type and reports listeners that are too slow.<br>
+     * Keep a reference to the profiler to read its {@link net.dv8tion.jda.hooks.ListenerProfiler#getSnapshot() statistics}.
+     *
+     * @param profiler
+     *          The profiler or null to not profile the listeners.
+     * @return
+     *      Returns the {@link net.dv8tion.jda.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder setListenerProfiler(ListenerProfiler profiler)
+    {
+        this.listenerProfiler = profiler;
+        return this;
+    }
+
+    /**
+     * Sets the {@link net.dv8tion.jda.hooks.ListenerErrorHandler ListenerErrorHandler} called when a listener throws an exception.<br>
+     * Listeners are always isolated from each other, by default the exceptions are printed to System.err.
+     *
+     * @param errorHandler
+     *          The error handler or null to use the default one.
+     * @return
+     *      Returns the {@link net.dv8tion.jda.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder setListenerErrorHandler(ListenerErrorHandler errorHandler)
+    {
+        this.listenerErrorHandler = errorHandler;
+        return this;
+    }
+
     /**
      * Adds a listener to the list of listeners that will be used to populate the {@link net.dv8tion.jda.JDA} object.
      *
@@ -182,6 +378,36 @@ public class JDABuilder
         return this;
     }
 
+    /**
+     * Adds an object with methods annotated with {@link net.dv8tion.jda.hooks.SubscribeEvent SubscribeEvent} to the
+     * listeners that will be used to populate the {@link net.dv8tion.jda.JDA} object.
+     * They are registered after the listeners added with {@link #addListener(net.dv8tion.jda.hooks.EventListener)}.
+     *
+     * @param listener
+     *          The object to add to the list.
+     * @return
+     *      Returns the {@link net.dv8tion.jda.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder addAnnotatedListener(Object listener)
+    {
+        annotatedListeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Removes an object from the list of annotated listeners.
+     *
+     * @param listener
+     *          The object to remove from the list.
+     * @return
+     *      Returns the {@link net.dv8tion.jda.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder removeAnnotatedListener(Object listener)
+    {
+        annotatedListeners.remove(listener);
+        return this;
+    }
+
     /**
      * Builds a new {@link net.dv8tion.jda.JDA} instance and uses the provided email and password to start the login process.<br>
      * The login process runs in a different thread, so while this will return immediately, {@link net.dv8tion.jda.JDA} has not
@@ -207,7 +433,64 @@ public class JDABuilder
         else
             jda = new JDAImpl();
         jda.setDebug(debug);
+        jda.setStringPool(new StringPool(stringPoolSize));
+        if (offHeapUsers != -1)
+            jda.setUserStore(new OffHeapUserStore(offHeapUsers));
+        if (coalescingWindow > 0)
+            jda.setEventCoalescer(new EventCoalescer(jda, coalescingWindow, TimeUnit.MILLISECONDS));
+        if (messageCacheChannelSize > 0)
+            jda.setMessageCache(new MessageCache(messageCacheChannelSize, messageCacheTotalSize));
+        if (searchIndex != null)
+        {
+            MessageSearchIndex index = searchIndex;
+            jda.setSearchIndex(index);
+            Runtime.getRuntime().addShutdownHook(new Thread(() ->
+            {
+                try
+                {
+                    index.close();
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    System.err.println("Could not close the message search index.");
+                    e.printStackTrace();
+                }
+            }));
+        }
+        if (snapshotFile != null)
+        {
+            Path file = snapshotFile;
+            if (Files.exists(file))
+            {
+                try
+                {
+                    CacheSnapshot.load(jda, file);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    System.err.println("Could not load the cache snapshot. Starting with an empty cache.");
+                    e.printStackTrace();
+                }
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() ->
+            {
+                try
+                {
+                    CacheSnapshot.save(jda, file);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    System.err.println("Could not save the cache snapshot.");
+                    e.printStackTrace();
+                }
+            }));
+        }
+        jda.getEventManager().setExecutor(eventExecutor);
+        jda.getEventManager().setProfiler(listenerProfiler);
+        if (listenerErrorHandler != null)
+            jda.getEventManager().setErrorHandler(listenerErrorHandler);
         listeners.forEach(jda::addEventListener);
+        annotatedListeners.forEach(jda::addAnnotatedEventListener);
         jda.login(email, pass);
         return jda;
     }
@@ -19,13 +19,21 @@ import net.dv8tion.jda.entities.Message;
 import net.dv8tion.jda.entities.User;
 import net.dv8tion.jda.entities.impl.MessageImpl;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
 public class MessageBuilder
 {
+    /**
+     * The maximum length of the content of a Message accepted by Discord.
+     */
+    public static final int MAX_LENGTH = 2000;
+
     private final StringBuilder builder = new StringBuilder();
     private final List<User> mentioned = new LinkedList<>();
+    //Formatted parts appended by this builder, so they can be closed and reopened when splitting.
+    private final List<Span> spans = new ArrayList<>();
     private boolean isTTS = false;
 
     /**
@@ -61,6 +69,7 @@ public class MessageBuilder
      */
     public MessageBuilder appendString(String text, Formatting... format)
     {
+        int start = builder.length();
         boolean blockPresent = false;
         for (Formatting formatting : format)
         {
@@ -83,6 +92,11 @@ public class MessageBuilder
             if (format[i] == Formatting.BLOCK) continue;
             builder.append(format[i].getTag());
         }
+        if (format.length > 0)
+        {
+            int prefixLength = (builder.length() - start - text.length()) / 2;
+            spans.add(new Span(start, start + prefixLength, start + prefixLength + text.length(), builder.length()));
+        }
         return this;
     }
 
@@ -95,7 +109,11 @@ public class MessageBuilder
      */
     public MessageBuilder appendCodeBlock(String text, String language)
     {
-        builder.append("```").append(language).append('\n').append(text).append("\n```");
+        int start = builder.length();
+        builder.append("```").append(language).append('\n');
+        int contentStart = builder.length();
+        builder.append(text);
+        spans.add(new Span(start, contentStart, builder.length(), builder.append("\n```").length()));
         return this;
     }
 
@@ -122,6 +140,154 @@ public class MessageBuilder
         return new MessageImpl("", null).setContent(builder.toString()).setTTS(isTTS).setMentionedUsers(mentioned);
     }
 
+    /**
+     * Creates {@link net.dv8tion.jda.entities.Message Message} objects from this Builder, split into parts of at most
+     * {@link #MAX_LENGTH} characters. They can be sent in order with
+     * {@link net.dv8tion.jda.entities.TextChannel#sendMessages(List) TextChannel#sendMessages}.<br>
+     * Parts are split at the last newline, else at the last whitespace that fits. Code blocks and formatting appended by
+     * this builder that are split are closed at the end of a part and reopened at the start of the next one.
+     *
+     * @return the created {@link net.dv8tion.jda.entities.Message Messages}, a single one if it fits
+     */
+    public List<Message> buildAll()
+    {
+        String content = builder.toString();
+        List<Message> messages = new ArrayList<>();
+        int position = 0;
+        String reopen = "";
+        do
+        {
+            int limit = Math.min(content.length(), position + MAX_LENGTH - reopen.length());
+            //Break points are only searched after floor, so every part makes progress.
+            int floor = position;
+            int end;
+            int next;
+            Span span;
+            while (true)
+            {
+                if (limit == content.length())
+                {
+                    end = next = limit;
+                }
+                else
+                {
+                    end = content.lastIndexOf('\n', limit);
+                    if (end <= floor)
+                        end = lastWhitespace(content, floor, limit);
+                    if (end <= floor)
+                    {
+                        end = Character.isLowSurrogate(content.charAt(limit)) && limit - 1 > floor ? limit - 1 : limit;
+                        next = end;
+                    }
+                    else
+                    {
+                        //The newline or whitespace itself is dropped.
+                        next = end + 1;
+                    }
+                }
+                span = getSpan(end);
+                if (span == null)
+                    break;
+                if (end <= span.contentStart)
+                {
+                    //Don't split the opening tags, end the part before them (or fall back to splitting the content).
+                    if (span.start > position)
+                        limit = span.start;
+                    else
+                        floor = span.contentStart;
+                }
+                else if (end >= span.contentEnd)
+                {
+                    //Within the closing tags: take them along if possible, else split the content.
+                    if (span.end <= limit)
+                    {
+                        end = next = span.end;
+                        span = null;
+                        break;
+                    }
+                    limit = span.contentEnd - 1;
+                }
+                else if (reopen.length() + end - position + span.end - span.contentEnd > MAX_LENGTH)
+                {
+                    limit = position + MAX_LENGTH - reopen.length() - (span.end - span.contentEnd);
+                }
+                else
+                {
+                    break;
+                }
+                //Only reachable with tags that don't fit into a part at all.
+                if (limit <= floor)
+                    break;
+            }
+
+            if (span != null && next >= span.contentEnd)
+                next = end;   //Keep the whitespace, the next part would otherwise start with the closing tags.
+            StringBuilder part = new StringBuilder(reopen).append(content, position, end);
+            if (span != null)
+            {
+                part.append(content, span.contentEnd, span.end);
+                reopen = content.substring(span.start, span.contentStart);
+            }
+            else
+            {
+                reopen = "";
+            }
+            messages.add(build(part.toString()));
+            position = next;
+        }
+        while (position < content.length());
+        return messages;
+    }
+
+    private Message build(String content)
+    {
+        List<User> mentionedInPart = new LinkedList<>();
+        for (User user : mentioned)
+        {
+            if (content.contains("<@" + user.getId() + '>'))
+                mentionedInPart.add(user);
+        }
+        return new MessageImpl("", null).setContent(content).setTTS(isTTS).setMentionedUsers(mentionedInPart);
+    }
+
+    private Span getSpan(int position)
+    {
+        //The span of the formatting surrounding the position, a position at its bounds is outside of it.
+        for (Span span : spans)
+        {
+            if (span.start < position && position < span.end)
+                return span;
+        }
+        return null;
+    }
+
+    private static int lastWhitespace(String content, int from, int to)
+    {
+        for (int i = to; i > from; i--)
+        {
+            if (Character.isWhitespace(content.charAt(i)))
+                return i;
+        }
+        return -1;
+    }
+
+    private static final class Span
+    {
+        //[start, contentStart) opening tags, [contentStart, contentEnd) formatted text, [contentEnd, end) closing tags
+        private final int start;
+        private final int contentStart;
+        private final int contentEnd;
+        private final int end;
+
+        private Span(int start, int contentStart, int contentEnd, int end)
+        {
+            this.start = start;
+            this.contentStart = contentStart;
+            this.contentEnd = contentEnd;
+            this.end = end;
+        }
+    }
+
     /**
      * Holds the Available formatting used in {@link #appendString(String, Formatting...)}
      */
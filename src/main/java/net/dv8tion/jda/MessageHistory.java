@@ -19,13 +19,26 @@ import net.dv8tion.jda.entities.Message;
 import net.dv8tion.jda.entities.TextChannel;
 import net.dv8tion.jda.entities.impl.JDAImpl;
 import net.dv8tion.jda.handle.EntityBuilder;
+import net.dv8tion.jda.utils.MiscUtil;
 import org.json.JSONArray;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class MessageHistory
 {
+    private static final ExecutorService prefetchPool = Executors.newCachedThreadPool(r ->
+    {
+        Thread thread = new Thread(r, "JDA MessageHistory Prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final JDAImpl api;
     private final TextChannel channel;
     private String lastId = null;
@@ -38,6 +51,19 @@ public class MessageHistory
         this.channel = channel;
     }
 
+    /**
+     * Creates a MessageHistory starting before the given Message instead of at the newest one.
+     *
+     * @param api the JDA instance
+     * @param channel the channel to get the history of
+     * @param beforeId the id of the Message after which (going back in time) the history starts
+     */
+    public MessageHistory(JDA api, TextChannel channel, String beforeId)
+    {
+        this(api, channel);
+        this.lastId = beforeId;
+    }
+
     /**
      * Gets all available Messages. Can be called multiple times and always returns the full set
      *
@@ -52,6 +78,30 @@ public class MessageHistory
         return queued;
     }
 
+    /**
+     * Returns a {@link net.dv8tion.jda.MessageHistory.HistoryIterator HistoryIterator} over the Messages of this
+     * history, newest first, continuing after the Messages already pulled by the retrieve methods.<br>
+     * Unlike {@link #retrieveAll()} the Messages are fetched page by page while iterating and are not kept by this
+     * MessageHistory, so even channels with millions of Messages can be scanned with bounded memory.
+     *
+     * @return a new HistoryIterator
+     */
+    public HistoryIterator iterator()
+    {
+        return new HistoryIterator(api, channel.getId(), atEnd ? null : lastId, atEnd);
+    }
+
+    /**
+     * Returns a sequential {@link java.util.stream.Stream Stream} over the Messages of this history, newest first.
+     *
+     * @return a new Stream of the Messages
+     * @see #iterator()
+     */
+    public Stream<Message> stream()
+    {
+        return iterator().stream();
+    }
+
     /**
      * Returns all already by the retrieve methods pulled messages of this history
      *
@@ -119,4 +169,219 @@ public class MessageHistory
         queued.addAll(out);
         return out;
     }
-}
\ No newline at end of file
+
+    /**
+     * Iterates the Messages of a channel, newest first, fetching the pages of 100 Messages lazily.<br>
+     * By default the next page is requested in the background while the current one is consumed
+     * (see {@link #setPrefetch(int)}). Only the current and the prefetched pages are held in memory.<br>
+     * The iteration ends at the first Message of the channel, at the bound set with {@link #setAfter(String)} or
+     * when a request fails, which is printed and can be checked with {@link #isComplete()}.
+     */
+    public static class HistoryIterator implements Iterator<Message>
+    {
+        private static final Page END = new Page(Collections.emptyList(), null, true);
+
+        private final JDAImpl api;
+        private final String channelId;
+        private final Deque<CompletableFuture<Page>> prefetched = new ArrayDeque<>();
+        private int prefetch = 1;
+        private int pageSize = 100;
+        private long afterId = 0;
+        private boolean started = false;
+        private volatile boolean failed = false;
+        private String lastId = null;
+        private Page page;
+        private Iterator<Message> messages = Collections.emptyIterator();
+
+        private HistoryIterator(JDAImpl api, String channelId, String beforeId, boolean atEnd)
+        {
+            this.api = api;
+            this.channelId = channelId;
+            this.page = atEnd ? END : new Page(Collections.emptyList(), beforeId, false);
+        }
+
+        /**
+         * Sets the amount of pages requested ahead of the consumer. 0 fetches every page only when it is needed,
+         * on the iterating thread. Default is 1.
+         *
+         * @param pages the amount of pages to prefetch
+         * @return this HistoryIterator, useful for chaining
+         */
+        public HistoryIterator setPrefetch(int pages)
+        {
+            checkNotStarted();
+            if (pages < 0)
+                throw new IllegalArgumentException("The prefetch cannot be negative. Provided: " + pages);
+            this.prefetch = pages;
+            return this;
+        }
+
+        /**
+         * Sets the amount of Messages requested at once, 1 to 100. Default is 100.
+         *
+         * @param pageSize the amount of Messages per request
+         * @return this HistoryIterator, useful for chaining
+         */
+        public HistoryIterator setPageSize(int pageSize)
+        {
+            checkNotStarted();
+            if (pageSize < 1 || pageSize > 100)
+                throw new IllegalArgumentException("The page size has to be between 1 and 100. Provided: " + pageSize);
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Ends the iteration before the Message with the given id, so only newer Messages are returned.
+         *
+         * @param messageId the id of the oldest Message that is no longer returned
+         * @return this HistoryIterator, useful for chaining
+         */
+        public HistoryIterator setAfter(String messageId)
+        {
+            checkNotStarted();
+            this.afterId = Long.parseLong(messageId);
+            return this;
+        }
+
+        /**
+         * Ends the iteration at the first Message sent before the given time, so only Messages sent at or after it
+         * are returned. The creation time is part of the Message id, so this needs no further request.
+         *
+         * @param time the time of the oldest Message that is returned
+         * @return this HistoryIterator, useful for chaining
+         */
+        public HistoryIterator setAfter(OffsetDateTime time)
+        {
+            checkNotStarted();
+            this.afterId = MiscUtil.getIdForTime(time) - 1;
+            return this;
+        }
+
+        /**
+         * Whether the iteration ended regularly (first Message of the channel or the bound reached),
+         * false while iterating or if a request failed.
+         *
+         * @return true if all requested Messages were returned
+         */
+        public boolean isComplete()
+        {
+            return !failed && page.last && !messages.hasNext();
+        }
+
+        /**
+         * The id of the Message last returned by {@link #next()}. A later iteration can continue after it with
+         * {@link net.dv8tion.jda.MessageHistory#MessageHistory(JDA, TextChannel, String) new MessageHistory(api, channel, lastId)}.
+         *
+         * @return the id or null if no Message was returned yet
+         */
+        public String getLastId()
+        {
+            return lastId;
+        }
+
+        /**
+         * A sequential, ordered {@link java.util.stream.Stream Stream} over the remaining Messages of this iterator.
+         *
+         * @return a new Stream
+         */
+        public Stream<Message> stream()
+        {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            started = true;
+            while (!messages.hasNext())
+            {
+                if (page.last)
+                    return false;
+                if (prefetch == 0)
+                {
+                    page = fetchAfter(page);
+                }
+                else
+                {
+                    fill();
+                    page = prefetched.poll().join();
+                    fill();
+                }
+                messages = page.messages.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Message next()
+        {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Message message = messages.next();
+            lastId = message.getId();
+            return message;
+        }
+
+        private void checkNotStarted()
+        {
+            if (started)
+                throw new IllegalStateException("The iterator has to be configured before the iteration starts.");
+        }
+
+        private void fill()
+        {
+            //Every page needs the last id of the one before, so the requests are chained.
+            CompletableFuture<Page> tail = prefetched.isEmpty() ? CompletableFuture.completedFuture(page) : prefetched.peekLast();
+            while (prefetched.size() < prefetch)
+            {
+                tail = tail.thenApplyAsync(this::fetchAfter, prefetchPool);
+                prefetched.add(tail);
+            }
+        }
+
+        private Page fetchAfter(Page previous)
+        {
+            if (previous.last)
+                return END;
+            try
+            {
+                JSONArray array = api.getRequester().getA("https://discordapp.com/api/channels/" + channelId
+                        + "/messages?limit=" + pageSize + (previous.lastId != null ? "&before=" + previous.lastId : ""));
+
+                EntityBuilder builder = new EntityBuilder(api);
+                List<Message> out = new ArrayList<>(array.length());
+                for (int i = 0; i < array.length(); i++)
+                {
+                    Message message = builder.createMessage(array.getJSONObject(i));
+                    if (Long.parseLong(message.getId()) <= afterId)
+                        return new Page(out, message.getId(), true);
+                    out.add(message);
+                }
+                if (out.isEmpty())
+                    return END;
+                return new Page(out, out.get(out.size() - 1).getId(), out.size() < pageSize);
+            }
+            catch (Exception ex)
+            {
+                ex.printStackTrace();
+                failed = true;
+                return END;
+            }
+        }
+    }
+
+    private static final class Page
+    {
+        private final List<Message> messages;
+        private final String lastId;
+        private final boolean last;
+
+        private Page(List<Message> messages, String lastId, boolean last)
+        {
+            this.messages = messages;
+            this.lastId = lastId;
+            this.last = last;
+        }
+    }
+}
@@ -15,6 +15,9 @@
  */
 package net.dv8tion.jda;
 
+import java.util.Collection;
+import java.util.EnumSet;
+
 public enum Permission
 {
     CREATE_INSTANT_INVITE(0),
@@ -52,4 +55,52 @@ public enum Permission
     {
         return offset;
     }
+
+    /**
+     * The bit of this Permission in a raw permission value.
+     *
+     * @return
+     *      {@code 1 << getOffset()}
+     */
+    public int getRawValue()
+    {
+        return 1 << offset;
+    }
+
+    /**
+     * All Permissions contained in a raw permission value, like the ones returned by
+     * {@link net.dv8tion.jda.entities.Channel#getEffectivePermissions(net.dv8tion.jda.entities.User) Channel#getEffectivePermissions}.<br>
+     * As {@link #MANAGE_ROLES} and {@link #MANAGE_PERMISSIONS} share their bit, either both or none are contained.
+     *
+     * @param permissions
+     *          The raw permission value.
+     * @return
+     *      A new EnumSet of the contained Permissions.
+     */
+    public static EnumSet<Permission> getPermissions(int permissions)
+    {
+        EnumSet<Permission> set = EnumSet.noneOf(Permission.class);
+        for (Permission permission : values())
+        {
+            if ((permissions & permission.getRawValue()) != 0)
+                set.add(permission);
+        }
+        return set;
+    }
+
+    /**
+     * The raw permission value of the provided Permissions.
+     *
+     * @param permissions
+     *          The Permissions.
+     * @return
+     *      The binary OR of their bits.
+     */
+    public static int getRaw(Collection<Permission> permissions)
+    {
+        int raw = 0;
+        for (Permission permission : permissions)
+            raw |= permission.getRawValue();
+        return raw;
+    }
 }
@@ -19,6 +19,7 @@ import net.dv8tion.jda.JDA;
 import net.dv8tion.jda.Permission;
 import net.dv8tion.jda.managers.ChannelManager;
 
+import java.util.EnumSet;
 import java.util.List;
 
 public interface Channel
@@ -89,6 +90,34 @@ public interface Channel
      */
     boolean checkPermission(User user, Permission permission);
 
+    /**
+     * The effective permissions of the given {@link net.dv8tion.jda.entities.User User} in this Channel as raw value.<br>
+     * Bit {@link net.dv8tion.jda.Permission#getOffset() offset} is set for every granted {@link net.dv8tion.jda.Permission Permission},
+     * so any number of Permissions can be checked with a single evaluation:
+     * <pre>
+     * int perms = channel.getEffectivePermissions(user);
+     * boolean canPost = (perms &amp; Permission.MESSAGE_WRITE.getRawValue()) != 0;
+     * </pre>
+     *
+     * @param user
+     *          the User to get the Permissions of
+     * @return
+     *      the raw permission value of the given User in this Channel
+     */
+    int getEffectivePermissions(User user);
+
+    /**
+     * The effective {@link net.dv8tion.jda.Permission Permissions} of the given {@link net.dv8tion.jda.entities.User User}
+     * in this Channel.
+     *
+     * @param user
+     *          the User to get the Permissions of
+     * @return
+     *      a new EnumSet of all Permissions the given User has in this Channel
+     * @see #getEffectivePermissions(User)
+     */
+    EnumSet<Permission> getPermissions(User user);
+
     /**
      * Returns the {@link net.dv8tion.jda.managers.ChannelManager ChannelManager} for this Channel.
      * In the ChannelManager, you can modify the name, topic and position of this Channel.
@@ -16,9 +16,11 @@
 package net.dv8tion.jda.entities;
 
 import net.dv8tion.jda.JDA;
+import net.dv8tion.jda.Permission;
 import net.dv8tion.jda.Region;
 import net.dv8tion.jda.managers.GuildManager;
 
+import java.util.EnumSet;
 import java.util.List;
 
 /**
@@ -102,6 +104,28 @@ public interface Guild
      */
     List<User> getUsers();
 
+    /**
+     * The {@link net.dv8tion.jda.entities.User Users} of this {@link net.dv8tion.jda.entities.Guild Guild} with the provided name.
+     * The case of the names is ignored.
+     *
+     * @param name
+     *          The name of the Users.
+     * @return
+     *      An Immutable List of matching {@link net.dv8tion.jda.entities.User Users}. Empty if no member matches.
+     */
+    List<User> getUsersByName(String name);
+
+    /**
+     * The {@link net.dv8tion.jda.entities.User Users} of this {@link net.dv8tion.jda.entities.Guild Guild} whose name starts
+     * with the provided prefix. The case of the names is ignored.
+     *
+     * @param prefix
+     *          The start of the names to search for.
+     * @return
+     *      An Immutable List of matching {@link net.dv8tion.jda.entities.User Users}. Empty if no member matches.
+     */
+    List<User> getUsersByNamePrefix(String prefix);
+
     /**
      * The {@link net.dv8tion.jda.entities.TextChannel TextChannels} available on the {@link net.dv8tion.jda.entities.Guild Guild}.
      *
@@ -136,6 +160,31 @@ public interface Guild
      */
     List<Role> getRolesForUser(User user);
 
+    /**
+     * The Guild-wide permissions of the given {@link net.dv8tion.jda.entities.User User} as raw value, without
+     * any channel overrides.<br>
+     * Bit {@link net.dv8tion.jda.Permission#getOffset() offset} is set for every granted {@link net.dv8tion.jda.Permission Permission}.
+     * The owner and Users with {@link net.dv8tion.jda.Permission#MANAGE_ROLES MANAGE_ROLES} have all Permissions.
+     *
+     * @param user
+     *          The {@link net.dv8tion.jda.entities.User User} to get the Permissions of.
+     * @return
+     *      The raw permission value.
+     */
+    int getEffectivePermissions(User user);
+
+    /**
+     * The Guild-wide {@link net.dv8tion.jda.Permission Permissions} of the given {@link net.dv8tion.jda.entities.User User},
+     * without any channel overrides.
+     *
+     * @param user
+     *          The {@link net.dv8tion.jda.entities.User User} to get the Permissions of.
+     * @return
+     *      A new EnumSet of the Permissions.
+     * @see #getEffectivePermissions(User)
+     */
+    EnumSet<Permission> getPermissions(User user);
+
     /**
      * The @everyone {@link net.dv8tion.jda.entities.Role Role} of this {@link net.dv8tion.jda.entities.Guild Guild}
      *
@@ -37,6 +37,22 @@ public interface Message
      */
     List<User> getMentionedUsers();
 
+    /**
+     * A immutable list of all mentioned {@link net.dv8tion.jda.entities.TextChannel TextChannels} (#channel) of the own Guild.
+     * In {@link net.dv8tion.jda.entities.PrivateChannel PrivateChannel's}, this always returns an empty List
+     *
+     * @return list of mentioned channels
+     */
+    List<TextChannel> getMentionedChannels();
+
+    /**
+     * A immutable list of all mentioned {@link net.dv8tion.jda.entities.Role Roles} of the own Guild.
+     * In {@link net.dv8tion.jda.entities.PrivateChannel PrivateChannel's}, this always returns an empty List
+     *
+     * @return list of mentioned roles
+     */
+    List<Role> getMentionedRoles();
+
     /**
      * Is this Message mentioning everyone using @everyone?
      * In {@link net.dv8tion.jda.entities.PrivateChannel PrivateChannel's}, this always returns false
@@ -17,6 +17,8 @@ package net.dv8tion.jda.entities;
 
 import net.dv8tion.jda.JDA;
 
+import java.util.List;
+
 /**
  * Represents the connection used for direct messaging.
  */
@@ -64,6 +66,19 @@ public interface PrivateChannel
      */
     Message sendMessage(Message msg);
 
+    /**
+     * Sends the given {@link net.dv8tion.jda.entities.Message Messages} to this Channel in order, e.g. the parts
+     * created by {@link net.dv8tion.jda.MessageBuilder#buildAll() MessageBuilder#buildAll()}.
+     * Each Message is only sent after the previous one was created, so they always appear in the given order.
+     * If sending one of them fails, the remaining ones are not sent.
+     *
+     * @param messages
+     *          the {@link net.dv8tion.jda.entities.Message Messages} to send
+     * @return
+     *      The created {@link net.dv8tion.jda.entities.Message Message} objects, fewer than given if sending failed
+     */
+    List<Message> sendMessages(List<Message> messages);
+
     /**
      * Sends the typing status to discord. This is what is used to make the message "X is typing..." appear.<br>
      * The typing status only lasts for 5 seconds, so if you wish to show continuous typing you will need to
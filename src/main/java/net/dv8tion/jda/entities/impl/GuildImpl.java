@@ -16,9 +16,11 @@
 package net.dv8tion.jda.entities.impl;
 
 import net.dv8tion.jda.JDA;
+import net.dv8tion.jda.Permission;
 import net.dv8tion.jda.Region;
 import net.dv8tion.jda.entities.*;
 import net.dv8tion.jda.managers.GuildManager;
+import net.dv8tion.jda.utils.PermissionUtil;
 
 import java.util.*;
 
@@ -35,7 +37,21 @@ public class GuildImpl implements Guild
     private final Map<String, VoiceChannel> voiceChannels = new HashMap<>();
     private final Map<String, Role> roles = new HashMap<>();
     private Role publicRole;
-    private final Map<User, List<Role>> userRoles = new HashMap<>();
+    //Interned role-lists with the amount of members using them, a list is dropped once its last member is gone.
+    private final Map<List<Role>, RoleSet> roleSets = new HashMap<>();
+    //Member indices and permission stamps for the PermissionCaches of the channels.
+    private final Map<User, Integer> memberIndices = new HashMap<>();
+    private final UserNameIndex memberNames = new UserNameIndex();
+    private final Deque<Integer> freeMemberIndices = new ArrayDeque<>();
+    private volatile int[] memberStamps = new int[16];
+    private volatile User[] members = new User[16];
+    //The interned role-list of each member, addressed by member index like members.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private volatile List<Role>[] memberRoles = new List[16];
+    private final Map<User, List<Role>> userRoles = new MemberRolesView();
+    private volatile int permissionStamp = 1;
+    //Incremented whenever any member or member's roles change, part of the stamp of whole-guild results.
+    private volatile int membershipStamp = 0;
     private final JDAImpl api;
 
     public GuildImpl(JDAImpl api, String id)
@@ -102,10 +118,22 @@ public class GuildImpl implements Guild
     public List<User> getUsers()
     {
         List<User> list = new ArrayList<>();
-        list.addAll(userRoles.keySet());
+        list.addAll(memberIndices.keySet());
         return Collections.unmodifiableList(list);
     }
 
+    @Override
+    public List<User> getUsersByName(String name)
+    {
+        return Collections.unmodifiableList(memberNames.get(name));
+    }
+
+    @Override
+    public List<User> getUsersByNamePrefix(String prefix)
+    {
+        return Collections.unmodifiableList(memberNames.getByPrefix(prefix));
+    }
+
     @Override
     public List<TextChannel> getTextChannels()
     {
@@ -133,7 +161,20 @@ public class GuildImpl implements Guild
     @Override
     public List<Role> getRolesForUser(User user)
     {
-        return userRoles.get(user) == null ? new LinkedList<>() : Collections.unmodifiableList(userRoles.get(user));
+        Integer index = memberIndices.get(user);
+        return index == null ? Collections.emptyList() : memberRoles[index];
+    }
+
+    @Override
+    public int getEffectivePermissions(User user)
+    {
+        return PermissionUtil.getEffectivePermissions(this, user);
+    }
+
+    @Override
+    public EnumSet<Permission> getPermissions(User user)
+    {
+        return Permission.getPermissions(getEffectivePermissions(user));
     }
 
     @Override
@@ -153,11 +194,209 @@ public class GuildImpl implements Guild
         return roles;
     }
 
+    /**
+     * A read-only view of the members of this Guild and their {@link net.dv8tion.jda.entities.Role Roles}.
+     * It is backed by the member indices, use {@link #setRolesForUser(User, Collection)} and {@link #removeMember(User)} to modify it.
+     *
+     * @return
+     *      Unmodifiable Map of all members to their shared List of Roles.
+     */
     public Map<User, List<Role>> getUserRoles()
     {
         return userRoles;
     }
 
+    public UserNameIndex getMemberNameIndex()
+    {
+        return memberNames;
+    }
+
+    /**
+     * Sets the {@link net.dv8tion.jda.entities.Role Roles} of the provided {@link net.dv8tion.jda.entities.User User}.<br>
+     * Members of a Guild mostly share a handful of role combinations, so instead of storing a List per member,
+     * the List is interned and the same immutable instance is shared by all members with identical roles.
+     * The order of the provided Roles is kept, Lists with the same Roles in a different order are not shared.
+     *
+     * @param user
+     *          The User whose roles are being set.
+     * @param roles
+     *          The Roles of the User in the order provided by Discord.
+     * @return
+     *      The shared, immutable List of Roles now assigned to the User.
+     */
+    public List<Role> setRolesForUser(User user, Collection<Role> roles)
+    {
+        List<Role> shared = internRoles(roles);
+        Integer index = memberIndices.get(user);
+        if (index == null)
+        {
+            index = freeMemberIndices.isEmpty() ? memberIndices.size() : freeMemberIndices.poll();
+            memberIndices.put(user, index);
+            if (index >= memberStamps.length)
+            {
+                memberStamps = Arrays.copyOf(memberStamps, memberStamps.length * 2);
+                members = Arrays.copyOf(members, members.length * 2);
+                memberRoles = Arrays.copyOf(memberRoles, memberRoles.length * 2);
+            }
+            members[index] = user;
+            memberNames.update(user, null);
+        }
+        else
+        {
+            releaseRoles(memberRoles[index]);
+        }
+        memberRoles[index] = shared;
+        memberStamps[index]++;
+        membershipStamp++;
+        return shared;
+    }
+
+    /**
+     * Removes the provided {@link net.dv8tion.jda.entities.User User} from the members of this Guild.
+     *
+     * @param user
+     *          The User that left the Guild.
+     */
+    public void removeMember(User user)
+    {
+        Integer index = memberIndices.remove(user);
+        if (index != null)
+        {
+            releaseRoles(memberRoles[index]);
+            memberStamps[index]++;
+            members[index] = null;
+            memberRoles[index] = null;
+            freeMemberIndices.add(index);
+            membershipStamp++;
+            memberNames.remove(user);
+        }
+    }
+
+    /**
+     * The index of the provided member, used to address the permission caches of the channels.
+     * Indices are dense and reused after a member left.
+     *
+     * @param user
+     *          The member.
+     * @return
+     *      The index or -1 if the User is no member of this Guild.
+     */
+    public int getMemberIndex(User user)
+    {
+        Integer index = memberIndices.get(user);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * The member with the provided index.
+     *
+     * @param memberIndex
+     *          The index of the member.
+     * @return
+     *      The member or null if the index is not in use.
+     */
+    public User getMemberByIndex(int memberIndex)
+    {
+        User[] members = this.members;
+        return memberIndex < members.length ? members[memberIndex] : null;
+    }
+
+    /**
+     * The amount of member indices that are currently allocated.
+     *
+     * @return
+     *      The exclusive upper bound of all member indices.
+     */
+    public int getMemberCapacity()
+    {
+        return memberStamps.length;
+    }
+
+    /**
+     * The permission stamp of a member, combining the stamp of this Guild and the one of the member.
+     * It changes whenever the permissions of the member might have changed.
+     *
+     * @param memberIndex
+     *          The index of the member.
+     * @return
+     *      The current stamp.
+     */
+    public int getPermissionStamp(int memberIndex)
+    {
+        return permissionStamp + memberStamps[memberIndex];
+    }
+
+    /**
+     * The permission stamp of the whole Guild. It changes whenever the permissions of any member might have changed.
+     *
+     * @return
+     *      The current stamp.
+     */
+    public int getPermissionStamp()
+    {
+        return permissionStamp + membershipStamp;
+    }
+
+    /**
+     * Invalidates the cached permissions of all members in all channels. Called after a Role changed.
+     */
+    public void invalidatePermissions()
+    {
+        permissionStamp++;
+    }
+
+    /**
+     * Removes the provided {@link net.dv8tion.jda.entities.Role Role} from every member of this Guild.
+     * Used when the Role was deleted.
+     *
+     * @param role
+     *          The Role to remove.
+     */
+    public void removeRoleFromUsers(Role role)
+    {
+        Map<List<Role>, List<Role>> replaced = new HashMap<>();
+        for (int i = 0; i < members.length; i++)
+        {
+            List<Role> roles = memberRoles[i];
+            if (roles == null || !roles.contains(role))
+                continue;
+            List<Role> newRoles = replaced.get(roles);
+            if (newRoles == null)
+            {
+                newRoles = new ArrayList<>(roles);
+                newRoles.remove(role);
+                replaced.put(roles, newRoles);
+            }
+            memberRoles[i] = internRoles(newRoles);
+            releaseRoles(roles);
+        }
+        invalidatePermissions();
+    }
+
+    private List<Role> internRoles(Collection<Role> roles)
+    {
+        if (roles.isEmpty())
+            return Collections.emptyList();
+        List<Role> key = new ArrayList<>(roles);
+        RoleSet set = roleSets.get(key);
+        if (set == null)
+        {
+            set = new RoleSet(Collections.unmodifiableList(key));
+            roleSets.put(set.roles, set);
+        }
+        set.members++;
+        return set.roles;
+    }
+
+    private void releaseRoles(List<Role> roles)
+    {
+        if (roles == null || roles.isEmpty())
+            return;
+        RoleSet set = roleSets.get(roles);
+        if (set != null && set.roles == roles && --set.members == 0)
+            roleSets.remove(roles);
+    }
+
     public GuildImpl setName(String name)
     {
         this.name = name;
@@ -224,4 +463,84 @@ public class GuildImpl implements Guild
     {
         return getId().hashCode();
     }
+
+    private class MemberRolesView extends AbstractMap<User, List<Role>>
+    {
+        @Override
+        public int size()
+        {
+            return memberIndices.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key)
+        {
+            return memberIndices.containsKey(key);
+        }
+
+        @Override
+        public List<Role> get(Object key)
+        {
+            Integer index = memberIndices.get(key);
+            return index == null ? null : memberRoles[index];
+        }
+
+        @Override
+        public Set<Entry<User, List<Role>>> entrySet()
+        {
+            return new AbstractSet<Entry<User, List<Role>>>()
+            {
+                @Override
+                public int size()
+                {
+                    return memberIndices.size();
+                }
+
+                @Override
+                public Iterator<Entry<User, List<Role>>> iterator()
+                {
+                    return new Iterator<Entry<User, List<Role>>>()
+                    {
+                        private final User[] users = members;
+                        private final List<Role>[] roles = memberRoles;
+                        private int next = advance(0);
+
+                        private int advance(int index)
+                        {
+                            while (index < users.length && users[index] == null)
+                                index++;
+                            return index;
+                        }
+
+                        @Override
+                        public boolean hasNext()
+                        {
+                            return next < users.length;
+                        }
+
+                        @Override
+                        public Entry<User, List<Role>> next()
+                        {
+                            if (!hasNext())
+                                throw new NoSuchElementException();
+                            Entry<User, List<Role>> entry = new SimpleImmutableEntry<>(users[next], roles[next]);
+                            next = advance(next + 1);
+                            return entry;
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    private static class RoleSet
+    {
+        private final List<Role> roles;
+        private int members;
+
+        private RoleSet(List<Role> roles)
+        {
+            this.roles = roles;
+        }
+    }
 }
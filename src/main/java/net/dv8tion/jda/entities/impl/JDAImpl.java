@@ -18,11 +18,17 @@ package net.dv8tion.jda.entities.impl;
 import com.mashape.unirest.http.Unirest;
 import net.dv8tion.jda.JDA;
 import net.dv8tion.jda.entities.*;
+import net.dv8tion.jda.events.Event;
+import net.dv8tion.jda.handle.EventCoalescer;
+import net.dv8tion.jda.hooks.EventFilter;
 import net.dv8tion.jda.hooks.EventListener;
 import net.dv8tion.jda.hooks.EventManager;
+import net.dv8tion.jda.hooks.EventPublisher;
 import net.dv8tion.jda.managers.AccountManager;
 import net.dv8tion.jda.requests.Requester;
 import net.dv8tion.jda.requests.WebSocketClient;
+import net.dv8tion.jda.utils.MessageSearchIndex;
+import net.dv8tion.jda.utils.StringPool;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpHost;
 import org.json.JSONException;
@@ -36,7 +42,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantLock;
 
 
 /**
@@ -44,6 +50,8 @@ import java.util.stream.Collectors;
  */
 public class JDAImpl implements JDA
 {
+    public static final int DEFAULT_STRING_POOL_SIZE = 10000;
+
     private final HttpHost proxy;
     private final Map<String, User> userMap = new HashMap<>();
     private final Map<String, Guild> guildMap = new HashMap<>();
@@ -52,10 +60,19 @@ public class JDAImpl implements JDA
     private final Map<String, PrivateChannel> pmChannelMap = new HashMap<>();
     private final Map<String, String> offline_pms = new HashMap<>();    //Userid -> channelid
     private final EventManager eventManager = new EventManager();
+    private final EventPublisher<Event> eventPublisher = new EventPublisher<>(eventManager, Event.class);
+    private StringPool stringPool = new StringPool(DEFAULT_STRING_POOL_SIZE);
+    private OffHeapUserStore userStore = null;
+    private EventCoalescer eventCoalescer = null;
+    private MessageCache messageCache = null;
+    private MessageSearchIndex searchIndex = null;
+    private final UserNameIndex userNameIndex = new UserNameIndex();
     private SelfInfo selfInfo = null;
     private AccountManager accountManager;
     private String authToken = null;
     private WebSocketClient client;
+    //Held by the WebSocket thread while it handles an event, so the cache can be read consistently from other threads.
+    private final ReentrantLock cacheLock = new ReentrantLock();
     private final Requester requester = new Requester(this);
     private boolean debug;
     private int responseTotal;
@@ -217,22 +234,141 @@ public class JDAImpl implements JDA
         getEventManager().register(listener);
     }
 
+    @Override
+    public void addEventListener(EventListener listener, EventFilter filter)
+    {
+        getEventManager().register(listener, filter);
+    }
+
+    @Override
+    public void addAnnotatedEventListener(Object listener)
+    {
+        getEventManager().registerAnnotated(listener);
+    }
+
+    @Override
+    public void addAnnotatedEventListener(Object listener, EventFilter filter)
+    {
+        getEventManager().registerAnnotated(listener, filter);
+    }
+
+    @Override
+    public EventPublisher<Event> getEventPublisher()
+    {
+        return eventPublisher;
+    }
+
     @Override
     public void removeEventListener(EventListener listener)
     {
         getEventManager().unregister(listener);
     }
 
+    @Override
+    public void removeAnnotatedEventListener(Object listener)
+    {
+        getEventManager().unregisterAnnotated(listener);
+    }
+
     public EventManager getEventManager()
     {
         return eventManager;
     }
 
+    @Override
+    public StringPool getStringPool()
+    {
+        return stringPool;
+    }
+
+    public void setStringPool(StringPool stringPool)
+    {
+        this.stringPool = stringPool;
+    }
+
+    /**
+     * The store holding the values of all cached {@link net.dv8tion.jda.entities.User Users} off-heap.
+     *
+     * @return
+     *      The OffHeapUserStore or null if Users keep their values on the heap.
+     */
+    public OffHeapUserStore getUserStore()
+    {
+        return userStore;
+    }
+
+    /**
+     * Enables the {@link net.dv8tion.jda.entities.impl.OffHeapUserStore OffHeapUserStore}.
+     * Has to be set before any {@link net.dv8tion.jda.entities.User User} is cached.
+     *
+     * @param userStore
+     *          The store to use.
+     */
+    public void setUserStore(OffHeapUserStore userStore)
+    {
+        if (!userMap.isEmpty())
+            throw new IllegalStateException("The OffHeapUserStore has to be set before any User is cached.");
+        this.userStore = userStore;
+    }
+
+    /**
+     * The {@link net.dv8tion.jda.handle.EventCoalescer EventCoalescer} collapsing bursts of presence and typing events.
+     *
+     * @return
+     *      The EventCoalescer or null if every update fires its events.
+     */
+    public EventCoalescer getEventCoalescer()
+    {
+        return eventCoalescer;
+    }
+
+    public void setEventCoalescer(EventCoalescer eventCoalescer)
+    {
+        this.eventCoalescer = eventCoalescer;
+    }
+
+    /**
+     * The {@link net.dv8tion.jda.entities.impl.MessageCache MessageCache} holding the recent messages of all channels.
+     *
+     * @return
+     *      The MessageCache or null if messages are not cached.
+     */
+    public MessageCache getMessageCache()
+    {
+        return messageCache;
+    }
+
+    public void setMessageCache(MessageCache messageCache)
+    {
+        this.messageCache = messageCache;
+    }
+
+    /**
+     * The {@link net.dv8tion.jda.utils.MessageSearchIndex MessageSearchIndex} fed with received, edited and deleted messages.
+     *
+     * @return
+     *      The MessageSearchIndex or null if messages are not indexed.
+     */
+    public MessageSearchIndex getSearchIndex()
+    {
+        return searchIndex;
+    }
+
+    public void setSearchIndex(MessageSearchIndex searchIndex)
+    {
+        this.searchIndex = searchIndex;
+    }
+
     public WebSocketClient getClient()
     {
         return client;
     }
 
+    public ReentrantLock getCacheLock()
+    {
+        return cacheLock;
+    }
+
     public Map<String, User> getUserMap()
     {
         return userMap;
@@ -255,7 +391,41 @@ public class JDAImpl implements JDA
     @Override
     public List<User> getUsersByName(String name)
     {
-        return userMap.values().stream().filter(u -> u.getUsername().equalsIgnoreCase(name)).collect(Collectors.toList());
+        return userNameIndex.get(name);
+    }
+
+    @Override
+    public List<User> getUsersByNamePrefix(String prefix)
+    {
+        return userNameIndex.getByPrefix(prefix);
+    }
+
+    public UserNameIndex getUserNameIndex()
+    {
+        return userNameIndex;
+    }
+
+    /**
+     * Updates the name indices after the name of the provided {@link net.dv8tion.jda.entities.User User} was set.<br>
+     * Besides the index of all Users, the member index of every {@link net.dv8tion.jda.entities.Guild Guild} the User is in
+     * is updated if the name changed.
+     *
+     * @param user
+     *          The User whose name was set.
+     * @param oldName
+     *          The name the User had before or null if the User was just created.
+     */
+    public void updateUserName(User user, String oldName)
+    {
+        userNameIndex.update(user, oldName);
+        if (oldName == null || oldName.equals(user.getUsername()))
+            return;
+        for (Guild guild : guildMap.values())
+        {
+            GuildImpl impl = (GuildImpl) guild;
+            if (impl.getMemberIndex(user) != -1)
+                impl.getMemberNameIndex().update(user, oldName);
+        }
     }
 
     public Map<String, Guild> getGuildMap()
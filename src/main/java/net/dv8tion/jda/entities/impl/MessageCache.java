@@ -0,0 +1,252 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.entities.impl;
+
+import net.dv8tion.jda.entities.Message;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Bounded cache of the most recent {@link net.dv8tion.jda.entities.Message Messages} of every channel.<br>
+ * Each channel keeps its messages in a fixed-size ring buffer, adding to a full buffer overwrites its oldest message.
+ * Additionally the amount of messages over all channels is capped: once exceeded, the oldest message of the least
+ * recently used channel is evicted. Used to provide the previous state of updated and deleted messages.
+ */
+public class MessageCache
+{
+    private final int channelSize;
+    private final int totalSize;
+    //channel id -> buffer, least recently used first. Kept in insertion order and reordered by touch(), so lookups
+    //that shouldn't count as use (peek) can use a plain get.
+    private final LinkedHashMap<String, Buffer> channels = new LinkedHashMap<>();
+    private int total = 0;
+
+    public MessageCache(int channelSize, int totalSize)
+    {
+        if (channelSize < 1)
+            throw new IllegalArgumentException("The channel size has to be at least 1. Provided: " + channelSize);
+        if (totalSize < channelSize)
+            throw new IllegalArgumentException("The total size cannot be smaller than the channel size. Provided: " + totalSize);
+        this.channelSize = channelSize;
+        this.totalSize = totalSize;
+    }
+
+    /**
+     * Adds a newly received or sent Message. If the channel already contains a Message with the same id
+     * (our own messages are received after they have been sent), that one is replaced instead.
+     *
+     * @param message
+     *          The new Message.
+     */
+    public synchronized void add(Message message)
+    {
+        Buffer buffer = touch(message.getChannelId());
+        if (buffer == null)
+        {
+            buffer = new Buffer(channelSize);
+            channels.put(message.getChannelId(), buffer);
+        }
+        if (buffer.replace(message) != null)
+            return;
+        total += buffer.add(message);
+        while (total > totalSize)
+            evict();
+    }
+
+    /**
+     * Replaces a cached Message with its updated version. Messages that are not cached are ignored, as they would
+     * be out of order in their channel.
+     *
+     * @param message
+     *          The updated Message.
+     * @return
+     *      The previously cached Message or null.
+     */
+    public synchronized Message update(Message message)
+    {
+        Buffer buffer = touch(message.getChannelId());
+        return buffer == null ? null : buffer.replace(message);
+    }
+
+    /**
+     * The cached Message.
+     *
+     * @param channelId
+     *          The id of the channel of the Message.
+     * @param messageId
+     *          The id of the Message.
+     * @return
+     *      The Message or null if it is not cached.
+     */
+    public synchronized Message get(String channelId, String messageId)
+    {
+        touch(channelId);
+        return peek(channelId, messageId);
+    }
+
+    /**
+     * The cached Message, like {@link #get(String, String)}, but without marking the channel as recently used.
+     * Used to check whether a Message is cached without affecting which channel is evicted next.
+     *
+     * @param channelId
+     *          The id of the channel of the Message.
+     * @param messageId
+     *          The id of the Message.
+     * @return
+     *      The Message or null if it is not cached.
+     */
+    public synchronized Message peek(String channelId, String messageId)
+    {
+        Buffer buffer = channels.get(channelId);
+        if (buffer == null)
+            return null;
+        int index = buffer.indexOf(messageId);
+        return index == -1 ? null : buffer.ring[index];
+    }
+
+    /**
+     * Removes a deleted Message.
+     *
+     * @param channelId
+     *          The id of the channel of the Message.
+     * @param messageId
+     *          The id of the Message.
+     * @return
+     *      The removed Message or null if it was not cached.
+     */
+    public synchronized Message remove(String channelId, String messageId)
+    {
+        Buffer buffer = channels.get(channelId);
+        if (buffer == null)
+            return null;
+        int index = buffer.indexOf(messageId);
+        if (index == -1)
+            return null;
+        Message message = buffer.ring[index];
+        buffer.ring[index] = null;
+        buffer.size--;
+        total--;
+        if (buffer.size == 0)
+            channels.remove(channelId);
+        return message;
+    }
+
+    /**
+     * Drops all Messages of a deleted or left channel.
+     *
+     * @param channelId
+     *          The id of the channel.
+     */
+    public synchronized void removeChannel(String channelId)
+    {
+        Buffer buffer = channels.remove(channelId);
+        if (buffer != null)
+            total -= buffer.size;
+    }
+
+    /**
+     * The amount of cached Messages over all channels.
+     *
+     * @return
+     *      The amount of Messages.
+     */
+    public synchronized int size()
+    {
+        return total;
+    }
+
+    //Moves the channel to the end of the eviction order.
+    private Buffer touch(String channelId)
+    {
+        Buffer buffer = channels.remove(channelId);
+        if (buffer != null)
+            channels.put(channelId, buffer);
+        return buffer;
+    }
+
+    private void evict()
+    {
+        Iterator<Buffer> iterator = channels.values().iterator();
+        Buffer buffer = iterator.next();
+        buffer.removeOldest();
+        total--;
+        if (buffer.size == 0)
+            iterator.remove();
+    }
+
+    private static final class Buffer
+    {
+        private final Message[] ring;
+        //Position of the next write, which is also the oldest slot once the ring wrapped.
+        private int next = 0;
+        private int size = 0;
+
+        private Buffer(int capacity)
+        {
+            this.ring = new Message[capacity];
+        }
+
+        /**
+         * @return
+         *      The change of the size, 0 if the oldest Message was overwritten.
+         */
+        private int add(Message message)
+        {
+            int added = ring[next] == null ? 1 : 0;
+            ring[next] = message;
+            next = (next + 1) % ring.length;
+            size += added;
+            return added;
+        }
+
+        private Message replace(Message message)
+        {
+            int index = indexOf(message.getId());
+            if (index == -1)
+                return null;
+            Message previous = ring[index];
+            ring[index] = message;
+            return previous;
+        }
+
+        private void removeOldest()
+        {
+            for (int i = 0; i < ring.length; i++)
+            {
+                int index = (next + i) % ring.length;
+                if (ring[index] != null)
+                {
+                    ring[index] = null;
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        private int indexOf(String messageId)
+        {
+            //Newest first, recent messages are the ones most likely edited or deleted.
+            for (int i = 1; i <= ring.length; i++)
+            {
+                int index = (next - i + ring.length) % ring.length;
+                if (ring[index] != null && ring[index].getId().equals(messageId))
+                    return index;
+            }
+            return -1;
+        }
+    }
+}
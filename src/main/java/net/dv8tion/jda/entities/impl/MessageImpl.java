@@ -5,30 +5,39 @@ package net.dv8tion.jda.entities.impl;
 
 import net.dv8tion.jda.JDA;
 import net.dv8tion.jda.entities.Message;
+import net.dv8tion.jda.entities.Role;
+import net.dv8tion.jda.entities.TextChannel;
 import net.dv8tion.jda.entities.User;
 import net.dv8tion.jda.handle.EntityBuilder;
+import net.dv8tion.jda.utils.MessageTokens;
+import net.dv8tion.jda.utils.MiscUtil;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 public class MessageImpl implements Message
 {
     private final String id;
     private final JDAImpl api;
-    private List<User> mentionedUsers = new LinkedList<>();
+    //The fields below are materialized from the raw values on first access, most listeners only need the content.
+    private volatile List<User> mentionedUsers = null;
+    private JSONArray rawMentions = null;
     private boolean mentionsEveryone = false;
     private boolean isTTS = false;
-    private OffsetDateTime time;
-    private OffsetDateTime editedTime = null;
+    private volatile OffsetDateTime time = null;
+    private volatile OffsetDateTime editedTime = null;
+    private String rawEditedTime = null;
     private User author;
     private String channelId;
     private boolean isPrivate;
     private String content;
     private String subContent = null;
+    private volatile MessageTokens tokens = null;
 
     public MessageImpl(String id, JDAImpl api)
     {
@@ -51,7 +60,68 @@ public class MessageImpl implements Message
     @Override
     public List<User> getMentionedUsers()
     {
-        return Collections.unmodifiableList(mentionedUsers);
+        List<User> mentioned = mentionedUsers;
+        if (mentioned == null)
+        {
+            mentioned = new ArrayList<>(rawMentions == null ? 0 : rawMentions.length());
+            for (int i = 0; rawMentions != null && i < rawMentions.length(); i++)
+            {
+                User user = api.getUserMap().get(rawMentions.getJSONObject(i).getString("id"));
+                if (user != null)
+                    mentioned.add(user);
+            }
+            mentioned = Collections.unmodifiableList(mentioned);
+            mentionedUsers = mentioned;
+        }
+        return mentioned;
+    }
+
+    @Override
+    public List<TextChannel> getMentionedChannels()
+    {
+        if (isPrivate || api == null)
+            return Collections.emptyList();
+        TextChannel channel = api.getChannelMap().get(channelId);
+        if (channel == null)
+            return Collections.emptyList();
+        List<TextChannel> mentioned = new ArrayList<>();
+        for (String id : getTokens().getIds(MessageTokens.CHANNEL))
+        {
+            TextChannel mentionedChannel = api.getChannelMap().get(id);
+            if (mentionedChannel != null && mentionedChannel.getGuild() == channel.getGuild())
+                mentioned.add(mentionedChannel);
+        }
+        return Collections.unmodifiableList(mentioned);
+    }
+
+    @Override
+    public List<Role> getMentionedRoles()
+    {
+        if (isPrivate || api == null)
+            return Collections.emptyList();
+        TextChannel channel = api.getChannelMap().get(channelId);
+        if (channel == null)
+            return Collections.emptyList();
+        List<Role> mentioned = new ArrayList<>();
+        for (String id : getTokens().getIds(MessageTokens.ROLE))
+        {
+            Role role = ((GuildImpl) channel.getGuild()).getRolesMap().get(id);
+            if (role != null)
+                mentioned.add(role);
+        }
+        return Collections.unmodifiableList(mentioned);
+    }
+
+    /**
+     * The mentions and invites of the content, found once on first access.
+     *
+     * @return the tokens of the raw content
+     */
+    public MessageTokens getTokens()
+    {
+        if (tokens == null)
+            tokens = MessageTokens.tokenize(content);
+        return tokens;
     }
 
     @Override
@@ -63,19 +133,24 @@ public class MessageImpl implements Message
     @Override
     public OffsetDateTime getTime()
     {
-        return time.plusSeconds(0L);
+        //OffsetDateTime is immutable, so it can be shared.
+        if (time == null)
+            time = MiscUtil.getCreationTime(id);
+        return time;
     }
 
     @Override
     public boolean isEdited()
     {
-        return editedTime != null;
+        return editedTime != null || rawEditedTime != null;
     }
 
     @Override
     public OffsetDateTime getEditedTimestamp()
     {
-        return editedTime.plusSeconds(0L);
+        if (editedTime == null && rawEditedTime != null)
+            editedTime = OffsetDateTime.parse(rawEditedTime);
+        return editedTime;
     }
 
     @Override
@@ -89,12 +164,26 @@ public class MessageImpl implements Message
     {
         if (subContent == null)
         {
-            String tmp = content;
-            for (User user : mentionedUsers)
+            MessageTokens tokens = getTokens();
+            List<User> mentioned = getMentionedUsers();
+            StringBuilder builder = new StringBuilder(content.length());
+            int position = 0;
+            for (int i = 0; i < tokens.size(); i++)
             {
-                tmp = tmp.replace("<@" + user.getId() + ">", "@" + user.getUsername());
+                if (tokens.getType(i) != MessageTokens.USER)
+                    continue;
+                String id = tokens.getId(i);
+                for (User user : mentioned)
+                {
+                    if (user.getId().equals(id))
+                    {
+                        builder.append(content, position, tokens.getStart(i)).append('@').append(user.getUsername());
+                        position = tokens.getEnd(i);
+                        break;
+                    }
+                }
             }
-            subContent = tmp;
+            subContent = position == 0 ? content : builder.append(content, position, content.length()).toString();
         }
         return subContent;
     }
@@ -146,7 +235,16 @@ public class MessageImpl implements Message
 
     public MessageImpl setMentionedUsers(List<User> mentionedUsers)
     {
-        this.mentionedUsers = mentionedUsers;
+        this.mentionedUsers = Collections.unmodifiableList(mentionedUsers);
+        return this;
+    }
+
+    /**
+     * Sets the mentions array of the message json, resolved to Users on the first call of {@link #getMentionedUsers()}.
+     */
+    public MessageImpl setRawMentions(JSONArray rawMentions)
+    {
+        this.rawMentions = rawMentions;
         return this;
     }
 
@@ -174,6 +272,15 @@ public class MessageImpl implements Message
         return this;
     }
 
+    /**
+     * Sets the ISO-8601 edited_timestamp of the message json, parsed on the first call of {@link #getEditedTimestamp()}.
+     */
+    public MessageImpl setRawEditedTime(String rawEditedTime)
+    {
+        this.rawEditedTime = rawEditedTime;
+        return this;
+    }
+
     public MessageImpl setAuthor(User author)
     {
         this.author = author;
@@ -195,6 +302,7 @@ public class MessageImpl implements Message
     public MessageImpl setContent(String content)
     {
         this.content = content;
+        this.tokens = null;
         return this;
     }
 
@@ -0,0 +1,356 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.entities.impl;
+
+import net.dv8tion.jda.OnlineStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Keeps the records of {@link net.dv8tion.jda.entities.impl.UserImpl Users} (username, discriminator, avatar,
+ * online status and game) in direct memory instead of the java heap.<br>
+ * With this store enabled, a UserImpl only holds its id, a slot into this store and the lazily created private
+ * channel and voice status. The heap record holding the other values is not created and they are
+ * materialized when they are accessed. This keeps the amount of long-lived heap objects, and with it the work of the
+ * garbage collector, independent from the amount of cached Users.
+ * <p>
+ * Every User occupies a fixed-size record in the record buffer. The Strings of a record are stored in a separate,
+ * append-only string buffer which is compacted once more than half of it is occupied by replaced values.
+ * Ids are mapped to slots through a primitive open-addressing index.
+ */
+public class OffHeapUserStore
+{
+    //Record layout: id (long), status (int), username, discriminator, avatar, game (int offsets into the string buffer)
+    private static final int RECORD_SIZE = 8 + 4 + 4 * 4;
+    private static final int ID = 0, STATUS = 8, USERNAME = 12, DISCRIMINATOR = 16, AVATAR = 20, GAME = 24;
+    private static final int NULL = -1;
+    private static final OnlineStatus[] STATUSES = OnlineStatus.values();
+
+    private ByteBuffer records;
+    private ByteBuffer strings;
+    private int recordCount = 0;
+    private int[] freeSlots = new int[16];
+    private int freeCount = 0;
+    private int wastedBytes = 0;
+
+    //Open addressing index: id -> slot. A key of 0 marks an empty bucket (0 is never a valid snowflake).
+    private long[] indexKeys;
+    private int[] indexSlots;
+    private int indexSize = 0;
+
+    /**
+     * Creates a new store with room for the provided amount of Users. The store grows when needed.
+     *
+     * @param expectedUsers
+     *          The amount of Users expected to be cached.
+     */
+    public OffHeapUserStore(int expectedUsers)
+    {
+        int capacity = Math.max(16, expectedUsers);
+        records = ByteBuffer.allocateDirect(capacity * RECORD_SIZE);
+        strings = ByteBuffer.allocateDirect(capacity * 32);
+        int indexCapacity = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        indexKeys = new long[indexCapacity];
+        indexSlots = new int[indexCapacity];
+    }
+
+    /**
+     * Returns the slot of the User with the provided id, allocating a new record if the User is not stored yet.
+     *
+     * @param id
+     *          The id of the User.
+     * @return
+     *      The slot of the User's record.
+     */
+    public synchronized int allocate(String id)
+    {
+        long key = Long.parseLong(id);
+        int slot = find(key);
+        if (slot != NULL)
+            return slot;
+
+        if (freeCount > 0)
+        {
+            slot = freeSlots[--freeCount];
+        }
+        else
+        {
+            if ((recordCount + 1) * RECORD_SIZE > records.capacity())
+                records = grow(records, records.capacity() * 2);
+            slot = recordCount++;
+        }
+        int base = slot * RECORD_SIZE;
+        records.putLong(base + ID, key);
+        records.putInt(base + STATUS, OnlineStatus.OFFLINE.ordinal());
+        records.putInt(base + USERNAME, NULL);
+        records.putInt(base + DISCRIMINATOR, NULL);
+        records.putInt(base + AVATAR, NULL);
+        records.putInt(base + GAME, NULL);
+        insert(key, slot);
+        return slot;
+    }
+
+    /**
+     * Removes the record of the provided slot. The slot will be reused by following allocations.
+     *
+     * @param slot
+     *          The slot to release.
+     */
+    public synchronized void release(int slot)
+    {
+        int base = slot * RECORD_SIZE;
+        for (int field = USERNAME; field <= GAME; field += 4)
+            discard(records.getInt(base + field));
+        remove(records.getLong(base + ID));
+        if (freeCount == freeSlots.length)
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+    }
+
+    public String getUsername(int slot)
+    {
+        return getString(slot, USERNAME);
+    }
+
+    public void setUsername(int slot, String username)
+    {
+        setString(slot, USERNAME, username);
+    }
+
+    public String getDiscriminator(int slot)
+    {
+        return getString(slot, DISCRIMINATOR);
+    }
+
+    public void setDiscriminator(int slot, String discriminator)
+    {
+        setString(slot, DISCRIMINATOR, discriminator);
+    }
+
+    public String getAvatarId(int slot)
+    {
+        return getString(slot, AVATAR);
+    }
+
+    public void setAvatarId(int slot, String avatarId)
+    {
+        setString(slot, AVATAR, avatarId);
+    }
+
+    public String getCurrentGame(int slot)
+    {
+        return getString(slot, GAME);
+    }
+
+    public void setCurrentGame(int slot, String game)
+    {
+        setString(slot, GAME, game);
+    }
+
+    public synchronized OnlineStatus getOnlineStatus(int slot)
+    {
+        return STATUSES[records.getInt(slot * RECORD_SIZE + STATUS)];
+    }
+
+    public synchronized void setOnlineStatus(int slot, OnlineStatus status)
+    {
+        records.putInt(slot * RECORD_SIZE + STATUS, status.ordinal());
+    }
+
+    /**
+     * The amount of Users currently stored.
+     *
+     * @return
+     *      The amount of stored Users.
+     */
+    public synchronized int size()
+    {
+        return indexSize;
+    }
+
+    /**
+     * The amount of direct memory (in bytes) currently reserved by this store.
+     *
+     * @return
+     *      The reserved direct memory in bytes.
+     */
+    public synchronized long getReservedBytes()
+    {
+        return (long) records.capacity() + strings.capacity();
+    }
+
+    private synchronized String getString(int slot, int field)
+    {
+        int offset = records.getInt(slot * RECORD_SIZE + field);
+        if (offset == NULL)
+            return null;
+        int length = strings.getShort(offset) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+            bytes[i] = strings.get(offset + 2 + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private synchronized void setString(int slot, int field, String value)
+    {
+        int base = slot * RECORD_SIZE;
+        int current = records.getInt(base + field);
+        if (value == null)
+        {
+            discard(current);
+            records.putInt(base + field, NULL);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF)
+            bytes = Arrays.copyOf(bytes, 0xFFFF);
+        //Most updates re-send the stored value, appending a copy would only produce garbage for the compaction.
+        if (current != NULL && equals(current, bytes))
+            return;
+        //Unlink the replaced value first, otherwise a compaction would copy it and forget that it is garbage.
+        discard(current);
+        records.putInt(base + field, NULL);
+        if (strings.position() + 2 + bytes.length > strings.capacity())
+        {
+            if (wastedBytes > strings.position() / 2)
+                compact();
+            if (strings.position() + 2 + bytes.length > strings.capacity())
+                strings = grow(strings, Math.max(strings.capacity() * 2, strings.position() + 2 + bytes.length));
+        }
+        int offset = strings.position();
+        strings.putShort((short) bytes.length);
+        strings.put(bytes);
+        records.putInt(base + field, offset);
+    }
+
+    private boolean equals(int offset, byte[] bytes)
+    {
+        if ((strings.getShort(offset) & 0xFFFF) != bytes.length)
+            return false;
+        for (int i = 0; i < bytes.length; i++)
+        {
+            if (strings.get(offset + 2 + i) != bytes[i])
+                return false;
+        }
+        return true;
+    }
+
+    private void discard(int offset)
+    {
+        if (offset != NULL)
+            wastedBytes += 2 + (strings.getShort(offset) & 0xFFFF);
+    }
+
+    private void compact()
+    {
+        ByteBuffer compacted = ByteBuffer.allocateDirect(strings.capacity());
+        for (int slot = 0; slot < recordCount; slot++)
+        {
+            int base = slot * RECORD_SIZE;
+            if (find(records.getLong(base + ID)) != slot)
+                continue;   //released slot
+            for (int field = USERNAME; field <= GAME; field += 4)
+            {
+                int offset = records.getInt(base + field);
+                if (offset == NULL)
+                    continue;
+                int length = 2 + (strings.getShort(offset) & 0xFFFF);
+                records.putInt(base + field, compacted.position());
+                for (int i = 0; i < length; i++)
+                    compacted.put(strings.get(offset + i));
+            }
+        }
+        strings = compacted;
+        wastedBytes = 0;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity)
+    {
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+        int position = buffer.position();
+        buffer.position(0);
+        buffer.limit(buffer.capacity());
+        grown.put(buffer);
+        grown.position(position);
+        return grown;
+    }
+
+    private int find(long key)
+    {
+        int mask = indexKeys.length - 1;
+        for (int i = hash(key) & mask; indexKeys[i] != 0; i = (i + 1) & mask)
+        {
+            if (indexKeys[i] == key)
+                return indexSlots[i];
+        }
+        return NULL;
+    }
+
+    private void insert(long key, int slot)
+    {
+        if ((indexSize + 1) * 2 > indexKeys.length)
+        {
+            long[] oldKeys = indexKeys;
+            int[] oldSlots = indexSlots;
+            indexKeys = new long[oldKeys.length * 2];
+            indexSlots = new int[oldKeys.length * 2];
+            indexSize = 0;
+            for (int i = 0; i < oldKeys.length; i++)
+            {
+                if (oldKeys[i] != 0)
+                    insert(oldKeys[i], oldSlots[i]);
+            }
+        }
+        int mask = indexKeys.length - 1;
+        int i = hash(key) & mask;
+        while (indexKeys[i] != 0)
+            i = (i + 1) & mask;
+        indexKeys[i] = key;
+        indexSlots[i] = slot;
+        indexSize++;
+    }
+
+    private void remove(long key)
+    {
+        int mask = indexKeys.length - 1;
+        int i = hash(key) & mask;
+        while (indexKeys[i] != key)
+        {
+            if (indexKeys[i] == 0)
+                return;
+            i = (i + 1) & mask;
+        }
+        indexKeys[i] = 0;
+        indexSize--;
+        //Re-insert the following entries of the cluster so lookups don't stop at the new gap.
+        for (i = (i + 1) & mask; indexKeys[i] != 0; i = (i + 1) & mask)
+        {
+            long k = indexKeys[i];
+            int s = indexSlots[i];
+            indexKeys[i] = 0;
+            indexSize--;
+            insert(k, s);
+        }
+    }
+
+    private static int hash(long key)
+    {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
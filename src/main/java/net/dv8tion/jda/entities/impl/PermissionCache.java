@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.entities.impl;
+
+import net.dv8tion.jda.Permission;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Caches the effective permissions of the members of a Guild in one channel, used by
+ * {@link net.dv8tion.jda.utils.PermissionUtil PermissionUtil}.<br>
+ * Entries are indexed by the member index of the Guild (see {@link GuildImpl#getMemberIndex(net.dv8tion.jda.entities.User)})
+ * and hold the permission bits together with the stamp they were computed with. The stamp is the sum of the stamps of
+ * the Guild, the member and this channel. As those only ever increase, any change to roles, member roles or overrides
+ * of this channel changes the sum and makes the entry stale, without touching the entries themselves.
+ */
+public class PermissionCache
+{
+    private volatile int stamp = 0;
+    private volatile long[] entries = new long[0];
+    //Permission ordinal -> members having it, see PermissionUtil#getMembersWithPermission
+    private final Visibility[] visibilities = new Visibility[Permission.values().length];
+
+    /**
+     * Invalidates all entries of this channel. Called after its overrides changed.
+     */
+    public void invalidate()
+    {
+        stamp++;
+    }
+
+    public int getStamp()
+    {
+        return stamp;
+    }
+
+    /**
+     * The cached permissions of a member.
+     *
+     * @param memberIndex
+     *          The index of the member in the Guild.
+     * @param stamp
+     *          The current stamp of Guild, member and channel.
+     * @return
+     *      The permission bits or -1 if nothing valid is cached.
+     */
+    public int get(int memberIndex, int stamp)
+    {
+        long[] entries = this.entries;
+        if (memberIndex >= entries.length)
+            return -1;
+        long entry = entries[memberIndex];
+        return (int) (entry >>> 32) == stamp ? (int) entry : -1;
+    }
+
+    /**
+     * Caches the permissions of a member.
+     *
+     * @param memberIndex
+     *          The index of the member in the Guild.
+     * @param stamp
+     *          The stamp of Guild, member and channel read before computing the permissions.
+     * @param permissions
+     *          The permission bits.
+     * @param capacity
+     *          The amount of member indices currently used by the Guild, used when the cache has to grow.
+     */
+    public void put(int memberIndex, int stamp, int permissions, int capacity)
+    {
+        long[] entries = this.entries;
+        if (memberIndex >= entries.length)
+        {
+            entries = Arrays.copyOf(entries, Math.max(capacity, memberIndex + 1));
+            this.entries = entries;
+        }
+        entries[memberIndex] = ((long) stamp << 32) | (permissions & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The cached members having a permission, as bitset over the member indices of the Guild.
+     * The stamp has to be the one of the whole Guild, see {@link GuildImpl#getPermissionStamp()}.
+     *
+     * @param permission
+     *          The permission.
+     * @param stamp
+     *          The current stamp of Guild and channel.
+     * @return
+     *      The shared, unmodifiable BitSet or null if nothing valid is cached.
+     */
+    public BitSet getMembers(Permission permission, int stamp)
+    {
+        Visibility visibility = visibilities[permission.ordinal()];
+        return visibility != null && visibility.stamp == stamp ? visibility.members : null;
+    }
+
+    public void putMembers(Permission permission, int stamp, BitSet members)
+    {
+        visibilities[permission.ordinal()] = new Visibility(stamp, members);
+    }
+
+    private static class Visibility
+    {
+        private final int stamp;
+        private final BitSet members;
+
+        private Visibility(int stamp, BitSet members)
+        {
+            this.stamp = stamp;
+            this.members = members;
+        }
+    }
+}
@@ -13,6 +13,16 @@ public class PermissionOverride
         this.deny = deny;
     }
 
+    public int getAllow()
+    {
+        return allow;
+    }
+
+    public int getDeny()
+    {
+        return deny;
+    }
+
     public int apply(int current)
     {
         current = current | allow;
@@ -24,6 +24,9 @@ import net.dv8tion.jda.handle.EntityBuilder;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class PrivateChannelImpl implements PrivateChannel
 {
     private final String id;
@@ -69,7 +72,10 @@ public class PrivateChannelImpl implements PrivateChannel
             JSONObject response = api.getRequester().post("https://discordapp.com/api/channels/" + getId() + "/messages",
                     new JSONObject().put("content", msg.getRawContent()));
 
-            return new EntityBuilder(api).createMessage(response);
+            Message message = new EntityBuilder(api).createMessage(response);
+            if (api.getMessageCache() != null)
+                api.getMessageCache().add(message);
+            return message;
         }
         catch (JSONException ex)
         {
@@ -79,6 +85,20 @@ public class PrivateChannelImpl implements PrivateChannel
         }
     }
 
+    @Override
+    public List<Message> sendMessages(List<Message> messages)
+    {
+        List<Message> sent = new ArrayList<>(messages.size());
+        for (Message message : messages)
+        {
+            Message created = sendMessage(message);
+            if (created == null)
+                break;
+            sent.add(created);
+        }
+        return sent;
+    }
+
     public void sendTyping()
     {
         api.getRequester().post("https://discordapp.com/api/channels/" + getId() + "/typing", new JSONObject());
@@ -25,11 +25,12 @@ import net.dv8tion.jda.utils.PermissionUtil;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class TextChannelImpl implements TextChannel
 {
@@ -40,6 +41,7 @@ public class TextChannelImpl implements TextChannel
     private int position;
     private final Map<User, PermissionOverride> userPermissionOverrides = new HashMap<>();
     private final Map<Role, PermissionOverride> rolePermissionOverrides = new HashMap<>();
+    private final PermissionCache permissionCache = new PermissionCache();
 
     public TextChannelImpl(String id, Guild guild)
     {
@@ -80,8 +82,7 @@ public class TextChannelImpl implements TextChannel
     @Override
     public List<User> getUsers()
     {
-        List<User> users = getGuild().getUsers().stream().filter(user -> checkPermission(user, Permission.MESSAGE_READ)).collect(Collectors.toList());
-        return Collections.unmodifiableList(users);
+        return Collections.unmodifiableList(PermissionUtil.getUsersWithPermission(this, Permission.MESSAGE_READ));
     }
 
     @Override
@@ -104,7 +105,10 @@ public class TextChannelImpl implements TextChannel
         {
             JSONObject response = api.getRequester().post("https://discordapp.com/api/channels/" + getId() + "/messages",
                     new JSONObject().put("content", msg.getRawContent()).put("tts", msg.isTTS()));
-            return new EntityBuilder(api).createMessage(response);
+            Message message = new EntityBuilder(api).createMessage(response);
+            if (api.getMessageCache() != null)
+                api.getMessageCache().add(message);
+            return message;
         }
         catch (JSONException ex)
         {
@@ -114,6 +118,20 @@ public class TextChannelImpl implements TextChannel
         }
     }
 
+    @Override
+    public List<Message> sendMessages(List<Message> messages)
+    {
+        List<Message> sent = new ArrayList<>(messages.size());
+        for (Message message : messages)
+        {
+            Message created = sendMessage(message);
+            if (created == null)
+                break;
+            sent.add(created);
+        }
+        return sent;
+    }
+
     public void sendTyping()
     {
         ((JDAImpl) getJDA()).getRequester().post("https://discordapp.com/api/channels/" + getId() + "/typing", new JSONObject());
@@ -125,6 +143,18 @@ public class TextChannelImpl implements TextChannel
         return PermissionUtil.checkPermission(this, user, perm);
     }
 
+    @Override
+    public int getEffectivePermissions(User user)
+    {
+        return PermissionUtil.getEffectivePermissions(this, user);
+    }
+
+    @Override
+    public EnumSet<Permission> getPermissions(User user)
+    {
+        return Permission.getPermissions(getEffectivePermissions(user));
+    }
+
     @Override
     public ChannelManager getManager()
     {
@@ -160,6 +190,11 @@ public class TextChannelImpl implements TextChannel
         return rolePermissionOverrides;
     }
 
+    public PermissionCache getPermissionCache()
+    {
+        return permissionCache;
+    }
+
     @Override
     public boolean equals(Object o)
     {
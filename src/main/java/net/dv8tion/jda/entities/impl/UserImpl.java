@@ -28,19 +28,22 @@ public class UserImpl implements User
 {
     private final String id;
     private final JDAImpl api;
-    private String username;
-    private String discriminator;
-    private String avatarId;
-    private String gameName = null;
-    private OnlineStatus onlineStatus = OnlineStatus.OFFLINE;
     private PrivateChannel privateChannel = null;
-    private final VoiceStatus voiceStatus;
+    private VoiceStatus voiceStatus = null;
+    //The values of this User if they are held on the heap, null if they are in the OffHeapUserStore.
+    private Record record = null;
+    //Slot of this User in the OffHeapUserStore or -1 if the values are held by the record.
+    private int slot = -1;
 
     public UserImpl(String id, JDAImpl api)
     {
         this.id = id;
         this.api = api;
-        this.voiceStatus = new VoiceStatusImpl(this);
+        OffHeapUserStore store = api.getUserStore();
+        if (store != null)
+            this.slot = store.allocate(id);
+        else
+            this.record = new Record();
     }
 
     @Override
@@ -58,19 +61,19 @@ public class UserImpl implements User
     @Override
     public String getUsername()
     {
-        return username;
+        return record != null ? record.username : api.getUserStore().getUsername(slot);
     }
 
     @Override
     public String getDiscriminator()
     {
-        return discriminator;
+        return record != null ? record.discriminator : api.getUserStore().getDiscriminator(slot);
     }
 
     @Override
     public String getAvatarId()
     {
-        return avatarId;
+        return record != null ? record.avatarId : api.getUserStore().getAvatarId(slot);
     }
 
     @Override
@@ -82,13 +85,13 @@ public class UserImpl implements User
     @Override
     public String getCurrentGame()
     {
-        return gameName;
+        return record != null ? record.gameName : api.getUserStore().getCurrentGame(slot);
     }
 
     @Override
     public OnlineStatus getOnlineStatus()
     {
-        return onlineStatus;
+        return record != null ? record.onlineStatus : api.getUserStore().getOnlineStatus(slot);
     }
 
     @Override
@@ -113,36 +116,54 @@ public class UserImpl implements User
     @Override
     public VoiceStatus getVoiceStatus()
     {
+        //Created on first access as most Users never join a VoiceChannel.
+        if (voiceStatus == null)
+            voiceStatus = new VoiceStatusImpl(this);
         return voiceStatus;
     }
 
     public UserImpl setUserName(String username)
     {
-        this.username = username;
+        if (record != null)
+            record.username = username;
+        else
+            api.getUserStore().setUsername(slot, username);
         return this;
     }
 
     public UserImpl setDiscriminator(String discriminator)
     {
-        this.discriminator = discriminator;
+        if (record != null)
+            record.discriminator = discriminator;
+        else
+            api.getUserStore().setDiscriminator(slot, discriminator);
         return this;
     }
 
     public UserImpl setAvatarId(String avatarId)
     {
-        this.avatarId = avatarId;
+        if (record != null)
+            record.avatarId = avatarId;
+        else
+            api.getUserStore().setAvatarId(slot, avatarId);
         return this;
     }
 
     public UserImpl setCurrentGame(String name)
     {
-        this.gameName = name;
+        if (record != null)
+            record.gameName = name;
+        else
+            api.getUserStore().setCurrentGame(slot, name);
         return this;
     }
 
     public UserImpl setOnlineStatus(OnlineStatus onlineStatus)
     {
-        this.onlineStatus = onlineStatus;
+        if (record != null)
+            record.onlineStatus = onlineStatus;
+        else
+            api.getUserStore().setOnlineStatus(slot, onlineStatus);
         return this;
     }
 
@@ -158,6 +179,28 @@ public class UserImpl implements User
         return privateChannel != null;
     }
 
+    /**
+     * Moves the values of this User out of the {@link net.dv8tion.jda.entities.impl.OffHeapUserStore OffHeapUserStore}
+     * back into this object and releases its record.<br>
+     * Must be called when the User is removed from the cache, as the record would be reused for another User otherwise.
+     * Does nothing if the User isn't backed by the store.
+     */
+    public void detach()
+    {
+        if (record != null)
+            return;
+        OffHeapUserStore store = api.getUserStore();
+        Record record = new Record();
+        record.username = store.getUsername(slot);
+        record.discriminator = store.getDiscriminator(slot);
+        record.avatarId = store.getAvatarId(slot);
+        record.gameName = store.getCurrentGame(slot);
+        record.onlineStatus = store.getOnlineStatus(slot);
+        store.release(slot);
+        this.record = record;
+        slot = -1;
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -172,4 +215,14 @@ public class UserImpl implements User
     {
         return getId().hashCode();
     }
+
+    //The values that are moved into the OffHeapUserStore when it is enabled.
+    private static class Record
+    {
+        private String username;
+        private String discriminator;
+        private String avatarId;
+        private String gameName = null;
+        private OnlineStatus onlineStatus = OnlineStatus.OFFLINE;
+    }
 }
@@ -0,0 +1,107 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.entities.impl;
+
+import net.dv8tion.jda.entities.User;
+
+import java.util.*;
+
+/**
+ * Case-insensitive index of the usernames of {@link net.dv8tion.jda.entities.User Users}.<br>
+ * Used to answer name lookups without scanning every cached User. Supports exact and prefix lookups.
+ * JDA keeps one index of all cached Users and one per {@link net.dv8tion.jda.entities.Guild Guild} for its members.
+ * <p>
+ * Both kinds of lookups fold the case of the names the same way: names are compared by their
+ * {@link String#toLowerCase(java.util.Locale) lower case} in {@link java.util.Locale#ROOT Locale.ROOT}.
+ */
+public class UserNameIndex
+{
+    private final NavigableMap<String, Set<User>> index = new TreeMap<>();
+
+    /**
+     * Updates the index entry of the provided User.
+     *
+     * @param user
+     *          The User whose name changed or who was added to the cache.
+     * @param oldName
+     *          The name the User was indexed with before or null if the User wasn't indexed yet.
+     */
+    public synchronized void update(User user, String oldName)
+    {
+        if (oldName != null)
+            remove(user, oldName);
+        if (user.getUsername() != null)
+            index.computeIfAbsent(key(user.getUsername()), k -> new HashSet<>(2)).add(user);
+    }
+
+    /**
+     * Removes the provided User from the index.
+     *
+     * @param user
+     *          The User to remove.
+     */
+    public synchronized void remove(User user)
+    {
+        if (user.getUsername() != null)
+            remove(user, user.getUsername());
+    }
+
+    /**
+     * All indexed Users whose name equals the provided name, ignoring case.
+     *
+     * @param name
+     *          The name to look up.
+     * @return
+     *      A new List of matching Users. Empty if there is no match.
+     */
+    public synchronized List<User> get(String name)
+    {
+        Set<User> users = index.get(key(name));
+        return users == null ? new LinkedList<>() : new LinkedList<>(users);
+    }
+
+    /**
+     * All indexed Users whose name starts with the provided prefix, ignoring case.
+     *
+     * @param prefix
+     *          The prefix to look up.
+     * @return
+     *      A new List of matching Users. Empty if there is no match.
+     */
+    public synchronized List<User> getByPrefix(String prefix)
+    {
+        String key = key(prefix);
+        List<User> result = new LinkedList<>();
+        for (Set<User> users : index.subMap(key, true, key + Character.MAX_VALUE, false).values())
+        {
+            result.addAll(users);
+        }
+        return result;
+    }
+
+    private void remove(User user, String name)
+    {
+        String key = key(name);
+        Set<User> users = index.get(key);
+        if (users != null && users.remove(user) && users.isEmpty())
+            index.remove(key);
+    }
+
+    private static String key(String name)
+    {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
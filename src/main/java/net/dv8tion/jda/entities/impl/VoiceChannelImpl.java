@@ -35,6 +35,7 @@ public class VoiceChannelImpl implements VoiceChannel
     private List<User> connectedUsers = new ArrayList<>();
     private final Map<User, PermissionOverride> userPermissionOverrides = new HashMap<>();
     private final Map<Role, PermissionOverride> rolePermissionOverrides = new HashMap<>();
+    private final PermissionCache permissionCache = new PermissionCache();
 
     public VoiceChannelImpl(String id, Guild guild)
     {
@@ -84,6 +85,18 @@ public class VoiceChannelImpl implements VoiceChannel
         return PermissionUtil.checkPermission(this, user, perm);
     }
 
+    @Override
+    public int getEffectivePermissions(User user)
+    {
+        return PermissionUtil.getEffectivePermissions(this, user);
+    }
+
+    @Override
+    public EnumSet<Permission> getPermissions(User user)
+    {
+        return Permission.getPermissions(getEffectivePermissions(user));
+    }
+
     @Override
     public ChannelManager getManager()
     {
@@ -123,6 +136,11 @@ public class VoiceChannelImpl implements VoiceChannel
         return rolePermissionOverrides;
     }
 
+    public PermissionCache getPermissionCache()
+    {
+        return permissionCache;
+    }
+
     @Override
     public String getTopic()
     {
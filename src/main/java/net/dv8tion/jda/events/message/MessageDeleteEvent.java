@@ -17,6 +17,7 @@ package net.dv8tion.jda.events.message;
 
 import net.dv8tion.jda.JDA;
 import net.dv8tion.jda.entities.Guild;
+import net.dv8tion.jda.entities.Message;
 import net.dv8tion.jda.entities.PrivateChannel;
 import net.dv8tion.jda.entities.TextChannel;
 import net.dv8tion.jda.events.Event;
@@ -26,11 +27,13 @@ public class MessageDeleteEvent extends Event
     private final boolean isPrivate;
     private final String messageId;
     private final String channelId;
+    private final Message message;
 
-    public MessageDeleteEvent(JDA api, int responseNumber, String messageId, String channelId, boolean isPrivate)
+    public MessageDeleteEvent(JDA api, int responseNumber, String messageId, Message message, String channelId, boolean isPrivate)
     {
         super(api, responseNumber);
         this.messageId = messageId;
+        this.message = message;
         this.channelId = channelId;
         this.isPrivate = isPrivate;
     }
@@ -40,6 +43,19 @@ public class MessageDeleteEvent extends Event
         return messageId;
     }
 
+    /**
+     * The deleted Message.<br>
+     * Only available if the message cache is enabled (see {@link net.dv8tion.jda.JDABuilder#setMessageCache(int, int)})
+     * and the Message was still cached.
+     *
+     * @return
+     *      The deleted Message or null.
+     */
+    public Message getMessage()
+    {
+        return message;
+    }
+
     public TextChannel getTextChannel()
     {
         return getJDA().getTextChannelById(channelId);
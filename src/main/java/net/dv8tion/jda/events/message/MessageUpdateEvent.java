@@ -22,11 +22,13 @@ import net.dv8tion.jda.events.Event;
 public class MessageUpdateEvent extends Event
 {
     private final Message message;
+    private final Message previousMessage;
 
-    public MessageUpdateEvent(JDA api, int responseNumber, Message message)
+    public MessageUpdateEvent(JDA api, int responseNumber, Message message, Message previousMessage)
     {
         super(api, responseNumber);
         this.message = message;
+        this.previousMessage = previousMessage;
     }
 
     public Message getMessage()
@@ -34,6 +36,19 @@ public class MessageUpdateEvent extends Event
         return message;
     }
 
+    /**
+     * The Message as it was before this update.<br>
+     * Only available if the message cache is enabled (see {@link net.dv8tion.jda.JDABuilder#setMessageCache(int, int)})
+     * and the Message was still cached.
+     *
+     * @return
+     *      The previous Message or null.
+     */
+    public Message getPreviousMessage()
+    {
+        return previousMessage;
+    }
+
     public User getAuthor()
     {
         return message.getAuthor();
@@ -16,6 +16,7 @@
 package net.dv8tion.jda.events.message.guild;
 
 import net.dv8tion.jda.JDA;
+import net.dv8tion.jda.entities.Message;
 import net.dv8tion.jda.entities.PrivateChannel;
 import net.dv8tion.jda.entities.TextChannel;
 
@@ -23,9 +24,9 @@ public class GuildMessageDeleteEvent extends GenericGuildMessageEvent
 {
     private final String messageId;
 
-    public GuildMessageDeleteEvent(JDA api, int responseNumber, String messageId, TextChannel channel)
+    public GuildMessageDeleteEvent(JDA api, int responseNumber, String messageId, Message message, TextChannel channel)
     {
-        super(api, responseNumber, null, channel);
+        super(api, responseNumber, message, channel);
         this.messageId = messageId;
     }
 
@@ -33,4 +34,18 @@ public class GuildMessageDeleteEvent extends GenericGuildMessageEvent
     {
         return messageId;
     }
+
+    /**
+     * The deleted Message.<br>
+     * Only available if the message cache is enabled (see {@link net.dv8tion.jda.JDABuilder#setMessageCache(int, int)})
+     * and the Message was still cached.
+     *
+     * @return
+     *      The deleted Message or null.
+     */
+    @Override
+    public Message getMessage()
+    {
+        return super.getMessage();
+    }
 }
@@ -22,8 +22,24 @@ import net.dv8tion.jda.entities.TextChannel;
 
 public class GuildMessageUpdateEvent extends GenericGuildMessageEvent
 {
-    public GuildMessageUpdateEvent(JDA api, int responseNumber, Message message, TextChannel channel)
+    private final Message previousMessage;
+
+    public GuildMessageUpdateEvent(JDA api, int responseNumber, Message message, Message previousMessage, TextChannel channel)
     {
         super(api, responseNumber, message, channel);
+        this.previousMessage = previousMessage;
+    }
+
+    /**
+     * The Message as it was before this update.<br>
+     * Only available if the message cache is enabled (see {@link net.dv8tion.jda.JDABuilder#setMessageCache(int, int)})
+     * and the Message was still cached.
+     *
+     * @return
+     *      The previous Message or null.
+     */
+    public Message getPreviousMessage()
+    {
+        return previousMessage;
     }
 }
@@ -16,15 +16,16 @@
 package net.dv8tion.jda.events.message.priv;
 
 import net.dv8tion.jda.JDA;
+import net.dv8tion.jda.entities.Message;
 import net.dv8tion.jda.entities.PrivateChannel;
 
 public class PrivateMessageDeleteEvent extends GenericPrivateMessageEvent
 {
     private final String messageId;
 
-    public PrivateMessageDeleteEvent(JDA api, int responseNumber, String messageId, PrivateChannel channel)
+    public PrivateMessageDeleteEvent(JDA api, int responseNumber, String messageId, Message message, PrivateChannel channel)
     {
-        super(api, responseNumber, null, channel);
+        super(api, responseNumber, message, channel);
         this.messageId = messageId;
     }
 
@@ -32,4 +33,18 @@ public class PrivateMessageDeleteEvent extends GenericPrivateMessageEvent
     {
         return messageId;
     }
+
+    /**
+     * The deleted Message.<br>
+     * Only available if the message cache is enabled (see {@link net.dv8tion.jda.JDABuilder#setMessageCache(int, int)})
+     * and the Message was still cached.
+     *
+     * @return
+     *      The deleted Message or null.
+     */
+    @Override
+    public Message getMessage()
+    {
+        return super.getMessage();
+    }
 }
@@ -44,6 +44,8 @@ public class ChannelDeleteHandler extends SocketHandler
                     throw new IllegalArgumentException("CHANNEL_DELETE attempted to delete a channel that doesn't exist! JSON: " + content);
 
                 guild.getTextChannelsMap().remove(channel.getId());
+                if (api.getMessageCache() != null)
+                    api.getMessageCache().removeChannel(channel.getId());
                 api.getEventManager().handle(
                         new TextChannelDeleteEvent(
                                 api, responseNumber,
@@ -18,6 +18,7 @@ package net.dv8tion.jda.handle;
 import net.dv8tion.jda.entities.Role;
 import net.dv8tion.jda.entities.User;
 import net.dv8tion.jda.entities.impl.*;
+import net.dv8tion.jda.events.Event;
 import net.dv8tion.jda.events.channel.text.TextChannelUpdateNameEvent;
 import net.dv8tion.jda.events.channel.text.TextChannelUpdatePermissionsEvent;
 import net.dv8tion.jda.events.channel.text.TextChannelUpdatePositionEvent;
@@ -30,6 +31,7 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -44,6 +46,8 @@ public class ChannelUpdateHandler extends SocketHandler
     @Override
     public void handle(JSONObject content)
     {
+        //Update the cache first, listeners must only ever see a consistent state.
+        List<Event> events = new LinkedList<>();
         List<Role> changedRoles = new ArrayList<>();
         List<User> changedUsers = new ArrayList<>();
         List<Role> containedRoles = new ArrayList<>();
@@ -66,28 +70,31 @@ public class ChannelUpdateHandler extends SocketHandler
                 {
                     String oldName = channel.getName();
                     channel.setName(name);
-                    api.getEventManager().handle(
-                            new TextChannelUpdateNameEvent(
-                                    api, responseNumber,
-                                    channel, oldName));
+                    if (api.getEventManager().isListening(TextChannelUpdateNameEvent.class))
+                        events.add(
+                                new TextChannelUpdateNameEvent(
+                                        api, responseNumber,
+                                        channel, oldName));
                 }
                 if (!StringUtils.equals(channel.getTopic(), topic))
                 {
                     String oldTopic = channel.getTopic();
                     channel.setTopic(topic);
-                    api.getEventManager().handle(
-                            new TextChannelUpdateTopicEvent(
-                                    api, responseNumber,
-                                    channel, oldTopic));
+                    if (api.getEventManager().isListening(TextChannelUpdateTopicEvent.class))
+                        events.add(
+                                new TextChannelUpdateTopicEvent(
+                                        api, responseNumber,
+                                        channel, oldTopic));
                 }
                 if (channel.getPosition() != position)
                 {
                     int oldPosition = channel.getPosition();
                     channel.setPosition(position);
-                    api.getEventManager().handle(
-                            new TextChannelUpdatePositionEvent(
-                                    api, responseNumber,
-                                    channel, oldPosition));
+                    if (api.getEventManager().isListening(TextChannelUpdatePositionEvent.class))
+                        events.add(
+                                new TextChannelUpdatePositionEvent(
+                                        api, responseNumber,
+                                        channel, oldPosition));
                 }
 
                 //Determines if a new PermissionOverride was created or updated.
@@ -152,11 +159,13 @@ public class ChannelUpdateHandler extends SocketHandler
                 if (!changedRoles.isEmpty()
                         || !changedUsers.isEmpty())
                 {
-                    api.getEventManager().handle(
-                            new TextChannelUpdatePermissionsEvent(
-                                    api, responseNumber,
-                                    channel,
-                                    changedRoles, changedUsers));
+                    channel.getPermissionCache().invalidate();
+                    if (api.getEventManager().isListening(TextChannelUpdatePermissionsEvent.class))
+                        events.add(
+                                new TextChannelUpdatePermissionsEvent(
+                                        api, responseNumber,
+                                        channel,
+                                        changedRoles, changedUsers));
                 }
                 break;  //Finish the TextChannelUpdate case
             }
@@ -171,19 +180,21 @@ public class ChannelUpdateHandler extends SocketHandler
                 {
                     String oldName = channel.getName();
                     channel.setName(name);
-                    api.getEventManager().handle(
-                            new VoiceChannelUpdateNameEvent(
-                                    api, responseNumber,
-                                    channel, oldName));
+                    if (api.getEventManager().isListening(VoiceChannelUpdateNameEvent.class))
+                        events.add(
+                                new VoiceChannelUpdateNameEvent(
+                                        api, responseNumber,
+                                        channel, oldName));
                 }
                 if (channel.getPosition() != position)
                 {
                     int oldPosition = channel.getPosition();
                     channel.setPosition(position);
-                    api.getEventManager().handle(
-                            new VoiceChannelUpdatePositionEvent(
-                                    api, responseNumber,
-                                    channel, oldPosition));
+                    if (api.getEventManager().isListening(VoiceChannelUpdatePositionEvent.class))
+                        events.add(
+                                new VoiceChannelUpdatePositionEvent(
+                                        api, responseNumber,
+                                        channel, oldPosition));
                 }
 
                 //Determines if a new PermissionOverride was created or updated.
@@ -233,11 +244,13 @@ public class ChannelUpdateHandler extends SocketHandler
                 //Get the current overrides. (we copy them to a new list because the Set returned is backed by the Map, meaning our removes would remove from the Map. Not good.
                 //Loop through all of the json defined overrides. If we find a match, remove the User or Role from our lists.
                 //Any entries remaining in these lists after this for loop is over will be removed from the Channel's overrides.
-                channel.getRolePermissionOverrides().keySet().stream().filter(role -> !containedRoles.contains(role)).forEach(role -> {
+                List<Role> collect = channel.getRolePermissionOverrides().keySet().stream().filter(role -> !containedRoles.contains(role)).collect(Collectors.toList());
+                collect.forEach(role -> {
                     changedRoles.add(role);
                     channel.getRolePermissionOverrides().remove(role);
                 });
-                channel.getUserPermissionOverrides().keySet().stream().filter(user -> !containedUsers.contains(user)).forEach(user -> {
+                List<User> collect1 = channel.getUserPermissionOverrides().keySet().stream().filter(user -> !containedUsers.contains(user)).collect(Collectors.toList());
+                collect1.forEach(user -> {
                     changedUsers.add(user);
                     channel.getUserPermissionOverrides().remove(user);
                 });
@@ -246,16 +259,19 @@ public class ChannelUpdateHandler extends SocketHandler
                 if (!changedRoles.isEmpty()
                         || !changedUsers.isEmpty())
                 {
-                    api.getEventManager().handle(
-                            new VoiceChannelUpdatePermissionsEvent(
-                                    api, responseNumber,
-                                    channel,
-                                    changedRoles, changedUsers));
+                    channel.getPermissionCache().invalidate();
+                    if (api.getEventManager().isListening(VoiceChannelUpdatePermissionsEvent.class))
+                        events.add(
+                                new VoiceChannelUpdatePermissionsEvent(
+                                        api, responseNumber,
+                                        channel,
+                                        changedRoles, changedUsers));
                 }
                 break;  //Finish the TextChannelUpdate case
             }
             default:
                 throw new IllegalArgumentException("CHANNEL_UPDATE provided an unrecognized channel type JSON: " + content);
         }
+        events.forEach(api.getEventManager()::handle);
     }
 }
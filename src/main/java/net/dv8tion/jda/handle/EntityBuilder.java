@@ -23,13 +23,12 @@ import net.dv8tion.jda.entities.MessageEmbed.Provider;
 import net.dv8tion.jda.entities.MessageEmbed.Thumbnail;
 import net.dv8tion.jda.entities.MessageEmbed.VideoInfo;
 import net.dv8tion.jda.entities.impl.*;
+import org.apache.commons.lang3.StringUtils;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.time.OffsetDateTime;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -73,18 +72,19 @@ public class EntityBuilder
 
         JSONArray members = guild.getJSONArray("members");
         Map<String, Role> rolesMap = guildObj.getRolesMap();
-        Map<User, List<Role>> userRoles = guildObj.getUserRoles();
+        List<Role> memberRoles = new ArrayList<>();
         for (int i = 0; i < members.length(); i++)
         {
             JSONObject member = members.getJSONObject(i);
             User user = createUser(member.getJSONObject("user"));
-            userRoles.put(user, new ArrayList<>());
             JSONArray roleArr = member.getJSONArray("roles");
+            memberRoles.clear();
             for (int j = 0; j < roleArr.length(); j++)
             {
                 String roleId = roleArr.getString(j);
-                userRoles.get(user).add(rolesMap.get(roleId));
+                memberRoles.add(rolesMap.get(roleId));
             }
+            guildObj.setRolesForUser(user, memberRoles);
         }
 
         JSONArray channels = guild.getJSONArray("channels");
@@ -112,10 +112,13 @@ public class EntityBuilder
                 //corresponding user to presence not found... ignoring
                 continue;
             }
-            user
-                .setCurrentGame(presence.isNull("game") || presence.getJSONObject("game").isNull("name") ? null : presence.getJSONObject("game").get("name").toString())
-                .setOnlineStatus(OnlineStatus.fromKey(presence.getString("status")));
+            String game = presence.isNull("game") || presence.getJSONObject("game").isNull("name") ? null : presence.getJSONObject("game").get("name").toString();
+            if (!StringUtils.equals(user.getCurrentGame(), game))
+                user.setCurrentGame(api.getStringPool().get(game));
+            user.setOnlineStatus(OnlineStatus.fromKey(presence.getString("status")));
         }
+        //Roles and overrides of an existing Guild might have been updated in place (READY after a snapshot).
+        guildObj.invalidatePermissions();
         return guildObj;
     }
 
@@ -234,10 +237,15 @@ public class EntityBuilder
             userObj = new UserImpl(id, api);
             api.getUserMap().put(id, userObj);
         }
-        return userObj
-            .setUserName(user.getString("username"))
+        String oldName = userObj.getUsername();
+        String username = user.getString("username");
+        //Discriminators are not pooled, their 10000 values would only push the names and games out of the pool.
+        userObj
+            .setUserName(username.equals(oldName) ? oldName : api.getStringPool().get(username))
             .setDiscriminator(user.get("discriminator").toString())
             .setAvatarId(user.isNull("avatar") ? null : user.getString("avatar"));
+        api.updateUserName(userObj, oldName);
+        return userObj;
     }
 
     protected SelfInfo createSelfInfo(JSONObject self)
@@ -252,11 +260,14 @@ public class EntityBuilder
         {
             api.getUserMap().put(selfInfo.getId(), selfInfo);
         }
-        return (SelfInfo) selfInfo
+        String oldName = selfInfo.getUsername();
+        selfInfo
                 .setVerified(self.getBoolean("verified"))
                 .setUserName(self.getString("username"))
                 .setDiscriminator(self.getString("discriminator"))
                 .setAvatarId(self.isNull("avatar") ? null : self.getString("avatar"));
+        api.updateUserName(selfInfo, oldName);
+        return selfInfo;
     }
 
     public Message createMessage(JSONObject jsonObject)
@@ -265,40 +276,24 @@ public class EntityBuilder
         MessageImpl message = new MessageImpl(id, api)
                 .setAuthor(api.getUserMap().get(jsonObject.getJSONObject("author").getString("id")))
                 .setContent(jsonObject.getString("content"))
-                .setTime(OffsetDateTime.parse(jsonObject.getString("timestamp")))
                 .setMentionsEveryone(jsonObject.getBoolean("mention_everyone"))
-                .setTTS(jsonObject.getBoolean("tts"));
+                .setTTS(jsonObject.getBoolean("tts"))
+                .setChannelId(jsonObject.getString("channel_id"));
 
+        //Timestamps and mentions are materialized on first access, the creation time comes from the id.
         if (!jsonObject.isNull("edited_timestamp"))
-            message.setEditedTime(OffsetDateTime.parse(jsonObject.getString("edited_timestamp")));
+            message.setRawEditedTime(jsonObject.getString("edited_timestamp"));
 
-        String channelId = jsonObject.getString("channel_id");
-        TextChannel textChannel = api.getChannelMap().get(channelId);
-        if (textChannel != null)
+        if (api.getChannelMap().containsKey(message.getChannelId()))
         {
-            message.setChannelId(textChannel.getId());
             message.setIsPrivate(false);
-            List<User> mentioned = new LinkedList<>();
-            JSONArray mentions = jsonObject.getJSONArray("mentions");
-            for (int i = 0; i < mentions.length(); i++)
-            {
-                JSONObject mention = mentions.getJSONObject(0);
-                mentioned.add(api.getUserMap().get(mention.getString("id")));
-            }
-            message.setMentionedUsers(mentioned);
+            message.setRawMentions(jsonObject.getJSONArray("mentions"));
         }
         else
         {
             message.setIsPrivate(true);
-            PrivateChannel privateChannel = api.getPmChannelMap().get(channelId);
-            if (privateChannel != null)
-            {
-                message.setChannelId(privateChannel.getId());
-            }
-            else
-            {
-                throw new IllegalArgumentException("Could not find Private Channel of id " + channelId);
-            }
+            if (!api.getPmChannelMap().containsKey(message.getChannelId()))
+                throw new IllegalArgumentException("Could not find Private Channel of id " + message.getChannelId());
         }
 
         return message;
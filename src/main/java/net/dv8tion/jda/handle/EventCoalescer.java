@@ -0,0 +1,181 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.handle;
+
+import net.dv8tion.jda.OnlineStatus;
+import net.dv8tion.jda.entities.TextChannel;
+import net.dv8tion.jda.entities.User;
+import net.dv8tion.jda.entities.impl.JDAImpl;
+import net.dv8tion.jda.events.Event;
+import net.dv8tion.jda.events.user.*;
+import net.dv8tion.jda.hooks.EventManager;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces presence and typing events that arrive in bursts.<br>
+ * The cache is always updated right away, only the events are affected:
+ * <ul>
+ *     <li>All presence updates of a User until the window is over are collapsed into the net change. Once the window is
+ *     over, only the properties that differ from the state before the first update fire their events, followed by one
+ *     {@link net.dv8tion.jda.events.user.GenericUserEvent GenericUserEvent}. A status flapping from online to away and
+ *     back fires nothing but the GenericUserEvent.</li>
+ *     <li>The first typing notification of a User in a channel is dispatched immediately, repeated ones within the window
+ *     are dropped.</li>
+ * </ul>
+ * Delayed events are dispatched by the thread reading from Discord, before it handles the next message once the window
+ * is over, so they arrive in order with all other events. Until then the User keeps a single pending update, further
+ * updates are merged into it. No thread is started by the coalescer.
+ */
+public class EventCoalescer
+{
+    private final JDAImpl api;
+    private final long windowMillis;
+    private final long windowNanos;
+    //Guarded by this. Both in the order of their deadlines, as the window is the same for all entries.
+    private final LinkedHashMap<User, PendingPresence> presences = new LinkedHashMap<>();
+    private final LinkedHashMap<List<Object>, Long> typing = new LinkedHashMap<>();
+
+    public EventCoalescer(JDAImpl api, long window, TimeUnit unit)
+    {
+        if (window <= 0)
+            throw new IllegalArgumentException("The coalescing window must be positive. Provided: " + window);
+        this.api = api;
+        this.windowMillis = unit.toMillis(window);
+        this.windowNanos = unit.toNanos(window);
+    }
+
+    public long getWindowMillis()
+    {
+        return windowMillis;
+    }
+
+    /**
+     * Called before a PRESENCE_UPDATE is applied to the cache. Remembers the current state of the User if no update
+     * of the User is pending yet.
+     *
+     * @param user
+     *          The updated User.
+     * @param responseNumber
+     *          The response number of the update.
+     */
+    public synchronized void presenceUpdate(User user, int responseNumber)
+    {
+        PendingPresence pending = presences.get(user);
+        if (pending != null)
+        {
+            pending.responseNumber = responseNumber;
+            return;
+        }
+        EventManager eventManager = api.getEventManager();
+        if (!eventManager.isListening(GenericUserEvent.class)
+                && !eventManager.isListening(UserNameUpdateEvent.class)
+                && !eventManager.isListening(UserAvatarUpdateEvent.class)
+                && !eventManager.isListening(UserOnlineStatusUpdateEvent.class)
+                && !eventManager.isListening(UserGameUpdateEvent.class))
+            return;
+        presences.put(user, new PendingPresence(user, responseNumber, System.nanoTime() + windowNanos));
+    }
+
+    /**
+     * Whether a TYPING_START of the User in the channel should be dispatched.
+     *
+     * @param user
+     *          The typing User.
+     * @param channel
+     *          The channel the User types in.
+     * @return
+     *      True, if this is the first typing notification of the User in this channel within the window.
+     */
+    public synchronized boolean typing(User user, TextChannel channel)
+    {
+        List<Object> key = Arrays.asList(user, channel);
+        long now = System.nanoTime();
+        Long deadline = typing.get(key);
+        if (deadline != null && deadline - now > 0)
+            return false;
+        //Re-inserted to keep the map in the order of the deadlines.
+        typing.remove(key);
+        typing.put(key, now + windowNanos);
+        return true;
+    }
+
+    /**
+     * Dispatches the events of all Users whose window is over. Called by the thread reading from Discord
+     * before each message, while it holds the cache lock.
+     */
+    public void dispatchDue()
+    {
+        long now = System.nanoTime();
+        List<PendingPresence> due = new ArrayList<>();
+        synchronized (this)
+        {
+            for (Iterator<PendingPresence> it = presences.values().iterator(); it.hasNext(); )
+            {
+                PendingPresence pending = it.next();
+                if (pending.deadline - now > 0)
+                    break;
+                it.remove();
+                due.add(pending);
+            }
+            for (Iterator<Long> it = typing.values().iterator(); it.hasNext() && it.next() - now <= 0; )
+                it.remove();
+        }
+        due.forEach(this::dispatch);
+    }
+    private void dispatch(PendingPresence pending)
+    {
+        EventManager eventManager = api.getEventManager();
+        User user = pending.user;
+        int responseNumber = pending.responseNumber;
+        List<Event> events = new LinkedList<>();
+        if (!StringUtils.equals(pending.username, user.getUsername()) && eventManager.isListening(UserNameUpdateEvent.class))
+            events.add(new UserNameUpdateEvent(api, responseNumber, user, pending.username));
+        if (!StringUtils.equals(pending.avatarId, user.getAvatarId()) && eventManager.isListening(UserAvatarUpdateEvent.class))
+            events.add(new UserAvatarUpdateEvent(api, responseNumber, user, pending.avatarId));
+        if (pending.onlineStatus != user.getOnlineStatus() && eventManager.isListening(UserOnlineStatusUpdateEvent.class))
+            events.add(new UserOnlineStatusUpdateEvent(api, responseNumber, user, pending.onlineStatus));
+        if (!StringUtils.equals(pending.currentGame, user.getCurrentGame()) && eventManager.isListening(UserGameUpdateEvent.class))
+            events.add(new UserGameUpdateEvent(api, responseNumber, user, pending.currentGame));
+        if (eventManager.isListening(GenericUserEvent.class))
+            events.add(new GenericUserEvent(api, responseNumber, user));
+        events.forEach(eventManager::handle);
+    }
+
+    private static class PendingPresence
+    {
+        private final User user;
+        private final String username;
+        private final String avatarId;
+        private final OnlineStatus onlineStatus;
+        private final String currentGame;
+        private final long deadline;
+        private int responseNumber;
+
+        private PendingPresence(User user, int responseNumber, long deadline)
+        {
+            this.user = user;
+            this.username = user.getUsername();
+            this.avatarId = user.getAvatarId();
+            this.onlineStatus = user.getOnlineStatus();
+            this.currentGame = user.getCurrentGame();
+            this.responseNumber = responseNumber;
+            this.deadline = deadline;
+        }
+    }
+}
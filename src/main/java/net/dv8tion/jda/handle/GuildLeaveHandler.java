@@ -31,11 +31,12 @@ public class GuildLeaveHandler extends SocketHandler
     @Override
     public void handle(JSONObject content)
     {
-        Guild guild = api.getGuildMap().get(content.getString("id"));
+        Guild guild = api.getGuildMap().remove(content.getString("id"));
+        if (guild != null && api.getMessageCache() != null)
+            guild.getTextChannels().forEach(channel -> api.getMessageCache().removeChannel(channel.getId()));
         api.getEventManager().handle(
                 new GuildLeaveEvent(
                         api, responseNumber,
                         guild));
-        api.getGuildMap().remove(guild.getId());
     }
 }
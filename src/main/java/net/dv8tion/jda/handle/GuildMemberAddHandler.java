@@ -24,7 +24,7 @@ import net.dv8tion.jda.entities.impl.UserImpl;
 import net.dv8tion.jda.events.guild.member.GuildMemberJoinEvent;
 import org.json.JSONObject;
 
-import java.util.LinkedList;
+import java.util.Collections;
 
 public class GuildMemberAddHandler extends SocketHandler
 {
@@ -45,7 +45,7 @@ public class GuildMemberAddHandler extends SocketHandler
             ((UserImpl) user).setPrivateChannel(pc);
             api.getOffline_pms().remove(user.getId());
         }
-        guild.getUserRoles().put(user, new LinkedList<>());
+        guild.setRolesForUser(user, Collections.emptyList());
         api.getEventManager().handle(
                 new GuildMemberJoinEvent(
                         api, responseNumber,
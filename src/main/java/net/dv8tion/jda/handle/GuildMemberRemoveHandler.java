@@ -34,7 +34,7 @@ public class GuildMemberRemoveHandler extends SocketHandler
     {
         GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getString("guild_id"));
         UserImpl user = ((UserImpl) api.getUserMap().get(content.getJSONObject("user").getString("id")));
-        guild.getUserRoles().remove(user);
+        guild.removeMember(user);
         if (!api.getGuildMap().values().stream().anyMatch(g -> ((GuildImpl) g).getUserRoles().containsKey(user)))
         {
             if (user.hasPrivateChannel())
@@ -42,6 +42,8 @@ public class GuildMemberRemoveHandler extends SocketHandler
                 api.getOffline_pms().put(user.getId(), user.getPrivateChannel().getId());
             }
             api.getUserMap().remove(user.getId());
+            api.getUserNameIndex().remove(user);
+            user.detach();
         }
         api.getEventManager().handle(
                 new GuildMemberLeaveEvent(
@@ -24,6 +24,7 @@ import net.dv8tion.jda.events.guild.member.GuildMemberRoleRemoveEvent;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -73,7 +74,9 @@ public class GuildMemberRoleHandler extends SocketHandler
         //Remove the roles from the Guild's User-Roles map.
         if (removedRoles.size() > 0)
         {
-            rolesOld.removeAll(removedRoles);
+            List<Role> roles = new ArrayList<>(rolesOld);
+            roles.removeAll(removedRoles);
+            guild.setRolesForUser(user, roles);
             api.getEventManager().handle(
                     new GuildMemberRoleRemoveEvent(
                             api, responseNumber,
@@ -82,15 +85,17 @@ public class GuildMemberRoleHandler extends SocketHandler
         else //If we didn't remove any roles, then we added roles. Add them to the Guild's User-Roles map.
         {
             Map<String, Role> guildRoles = guild.getRolesMap();
+            List<Role> roles = new ArrayList<>(rolesOld);
             LinkedList<Role> addedRoles = new LinkedList<>();
             for (String roleId : rolesNew)
             {
                 Role r = guildRoles.get(roleId);
                 if (r == null)
                     throw new IllegalArgumentException("GUILD_MEMBER_UPDATE attempted to give a User a role that doesn't exist on a Guild! JSON: " + content);
-                rolesOld.add(r);
+                roles.add(r);
                 addedRoles.add(r);
             }
+            guild.setRolesForUser(user, roles);
             api.getEventManager().handle(
                     new GuildMemberRoleAddEvent(
                             api, responseNumber,
@@ -21,8 +21,6 @@ import net.dv8tion.jda.entities.impl.JDAImpl;
 import net.dv8tion.jda.events.guild.GuildRoleDeleteEvent;
 import org.json.JSONObject;
 
-import java.util.List;
-
 public class GuildRoleDeleteHandler extends SocketHandler
 {
 
@@ -40,10 +38,7 @@ public class GuildRoleDeleteHandler extends SocketHandler
             throw new IllegalArgumentException("GUILD_ROLE_DELETE attempted to delete a role that didn't exist! JSON: " + content);
 
         //Now that the role is removed from the Guild, remove it from all users.
-        for (List<Role> userRoles : guild.getUserRoles().values())
-        {
-            userRoles.remove(removedRole);
-        }
+        guild.removeRoleFromUsers(removedRole);
         api.getEventManager().handle(
                 new GuildRoleDeleteEvent(
                         api, responseNumber,
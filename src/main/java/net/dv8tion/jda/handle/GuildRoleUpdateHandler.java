@@ -18,9 +18,13 @@ package net.dv8tion.jda.handle;
 import net.dv8tion.jda.entities.impl.GuildImpl;
 import net.dv8tion.jda.entities.impl.JDAImpl;
 import net.dv8tion.jda.entities.impl.RoleImpl;
+import net.dv8tion.jda.events.Event;
 import net.dv8tion.jda.events.guild.role.*;
 import org.json.JSONObject;
 
+import java.util.LinkedList;
+import java.util.List;
+
 public class GuildRoleUpdateHandler extends SocketHandler
 {
     public GuildRoleUpdateHandler(JDAImpl api, int responseNumber)
@@ -31,33 +35,43 @@ public class GuildRoleUpdateHandler extends SocketHandler
     @Override
     public void handle(JSONObject content)
     {
+        //Update the cache first, listeners must only ever see a consistent state.
+        List<Event> events = new LinkedList<>();
         JSONObject rolejson = content.getJSONObject("role");
         RoleImpl role = (RoleImpl) ((GuildImpl) api.getGuildMap().get(content.getString("guild_id"))).getRolesMap().get(rolejson.getString("id"));
         if (!role.getName().equals(rolejson.getString("name")))
         {
             role.setName(rolejson.getString("name"));
-            api.getEventManager().handle(new GuildRoleUpdateNameEvent(api, responseNumber, role));
+            if (api.getEventManager().isListening(GuildRoleUpdateNameEvent.class))
+                events.add(new GuildRoleUpdateNameEvent(api, responseNumber, role));
         }
         if (role.getPosition() != rolejson.getInt("position"))
         {
             role.setPosition(rolejson.getInt("position"));
-            api.getEventManager().handle(new GuildRoleUpdatePositionEvent(api, responseNumber, role));
+            if (api.getEventManager().isListening(GuildRoleUpdatePositionEvent.class))
+                events.add(new GuildRoleUpdatePositionEvent(api, responseNumber, role));
         }
         if (role.getPermissions() != rolejson.getInt("permissions"))
         {
             role.setPermissions(rolejson.getInt("permissions"));
-            api.getEventManager().handle(new GuildRoleUpdatePermissionEvent(api, responseNumber, role));
+            ((GuildImpl) role.getGuild()).invalidatePermissions();
+            if (api.getEventManager().isListening(GuildRoleUpdatePermissionEvent.class))
+                events.add(new GuildRoleUpdatePermissionEvent(api, responseNumber, role));
         }
         if (role.getColor() != rolejson.getInt("color"))
         {
             role.setColor(rolejson.getInt("color"));
-            api.getEventManager().handle(new GuildRoleUpdateColorEvent(api, responseNumber, role));
+            if (api.getEventManager().isListening(GuildRoleUpdateColorEvent.class))
+                events.add(new GuildRoleUpdateColorEvent(api, responseNumber, role));
         }
         if (role.isGrouped() != rolejson.getBoolean("hoist"))
         {
             role.setGrouped(rolejson.getBoolean("hoist"));
-            api.getEventManager().handle(new GuildRoleUpdateGroupedEvent(api, responseNumber, role));
+            if (api.getEventManager().isListening(GuildRoleUpdateGroupedEvent.class))
+                events.add(new GuildRoleUpdateGroupedEvent(api, responseNumber, role));
         }
-        api.getEventManager().handle(new GuildRoleUpdateEvent(api, responseNumber, role));
+        if (api.getEventManager().isListening(GuildRoleUpdateEvent.class))
+            events.add(new GuildRoleUpdateEvent(api, responseNumber, role));
+        events.forEach(api.getEventManager()::handle);
     }
 }
@@ -15,14 +15,19 @@
  */
 package net.dv8tion.jda.handle;
 
+import net.dv8tion.jda.entities.Message;
 import net.dv8tion.jda.entities.PrivateChannel;
 import net.dv8tion.jda.entities.TextChannel;
 import net.dv8tion.jda.entities.impl.JDAImpl;
+import net.dv8tion.jda.entities.impl.MessageCache;
 import net.dv8tion.jda.events.message.MessageDeleteEvent;
 import net.dv8tion.jda.events.message.guild.GuildMessageDeleteEvent;
 import net.dv8tion.jda.events.message.priv.PrivateMessageDeleteEvent;
+import net.dv8tion.jda.utils.MessageSearchIndex;
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 public class MessageDeleteHandler extends SocketHandler
 {
 
@@ -37,13 +42,28 @@ public class MessageDeleteHandler extends SocketHandler
         String messageId = content.getString("id");
         String channelId = content.getString("channel_id");
         TextChannel channel = api.getChannelMap().get(channelId);
+        MessageCache messageCache = api.getMessageCache();
+        Message message = messageCache == null ? null : messageCache.remove(channelId, messageId);
+        MessageSearchIndex searchIndex = api.getSearchIndex();
+        if (searchIndex != null)
+        {
+            try
+            {
+                searchIndex.remove(messageId);
+            }
+            catch (IOException e)
+            {
+                System.err.println("Could not update the message search index.");
+                e.printStackTrace();
+            }
+        }
 
         if (channel != null)
         {
             api.getEventManager().handle(
                     new GuildMessageDeleteEvent(
                             api, responseNumber,
-                            messageId, channel));
+                            messageId, message, channel));
         }
         else
         {
@@ -53,12 +73,12 @@ public class MessageDeleteHandler extends SocketHandler
             api.getEventManager().handle(
                     new PrivateMessageDeleteEvent(
                             api, responseNumber,
-                            messageId, privChannel));
+                            messageId, message, privChannel));
         }
         //Combo event
         api.getEventManager().handle(
                 new MessageDeleteEvent(
                         api, responseNumber,
-                        messageId, channelId, channel != null));
+                        messageId, message, channelId, channel != null));
     }
 }
@@ -22,6 +22,7 @@ import net.dv8tion.jda.entities.impl.JDAImpl;
 import net.dv8tion.jda.events.message.MessageEmbedEvent;
 import net.dv8tion.jda.events.message.guild.GuildMessageEmbedEvent;
 import net.dv8tion.jda.events.message.priv.PrivateMessageEmbedEvent;
+import net.dv8tion.jda.hooks.EventManager;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -42,6 +43,14 @@ public class MessageEmbedHandler extends SocketHandler
         String messageId = content.getString("id");
         String channelId = content.getString("channel_id");
         TextChannel channel = api.getChannelMap().get(channelId);
+
+        //Nobody would receive the events, don't bother parsing the embeds.
+        EventManager eventManager = api.getEventManager();
+        String guildId = channel == null ? null : channel.getGuild().getId();
+        if (!eventManager.isListening(channel != null ? GuildMessageEmbedEvent.class : PrivateMessageEmbedEvent.class, guildId, channelId, null)
+                && !eventManager.isListening(MessageEmbedEvent.class, guildId, channelId, null))
+            return;
+
         LinkedList<MessageEmbed> embeds = new LinkedList<>();
 
         JSONArray embedsJson = content.getJSONArray("embeds");
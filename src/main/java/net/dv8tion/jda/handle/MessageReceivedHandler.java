@@ -16,21 +16,24 @@
 package net.dv8tion.jda.handle;
 
 import net.dv8tion.jda.entities.Message;
+import net.dv8tion.jda.entities.TextChannel;
 import net.dv8tion.jda.entities.impl.JDAImpl;
+import net.dv8tion.jda.entities.impl.MessageCache;
+import net.dv8tion.jda.entities.impl.MessageImpl;
 import net.dv8tion.jda.events.InviteReceivedEvent;
 import net.dv8tion.jda.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.events.message.guild.GuildMessageReceivedEvent;
 import net.dv8tion.jda.events.message.priv.PrivateMessageReceivedEvent;
+import net.dv8tion.jda.hooks.EventManager;
 import net.dv8tion.jda.utils.InviteUtil;
+import net.dv8tion.jda.utils.MessageSearchIndex;
+import net.dv8tion.jda.utils.MessageTokens;
 import org.json.JSONObject;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
 
 public class MessageReceivedHandler extends SocketHandler
 {
-    private static final Pattern invitePattern = Pattern.compile("\\bhttps://discord.gg/([a-zA-Z0-9]+)\\b");
-
     public MessageReceivedHandler(JDAImpl api, int responseNumber)
     {
         super(api, responseNumber);
@@ -39,7 +42,35 @@ public class MessageReceivedHandler extends SocketHandler
     @Override
     public void handle(JSONObject content)
     {
+        //Skip building the message if nobody would receive it.
+        EventManager eventManager = api.getEventManager();
+        String channelId = content.getString("channel_id");
+        TextChannel channel = api.getChannelMap().get(channelId);
+        String guildId = channel == null ? null : channel.getGuild().getId();
+        String authorId = content.getJSONObject("author").getString("id");
+        boolean listeningInvites = eventManager.isListening(InviteReceivedEvent.class, guildId, channelId, authorId);
+        MessageCache messageCache = api.getMessageCache();
+        MessageSearchIndex searchIndex = api.getSearchIndex();
+        if (searchIndex != null)
+        {
+            try
+            {
+                searchIndex.add(content.getString("id"), channelId, authorId, content.getString("content"));
+            }
+            catch (IOException e)
+            {
+                System.err.println("Could not update the message search index.");
+                e.printStackTrace();
+            }
+        }
+        if (messageCache == null && !listeningInvites
+                && !eventManager.isListening(channel != null ? GuildMessageReceivedEvent.class : PrivateMessageReceivedEvent.class, guildId, channelId, authorId)
+                && !eventManager.isListening(MessageReceivedEvent.class, guildId, channelId, authorId))
+            return;
+
         Message message = new EntityBuilder(api).createMessage(content);
+        if (messageCache != null)
+            messageCache.add(message);
         if (!message.isPrivate())
         {
             api.getEventManager().handle(
@@ -61,14 +92,15 @@ public class MessageReceivedHandler extends SocketHandler
                         message));
 
         //searching for invites
-        Matcher matcher = invitePattern.matcher(message.getContent());
-        while (matcher.find())
+        if (!listeningInvites)
+            return;
+        for (String code : ((MessageImpl) message).getTokens().getIds(MessageTokens.INVITE))
         {
             api.getEventManager().handle(
                     new InviteReceivedEvent(
                             api, responseNumber,
                             message,
-                            InviteUtil.resolve(matcher.group(1))
+                            InviteUtil.resolve(code)
                     )
             );
         }
@@ -18,12 +18,17 @@ package net.dv8tion.jda.handle;
 import net.dv8tion.jda.entities.Message;
 import net.dv8tion.jda.entities.TextChannel;
 import net.dv8tion.jda.entities.impl.JDAImpl;
+import net.dv8tion.jda.entities.impl.MessageCache;
 import net.dv8tion.jda.events.message.MessageEmbedEvent;
 import net.dv8tion.jda.events.message.MessageUpdateEvent;
 import net.dv8tion.jda.events.message.guild.GuildMessageUpdateEvent;
 import net.dv8tion.jda.events.message.priv.PrivateMessageUpdateEvent;
+import net.dv8tion.jda.hooks.EventManager;
+import net.dv8tion.jda.utils.MessageSearchIndex;
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 public class MessageUpdateHandler extends SocketHandler
 {
 
@@ -35,25 +40,52 @@ public class MessageUpdateHandler extends SocketHandler
     @Override
     public void handle(JSONObject content)
     {
+        //Skip building the message if nobody would receive it.
+        EventManager eventManager = api.getEventManager();
+        String channelId = content.getString("channel_id");
+        TextChannel channel = api.getChannelMap().get(channelId);
+        String guildId = channel == null ? null : channel.getGuild().getId();
+        String authorId = content.getJSONObject("author").getString("id");
+        MessageSearchIndex searchIndex = api.getSearchIndex();
+        if (searchIndex != null)
+        {
+            try
+            {
+                searchIndex.update(content.getString("id"), channelId, authorId, content.getString("content"));
+            }
+            catch (IOException e)
+            {
+                System.err.println("Could not update the message search index.");
+                e.printStackTrace();
+            }
+        }
+        //A cached message has to be replaced even if nobody listens.
+        MessageCache messageCache = api.getMessageCache();
+        if ((messageCache == null || messageCache.peek(channelId, content.getString("id")) == null)
+                && !eventManager.isListening(channel != null ? GuildMessageUpdateEvent.class : PrivateMessageUpdateEvent.class, guildId, channelId, authorId)
+                && !eventManager.isListening(MessageUpdateEvent.class, guildId, channelId, authorId))
+            return;
+
         Message message = new EntityBuilder(api).createMessage(content);
+        Message previousMessage = messageCache == null ? null : messageCache.update(message);
         if (!message.isPrivate())
         {
             api.getEventManager().handle(
                     new GuildMessageUpdateEvent(
                             api, responseNumber,
-                            message, api.getChannelMap().get(message.getChannelId())));
+                            message, previousMessage, api.getChannelMap().get(message.getChannelId())));
         }
         else
         {
             api.getEventManager().handle(
                     new PrivateMessageUpdateEvent(
                             api, responseNumber,
-                            message, api.getPmChannelMap().get(message.getChannelId())));
+                            message, previousMessage, api.getPmChannelMap().get(message.getChannelId())));
         }
         //Combo event
         api.getEventManager().handle(
                 new MessageUpdateEvent(
                         api, responseNumber,
-                        message));
+                        message, previousMessage));
     }
 }
@@ -18,10 +18,14 @@ package net.dv8tion.jda.handle;
 import net.dv8tion.jda.OnlineStatus;
 import net.dv8tion.jda.entities.impl.JDAImpl;
 import net.dv8tion.jda.entities.impl.UserImpl;
+import net.dv8tion.jda.events.Event;
 import net.dv8tion.jda.events.user.*;
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONObject;
 
+import java.util.LinkedList;
+import java.util.List;
+
 public class PresenceUpdateHandler extends SocketHandler
 {
 
@@ -33,6 +37,8 @@ public class PresenceUpdateHandler extends SocketHandler
     @Override
     public void handle(JSONObject content)
     {
+        //Update the cache first, listeners must only ever see a consistent state.
+        List<Event> events = new LinkedList<>();
         JSONObject jsonUser = content.getJSONObject("user");
         String id = jsonUser.getString("id");
         UserImpl user = (UserImpl) api.getUserMap().get(id);
@@ -43,6 +49,11 @@ public class PresenceUpdateHandler extends SocketHandler
             return;
         }
 
+        //With coalescing, the events are fired by the coalescer once the window is over.
+        EventCoalescer coalescer = api.getEventCoalescer();
+        if (coalescer != null)
+            coalescer.presenceUpdate(user, responseNumber);
+
         if (jsonUser.has("username"))
         {
             String username = jsonUser.getString("username");
@@ -52,22 +63,25 @@ public class PresenceUpdateHandler extends SocketHandler
             if (!user.getUsername().equals(username))
             {
                 String oldUsername = user.getUsername();
-                user.setUserName(username);
+                user.setUserName(api.getStringPool().get(username));
                 user.setDiscriminator(discriminator);
-                api.getEventManager().handle(
-                        new UserNameUpdateEvent(
-                                api, responseNumber,
-                                user, oldUsername));
+                api.updateUserName(user, oldUsername);
+                if (coalescer == null && api.getEventManager().isListening(UserNameUpdateEvent.class))
+                    events.add(
+                            new UserNameUpdateEvent(
+                                    api, responseNumber,
+                                    user, oldUsername));
             }
             String oldAvatar = user.getAvatarId();
             if (!(avatarId == null && oldAvatar == null) && !StringUtils.equals(avatarId, oldAvatar))
             {
                 String oldAvatarId = user.getAvatarId();
                 user.setAvatarId(avatarId);
-                api.getEventManager().handle(
-                        new UserAvatarUpdateEvent(
-                                api, responseNumber,
-                                user, oldAvatarId));
+                if (coalescer == null && api.getEventManager().isListening(UserAvatarUpdateEvent.class))
+                    events.add(
+                            new UserAvatarUpdateEvent(
+                                    api, responseNumber,
+                                    user, oldAvatarId));
             }
         }
 
@@ -79,23 +93,27 @@ public class PresenceUpdateHandler extends SocketHandler
         {
             OnlineStatus oldStatus = user.getOnlineStatus();
             user.setOnlineStatus(status);
-            api.getEventManager().handle(
-                    new UserOnlineStatusUpdateEvent(
-                            api, responseNumber,
-                            user, oldStatus));
+            if (coalescer == null && api.getEventManager().isListening(UserOnlineStatusUpdateEvent.class))
+                events.add(
+                        new UserOnlineStatusUpdateEvent(
+                                api, responseNumber,
+                                user, oldStatus));
         }
         if (!StringUtils.equals(user.getCurrentGame(), gameName))
         {
             String oldGameName = user.getCurrentGame();
-            user.setCurrentGame(gameName);
-            api.getEventManager().handle(
-                    new UserGameUpdateEvent(
-                            api, responseNumber,
-                            user, oldGameName));
+            user.setCurrentGame(api.getStringPool().get(gameName));
+            if (coalescer == null && api.getEventManager().isListening(UserGameUpdateEvent.class))
+                events.add(
+                        new UserGameUpdateEvent(
+                                api, responseNumber,
+                                user, oldGameName));
         }
-        api.getEventManager().handle(
-                new GenericUserEvent(
-                        api, responseNumber,
-                        user));
+        if (coalescer == null && api.getEventManager().isListening(GenericUserEvent.class))
+            events.add(
+                    new GenericUserEvent(
+                            api, responseNumber,
+                            user));
+        events.forEach(api.getEventManager()::handle);
     }
 }
@@ -15,18 +15,18 @@
  */
 package net.dv8tion.jda.handle;
 
+import net.dv8tion.jda.OnlineStatus;
 import net.dv8tion.jda.entities.Guild;
+import net.dv8tion.jda.entities.Role;
 import net.dv8tion.jda.entities.TextChannel;
-import net.dv8tion.jda.entities.impl.GuildImpl;
-import net.dv8tion.jda.entities.impl.JDAImpl;
-import net.dv8tion.jda.entities.impl.SelfInfoImpl;
+import net.dv8tion.jda.entities.User;
+import net.dv8tion.jda.entities.VoiceChannel;
+import net.dv8tion.jda.entities.impl.*;
 import net.dv8tion.jda.events.ReadyEvent;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
 
 public class ReadyHandler extends SocketHandler
 {
@@ -51,6 +51,11 @@ public class ReadyHandler extends SocketHandler
             mutedChannelIds.add(muted.getString(i));
         }
         JSONArray guilds = content.getJSONArray("guilds");
+        if (!api.getGuildMap().isEmpty())
+        {
+            //The cache was restored from a snapshot. Drop everything that no longer exists, the rest is updated in place.
+            reconcile(guilds);
+        }
         for (int i = 0; i < guilds.length(); i++)
         {
             Guild guild = builder.createGuild(guilds.getJSONObject(i));
@@ -76,4 +81,115 @@ public class ReadyHandler extends SocketHandler
         System.out.println("Finished Loading!");    //TODO: Replace with Logger.INFO
         api.getEventManager().handle(new ReadyEvent(api, responseNumber));
     }
+
+    private void reconcile(JSONArray guilds)
+    {
+        Map<String, JSONObject> guildJsons = new HashMap<>();
+        Set<String> presenceIds = new HashSet<>();
+        for (int i = 0; i < guilds.length(); i++)
+        {
+            JSONObject guild = guilds.getJSONObject(i);
+            guildJsons.put(guild.getString("id"), guild);
+            JSONArray presences = guild.getJSONArray("presences");
+            for (int j = 0; j < presences.length(); j++)
+            {
+                presenceIds.add(presences.getJSONObject(j).getJSONObject("user").getString("id"));
+            }
+        }
+
+        for (Iterator<Guild> it = api.getGuildMap().values().iterator(); it.hasNext();)
+        {
+            GuildImpl guild = (GuildImpl) it.next();
+            JSONObject guildJson = guildJsons.get(guild.getId());
+            if (guildJson == null)
+            {
+                guild.getTextChannelsMap().keySet().forEach(api.getChannelMap()::remove);
+                guild.getVoiceChannelsMap().keySet().forEach(api.getVoiceChannelMap()::remove);
+                it.remove();
+                continue;
+            }
+
+            Set<String> roleIds = new HashSet<>();
+            JSONArray roles = guildJson.getJSONArray("roles");
+            for (int i = 0; i < roles.length(); i++)
+            {
+                roleIds.add(roles.getJSONObject(i).getString("id"));
+            }
+            for (Iterator<Role> roleIt = guild.getRolesMap().values().iterator(); roleIt.hasNext();)
+            {
+                Role role = roleIt.next();
+                if (!roleIds.contains(role.getId()))
+                {
+                    roleIt.remove();
+                    guild.removeRoleFromUsers(role);
+                }
+            }
+
+            //Members that left while we were offline. The others get their roles replaced by createGuild.
+            Set<String> memberIds = new HashSet<>();
+            JSONArray members = guildJson.getJSONArray("members");
+            for (int i = 0; i < members.length(); i++)
+            {
+                memberIds.add(members.getJSONObject(i).getJSONObject("user").getString("id"));
+            }
+            for (User user : new ArrayList<>(guild.getUserRoles().keySet()))
+            {
+                if (!memberIds.contains(user.getId()))
+                    guild.removeMember(user);
+            }
+
+            Set<String> channelIds = new HashSet<>();
+            JSONArray channels = guildJson.getJSONArray("channels");
+            for (int i = 0; i < channels.length(); i++)
+            {
+                channelIds.add(channels.getJSONObject(i).getString("id"));
+            }
+            for (Iterator<TextChannel> channelIt = guild.getTextChannelsMap().values().iterator(); channelIt.hasNext();)
+            {
+                TextChannelImpl channel = (TextChannelImpl) channelIt.next();
+                //Overrides are re-read from READY
+                channel.getRolePermissionOverrides().clear();
+                channel.getUserPermissionOverrides().clear();
+                if (!channelIds.contains(channel.getId()))
+                {
+                    channelIt.remove();
+                    api.getChannelMap().remove(channel.getId());
+                }
+            }
+            for (Iterator<VoiceChannel> channelIt = guild.getVoiceChannelsMap().values().iterator(); channelIt.hasNext();)
+            {
+                VoiceChannelImpl channel = (VoiceChannelImpl) channelIt.next();
+                channel.getRolePermissionOverrides().clear();
+                channel.getUserPermissionOverrides().clear();
+                if (!channelIds.contains(channel.getId()))
+                {
+                    channelIt.remove();
+                    api.getVoiceChannelMap().remove(channel.getId());
+                }
+            }
+        }
+
+        //Users that don't share a Guild with us anymore are removed, like in GuildMemberRemoveHandler
+        for (Iterator<User> it = api.getUserMap().values().iterator(); it.hasNext();)
+        {
+            UserImpl user = (UserImpl) it.next();
+            if (user == api.getSelfInfo())
+                continue;
+            if (api.getGuildMap().values().stream().anyMatch(g -> ((GuildImpl) g).getUserRoles().containsKey(user)))
+            {
+                //READY only contains the presences of online Users, everyone else went offline in the meantime.
+                if (!presenceIds.contains(user.getId()))
+                    user.setCurrentGame(null).setOnlineStatus(OnlineStatus.OFFLINE);
+                continue;
+            }
+            if (user.hasPrivateChannel())
+            {
+                api.getOffline_pms().put(user.getId(), user.getPrivateChannel().getId());
+                api.getPmChannelMap().remove(user.getPrivateChannel().getId());
+            }
+            it.remove();
+            api.getUserNameIndex().remove(user);
+            user.detach();
+        }
+    }
 }
@@ -42,8 +42,12 @@ public class UserTypingHandler extends SocketHandler
             return;     //TODO:LOGGER - Log ERROR level, output the json.
 
         TextChannel channel = api.getChannelMap().get(content.getString("channel_id"));
+        if (api.getEventCoalescer() != null && !api.getEventCoalescer().typing(user, channel))
+            return;
         OffsetDateTime timestamp = Instant.ofEpochSecond(content.getInt("timestamp")).atOffset(ZoneOffset.UTC);
-        api.getEventManager().handle(new UserTypingEvent(api, responseNumber, user, channel, timestamp));
-        api.getEventManager().handle(new GenericUserEvent(api, responseNumber, user));
+        if (api.getEventManager().isListening(UserTypingEvent.class))
+            api.getEventManager().handle(new UserTypingEvent(api, responseNumber, user, channel, timestamp));
+        if (api.getEventManager().isListening(GenericUserEvent.class))
+            api.getEventManager().handle(new GenericUserEvent(api, responseNumber, user));
     }
 }
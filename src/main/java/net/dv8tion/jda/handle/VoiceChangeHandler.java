@@ -20,9 +20,13 @@ import net.dv8tion.jda.entities.VoiceChannel;
 import net.dv8tion.jda.entities.impl.JDAImpl;
 import net.dv8tion.jda.entities.impl.VoiceChannelImpl;
 import net.dv8tion.jda.entities.impl.VoiceStatusImpl;
+import net.dv8tion.jda.events.Event;
 import net.dv8tion.jda.events.voice.*;
 import org.json.JSONObject;
 
+import java.util.LinkedList;
+import java.util.List;
+
 public class VoiceChangeHandler extends SocketHandler
 {
     public VoiceChangeHandler(JDAImpl api, int responseNumber)
@@ -33,6 +37,8 @@ public class VoiceChangeHandler extends SocketHandler
     @Override
     public void handle(JSONObject content)
     {
+        //Update the cache first, listeners must only ever see a consistent state.
+        List<Event> events = new LinkedList<>();
         User user = api.getUserMap().get(content.getString("user_id"));
         if (user == null)
         {
@@ -49,7 +55,8 @@ public class VoiceChangeHandler extends SocketHandler
                 {
                     status.setChannel(null);
                     ((VoiceChannelImpl) oldChannel).getUsersModifiable().remove(user);
-                    api.getEventManager().handle(new VoiceLeaveEvent(api, responseNumber, user, oldChannel));
+                    if (api.getEventManager().isListening(VoiceLeaveEvent.class))
+                        events.add(new VoiceLeaveEvent(api, responseNumber, user, oldChannel));
                 }
             }
         }
@@ -64,10 +71,12 @@ public class VoiceChangeHandler extends SocketHandler
                 if (oldChannel != null)
                 {
                     ((VoiceChannelImpl) oldChannel).getUsersModifiable().remove(user);
-                    api.getEventManager().handle(new VoiceLeaveEvent(api, responseNumber, user, oldChannel));
+                    if (api.getEventManager().isListening(VoiceLeaveEvent.class))
+                        events.add(new VoiceLeaveEvent(api, responseNumber, user, oldChannel));
                 }
                 ((VoiceChannelImpl) newChannel).getUsersModifiable().add(user);
-                api.getEventManager().handle(new VoiceJoinEvent(api, responseNumber, user));
+                if (api.getEventManager().isListening(VoiceJoinEvent.class))
+                    events.add(new VoiceJoinEvent(api, responseNumber, user));
             }
         }
 
@@ -75,23 +84,28 @@ public class VoiceChangeHandler extends SocketHandler
         if (isSelfMute != status.isMuted())
         {
             status.setMute(!status.isMuted());
-            api.getEventManager().handle(new VoiceSelfMuteEvent(api, responseNumber, user));
+            if (api.getEventManager().isListening(VoiceSelfMuteEvent.class))
+                events.add(new VoiceSelfMuteEvent(api, responseNumber, user));
         }
         boolean isSelfDeaf = !content.isNull("self_deaf") && content.getBoolean("self_deaf");
         if (isSelfDeaf != status.isDeaf())
         {
             status.setDeaf(!status.isDeaf());
-            api.getEventManager().handle(new VoiceSelfDeafEvent(api, responseNumber, user));
+            if (api.getEventManager().isListening(VoiceSelfDeafEvent.class))
+                events.add(new VoiceSelfDeafEvent(api, responseNumber, user));
         }
         if (content.getBoolean("mute") != status.isServerMuted())
         {
             status.setServerMute(!status.isServerMuted());
-            api.getEventManager().handle(new VoiceServerMuteEvent(api, responseNumber, user));
+            if (api.getEventManager().isListening(VoiceServerMuteEvent.class))
+                events.add(new VoiceServerMuteEvent(api, responseNumber, user));
         }
         if (content.getBoolean("deaf") != status.isServerDeaf())
         {
             status.setServerDeaf(!status.isServerDeaf());
-            api.getEventManager().handle(new VoiceServerDeafEvent(api, responseNumber, user));
+            if (api.getEventManager().isListening(VoiceServerDeafEvent.class))
+                events.add(new VoiceServerDeafEvent(api, responseNumber, user));
         }
+        events.forEach(api.getEventManager()::handle);
     }
 }
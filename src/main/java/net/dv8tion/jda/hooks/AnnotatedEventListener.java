@@ -0,0 +1,198 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.hooks;
+
+import net.dv8tion.jda.events.Event;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Adapts an object with {@link net.dv8tion.jda.hooks.SubscribeEvent SubscribeEvent} methods to an
+ * {@link net.dv8tion.jda.hooks.EventListener EventListener}.<br>
+ * The annotated methods are bound to generated lambdas (through {@link java.lang.invoke.LambdaMetafactory LambdaMetafactory})
+ * once, when the listener class is first registered, so calling them costs the same as a direct call.
+ */
+class AnnotatedEventListener implements EventListener
+{
+    //Listener class -> its annotated methods, bound once per class.
+    private static final ClassValue<Subscriber[]> SUBSCRIBERS = new ClassValue<Subscriber[]>()
+    {
+        @Override
+        protected Subscriber[] computeValue(Class<?> type)
+        {
+            return bind(type);
+        }
+    };
+
+    private final Object target;
+    private final Subscriber[] subscribers;
+    //Event class -> Subscribers of the target that accept it.
+    private final ClassValue<Subscriber[]> dispatch = new ClassValue<Subscriber[]>()
+    {
+        @Override
+        protected Subscriber[] computeValue(Class<?> eventClass)
+        {
+            List<Subscriber> matching = new ArrayList<>();
+            for (Subscriber subscriber : subscribers)
+            {
+                if (subscriber.type.isAssignableFrom(eventClass))
+                    matching.add(subscriber);
+            }
+            return matching.toArray(new Subscriber[matching.size()]);
+        }
+    };
+
+    AnnotatedEventListener(Object target)
+    {
+        this.target = target;
+        this.subscribers = SUBSCRIBERS.get(target.getClass());
+        if (subscribers.length == 0)
+            throw new IllegalArgumentException("The provided object has no methods annotated with @SubscribeEvent. Class: " + target.getClass().getName());
+    }
+
+    @Override
+    public void onEvent(Event event)
+    {
+        for (Subscriber subscriber : dispatch.get(event.getClass()))
+        {
+            subscriber.invoker.accept(target, event);
+        }
+    }
+
+    boolean handles(Class<? extends Event> eventClass)
+    {
+        return dispatch.get(eventClass).length > 0;
+    }
+
+    Object getTarget()
+    {
+        return target;
+    }
+
+    private static Subscriber[] bind(Class<?> type)
+    {
+        List<Subscriber> subscribers = new ArrayList<>();
+        for (Method method : type.getMethods())
+        {
+            if (!method.isAnnotationPresent(SubscribeEvent.class))
+                continue;
+            Class<?>[] params = method.getParameterTypes();
+            if (Modifier.isStatic(method.getModifiers()) || params.length != 1 || !Event.class.isAssignableFrom(params[0]))
+                throw new IllegalArgumentException("Methods annotated with @SubscribeEvent have to be non-static and take exactly one Event as parameter. Method: " + method);
+            subscribers.add(new Subscriber(params[0], createInvoker(method)));
+        }
+        return subscribers.toArray(new Subscriber[subscribers.size()]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Event> createInvoker(Method method)
+    {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle;
+        try
+        {
+            method.setAccessible(true);     //public methods of non-public classes
+            handle = lookup.unreflect(method);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IllegalArgumentException("Could not access the @SubscribeEvent method " + method, e);
+        }
+        if (isAccessible(method.getDeclaringClass())
+                && isVisible(method.getDeclaringClass()) && isVisible(method.getParameterTypes()[0]))
+        {
+            try
+            {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(void.class, method.getDeclaringClass(), method.getParameterTypes()[0]));
+                return (BiConsumer<Object, Event>) site.getTarget().invoke();
+            }
+            catch (VirtualMachineError e)
+            {
+                throw e;
+            }
+            catch (Throwable e)
+            {
+                System.err.println("Could not generate an invoker for the @SubscribeEvent method " + method + ", falling back to a MethodHandle.");
+                e.printStackTrace();
+            }
+        }
+
+        //The generated class can't access classes that aren't public or that were loaded by a classloader
+        //JDA can't see, like the one of a plugin (or could not be generated at all).
+        //Fall back to invoking the MethodHandle.
+        MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Event.class));
+        return (target, event) ->
+        {
+            try
+            {
+                generic.invokeExact(target, event);
+            }
+            catch (RuntimeException | Error e)
+            {
+                throw e;
+            }
+            catch (Throwable e)
+            {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    private static boolean isAccessible(Class<?> type)
+    {
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass())
+        {
+            if (!Modifier.isPublic(c.getModifiers()))
+                return false;
+        }
+        return true;
+    }
+
+    //The invoker is generated in the classloader of JDA and links against the listener by name,
+    //a class from a child classloader would only fail with a NoClassDefFoundError once the event is fired.
+    private static boolean isVisible(Class<?> type)
+    {
+        try
+        {
+            return Class.forName(type.getName(), false, AnnotatedEventListener.class.getClassLoader()) == type;
+        }
+        catch (ClassNotFoundException | LinkageError e)
+        {
+            return false;
+        }
+    }
+
+    private static final class Subscriber
+    {
+        private final Class<?> type;
+        private final BiConsumer<Object, Event> invoker;
+
+        private Subscriber(Class<?> type, BiConsumer<Object, Event> invoker)
+        {
+            this.type = type;
+            this.invoker = invoker;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.hooks;
+
+import net.dv8tion.jda.entities.*;
+import net.dv8tion.jda.events.Event;
+import net.dv8tion.jda.events.channel.text.GenericTextChannelEvent;
+import net.dv8tion.jda.events.channel.voice.GenericVoiceChannelEvent;
+import net.dv8tion.jda.events.guild.GenericGuildEvent;
+import net.dv8tion.jda.events.guild.member.GenericGuildMemberEvent;
+import net.dv8tion.jda.events.guild.role.GenericGuildRoleUpdateEvent;
+import net.dv8tion.jda.events.guild.role.GuildRoleUpdateEvent;
+import net.dv8tion.jda.events.message.*;
+import net.dv8tion.jda.events.message.guild.GenericGuildMessageEvent;
+import net.dv8tion.jda.events.message.priv.GenericPrivateMessageEvent;
+import net.dv8tion.jda.events.user.GenericUserEvent;
+import net.dv8tion.jda.events.user.UserTypingEvent;
+import net.dv8tion.jda.events.voice.GenericVoiceEvent;
+
+import java.util.*;
+
+/**
+ * Declarative filter for listeners registered with
+ * {@link net.dv8tion.jda.hooks.EventManager#register(EventListener, EventFilter) EventManager#register(EventListener, EventFilter)}
+ * or {@link net.dv8tion.jda.hooks.EventManager#registerAnnotated(Object, EventFilter) EventManager#registerAnnotated(Object, EventFilter)}.<br>
+ * Only events matching all configured criteria are passed to the listener. Criteria that were never set match everything,
+ * multiple values for the same criteria match if any of them does.
+ * <p>
+ * The {@link net.dv8tion.jda.hooks.EventManager EventManager} indexes registered filters by event type and guild, so events
+ * of other guilds never reach the listener and, if no filter matches at all, JDA can skip creating the event.
+ * <pre>
+ * jda.addEventListener(listener, new EventFilter()
+ *         .type(GuildMessageReceivedEvent.class)
+ *         .guild("81384788765712384")
+ *         .channel("81384788765712384", "114559039731531781"));
+ * </pre>
+ * The filter is copied on registration, later changes have no effect on already registered listeners.
+ */
+public class EventFilter
+{
+    private final Set<Class<? extends Event>> types = new HashSet<>();
+    private final Set<String> guildIds = new HashSet<>();
+    private final Set<String> channelIds = new HashSet<>();
+    private final Set<String> authorIds = new HashSet<>();
+
+    /**
+     * Only lets events through that are of (or extend) one of the given types.
+     *
+     * @param types
+     *          The event types.
+     * @return
+     *      This filter. Useful for chaining.
+     */
+    @SafeVarargs
+    public final EventFilter type(Class<? extends Event>... types)
+    {
+        //A loop instead of Collections.addAll, passing the generic array on is flagged by -Xlint:varargs.
+        for (Class<? extends Event> type : types)
+            this.types.add(type);
+        return this;
+    }
+
+    /**
+     * Only lets events through that belong to one of the given {@link net.dv8tion.jda.entities.Guild Guilds}.<br>
+     * Events without a Guild, like private messages, are filtered out.
+     *
+     * @param guildIds
+     *          The ids of the Guilds.
+     * @return
+     *      This filter. Useful for chaining.
+     */
+    public EventFilter guild(String... guildIds)
+    {
+        Collections.addAll(this.guildIds, guildIds);
+        return this;
+    }
+
+    /**
+     * Only lets events through that belong to one of the given channels.<br>
+     * This can be {@link net.dv8tion.jda.entities.TextChannel TextChannels},
+     * {@link net.dv8tion.jda.entities.VoiceChannel VoiceChannels} or
+     * {@link net.dv8tion.jda.entities.PrivateChannel PrivateChannels}. Events without a channel are filtered out.
+     *
+     * @param channelIds
+     *          The ids of the channels.
+     * @return
+     *      This filter. Useful for chaining.
+     */
+    public EventFilter channel(String... channelIds)
+    {
+        Collections.addAll(this.channelIds, channelIds);
+        return this;
+    }
+
+    /**
+     * Only lets events through that were caused by one of the given {@link net.dv8tion.jda.entities.User Users}.<br>
+     * This is the author of message events and the User of user, member and voice events.
+     * Events without such a User are filtered out.
+     *
+     * @param authorIds
+     *          The ids of the Users.
+     * @return
+     *      This filter. Useful for chaining.
+     */
+    public EventFilter author(String... authorIds)
+    {
+        Collections.addAll(this.authorIds, authorIds);
+        return this;
+    }
+
+    /**
+     * Whether the given event passes this filter.
+     *
+     * @param event
+     *          The event to check.
+     * @return
+     *      True, if the event matches all criteria.
+     */
+    public boolean matches(Event event)
+    {
+        return matchesType(event.getClass())
+                && matchesGuild(getGuildId(event))
+                && matchesChannelAndAuthor(event);
+    }
+
+    /**
+     * Whether an event with the given properties would pass this filter.<br>
+     * Used by the handlers to check a filter before any entities or events are created.
+     *
+     * @param eventClass
+     *          The type of the event.
+     * @param guildId
+     *          The id of the Guild of the event or null if it has none.
+     * @param channelId
+     *          The id of the channel of the event or null if it has none.
+     * @param authorId
+     *          The id of the User that caused the event or null if there is none.
+     * @return
+     *      True, if the event would match all criteria.
+     */
+    public boolean matches(Class<? extends Event> eventClass, String guildId, String channelId, String authorId)
+    {
+        return matchesType(eventClass)
+                && matchesGuild(guildId)
+                && (channelIds.isEmpty() || channelIds.contains(channelId))
+                && (authorIds.isEmpty() || authorIds.contains(authorId));
+    }
+
+    boolean matchesType(Class<? extends Event> eventClass)
+    {
+        if (types.isEmpty())
+            return true;
+        for (Class<? extends Event> type : types)
+        {
+            if (type.isAssignableFrom(eventClass))
+                return true;
+        }
+        return false;
+    }
+
+    boolean matchesGuild(String guildId)
+    {
+        return guildIds.isEmpty() || guildIds.contains(guildId);
+    }
+
+    boolean matchesChannelAndAuthor(Event event)
+    {
+        return (channelIds.isEmpty() || channelIds.contains(getChannelId(event)))
+                && (authorIds.isEmpty() || authorIds.contains(getAuthorId(event)));
+    }
+
+    Set<String> getGuildIds()
+    {
+        return guildIds;
+    }
+
+    EventFilter copy()
+    {
+        EventFilter copy = new EventFilter();
+        copy.types.addAll(types);
+        copy.guildIds.addAll(guildIds);
+        copy.channelIds.addAll(channelIds);
+        copy.authorIds.addAll(authorIds);
+        return copy;
+    }
+
+    /**
+     * The id of the {@link net.dv8tion.jda.entities.Guild Guild} the given event belongs to.
+     *
+     * @param event
+     *          The event.
+     * @return
+     *      The id of the Guild or null if the event does not belong to a Guild.
+     */
+    public static String getGuildId(Event event)
+    {
+        Guild guild = null;
+        if (event instanceof GenericGuildEvent)
+            guild = ((GenericGuildEvent) event).getGuild();
+        else if (event instanceof GenericTextChannelEvent)
+            guild = ((GenericTextChannelEvent) event).getGuild();
+        else if (event instanceof GenericVoiceChannelEvent)
+            guild = ((GenericVoiceChannelEvent) event).getGuild();
+        else if (event instanceof GenericGuildRoleUpdateEvent)
+            guild = ((GenericGuildRoleUpdateEvent) event).getRole().getGuild();
+        else if (event instanceof GuildRoleUpdateEvent)
+            guild = ((GuildRoleUpdateEvent) event).getRole().getGuild();
+        else if (event instanceof GenericVoiceEvent)
+            guild = ((GenericVoiceEvent) event).getVoiceStatus().getGuild();
+        else
+        {
+            String channelId = getChannelId(event);
+            if (channelId != null)
+            {
+                TextChannel channel = event.getJDA().getTextChannelById(channelId);
+                if (channel != null)
+                    guild = channel.getGuild();
+            }
+        }
+        return guild == null ? null : guild.getId();
+    }
+
+    /**
+     * The id of the channel the given event belongs to.
+     *
+     * @param event
+     *          The event.
+     * @return
+     *      The id of the {@link net.dv8tion.jda.entities.TextChannel TextChannel},
+     *      {@link net.dv8tion.jda.entities.VoiceChannel VoiceChannel} or
+     *      {@link net.dv8tion.jda.entities.PrivateChannel PrivateChannel} or null if the event does not belong to a channel.
+     */
+    public static String getChannelId(Event event)
+    {
+        if (event instanceof GenericGuildMessageEvent)
+            return ((GenericGuildMessageEvent) event).getChannel().getId();
+        if (event instanceof GenericPrivateMessageEvent)
+            return ((GenericPrivateMessageEvent) event).getChannel().getId();
+        if (event instanceof GenericMessageEvent)
+        {
+            Message message = ((GenericMessageEvent) event).getMessage();
+            return message == null ? null : message.getChannelId();
+        }
+        if (event instanceof MessageReceivedEvent)
+            return ((MessageReceivedEvent) event).getMessage().getChannelId();
+        if (event instanceof MessageUpdateEvent)
+            return ((MessageUpdateEvent) event).getMessage().getChannelId();
+        if (event instanceof MessageDeleteEvent)
+        {
+            MessageDeleteEvent e = (MessageDeleteEvent) event;
+            return e.getTextChannel() != null ? e.getTextChannel().getId() : idOf(e.getPrivateChannel());
+        }
+        if (event instanceof MessageAcknowledgedEvent)
+        {
+            MessageAcknowledgedEvent e = (MessageAcknowledgedEvent) event;
+            return e.getTextChannel() != null ? e.getTextChannel().getId() : idOf(e.getPrivateChannel());
+        }
+        if (event instanceof MessageEmbedEvent)
+        {
+            MessageEmbedEvent e = (MessageEmbedEvent) event;
+            return e.getTextChannel() != null ? e.getTextChannel().getId() : idOf(e.getPrivateChannel());
+        }
+        if (event instanceof GenericTextChannelEvent)
+            return ((GenericTextChannelEvent) event).getChannel().getId();
+        if (event instanceof GenericVoiceChannelEvent)
+            return ((GenericVoiceChannelEvent) event).getChannel().getId();
+        if (event instanceof UserTypingEvent)
+        {
+            TextChannel channel = ((UserTypingEvent) event).getChannel();
+            return channel == null ? null : channel.getId();
+        }
+        if (event instanceof GenericVoiceEvent)
+        {
+            VoiceChannel channel = ((GenericVoiceEvent) event).getVoiceStatus().getChannel();
+            return channel == null ? null : channel.getId();
+        }
+        return null;
+    }
+
+    /**
+     * The id of the {@link net.dv8tion.jda.entities.User User} that caused the given event.<br>
+     * This is the author of message events and the User of user, member and voice events.
+     *
+     * @param event
+     *          The event.
+     * @return
+     *      The id of the User or null if there is none.
+     */
+    public static String getAuthorId(Event event)
+    {
+        User user = null;
+        if (event instanceof GenericMessageEvent)
+            user = ((GenericMessageEvent) event).getAuthor();
+        else if (event instanceof MessageReceivedEvent)
+            user = ((MessageReceivedEvent) event).getAuthor();
+        else if (event instanceof MessageUpdateEvent)
+            user = ((MessageUpdateEvent) event).getAuthor();
+        else if (event instanceof GenericUserEvent)
+            user = ((GenericUserEvent) event).getUser();
+        else if (event instanceof GenericGuildMemberEvent)
+            user = ((GenericGuildMemberEvent) event).getUser();
+        else if (event instanceof GenericVoiceEvent)
+            user = ((GenericVoiceEvent) event).getUser();
+        return user == null ? null : user.getId();
+    }
+
+    private static String idOf(PrivateChannel channel)
+    {
+        return channel == null ? null : channel.getId();
+    }
+}
@@ -15,14 +15,37 @@
  */
 package net.dv8tion.jda.hooks;
 
+import net.dv8tion.jda.entities.TextChannel;
 import net.dv8tion.jda.events.Event;
+import net.dv8tion.jda.events.channel.text.GenericTextChannelEvent;
+import net.dv8tion.jda.events.channel.voice.GenericVoiceChannelEvent;
+import net.dv8tion.jda.events.guild.GenericGuildEvent;
+import net.dv8tion.jda.events.guild.role.GenericGuildRoleUpdateEvent;
+import net.dv8tion.jda.events.guild.role.GuildRoleUpdateEvent;
+import net.dv8tion.jda.events.message.*;
+import net.dv8tion.jda.events.message.guild.GenericGuildMessageEvent;
+import net.dv8tion.jda.events.message.priv.GenericPrivateMessageEvent;
+import net.dv8tion.jda.events.user.GenericUserEvent;
+import net.dv8tion.jda.events.voice.GenericVoiceEvent;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 public class EventManager
 {
-    private final List<EventListener> listeners = new LinkedList<>();
+    //Replaced as a whole whenever the listeners change, dispatch always works on one consistent snapshot.
+    private volatile Registry registry = new Registry(new EventListener[0]);
+    //Ordering key -> events of that key waiting to be dispatched by the executor.
+    //Key of the events without ordering key. Not the map itself, a map containing itself can't be hashed.
+    private static final Object GLOBAL_KEY = new Object();
+    private final Map<Object, SerialQueue> queues = new HashMap<>();
+    private volatile Executor executor = null;
+    private volatile ListenerProfiler profiler = null;
+    private volatile ListenerErrorHandler errorHandler = EventManager::printError;
+    private volatile Function<Event, Object> orderingKey = EventManager::getOrderingKey;
 
     public EventManager()
     {
@@ -31,19 +54,558 @@ public class EventManager
 
     public void register(EventListener listener)
     {
-        listeners.add(listener);
+        add(listener);
+    }
+
+    /**
+     * Registers a listener that only receives the events matching the given {@link net.dv8tion.jda.hooks.EventFilter EventFilter}.
+     *
+     * @param listener
+     *          The listener to register.
+     * @param filter
+     *          The filter for the events passed to the listener. It is copied, later changes have no effect.
+     */
+    public void register(EventListener listener, EventFilter filter)
+    {
+        add(new FilteredEventListener(listener, listener, filter.copy()));
+    }
+
+    /**
+     * Registers an object with methods annotated with {@link net.dv8tion.jda.hooks.SubscribeEvent SubscribeEvent}.
+     *
+     * @param listener
+     *          The object to register.
+     * @throws IllegalArgumentException
+     *          If the object has no valid annotated methods.
+     */
+    public void registerAnnotated(Object listener)
+    {
+        add(new AnnotatedEventListener(listener));
+    }
+
+    /**
+     * Registers an object with methods annotated with {@link net.dv8tion.jda.hooks.SubscribeEvent SubscribeEvent}
+     * that only receives the events matching the given {@link net.dv8tion.jda.hooks.EventFilter EventFilter}.
+     *
+     * @param listener
+     *          The object to register.
+     * @param filter
+     *          The filter for the events passed to the listener. It is copied, later changes have no effect.
+     * @throws IllegalArgumentException
+     *          If the object has no valid annotated methods.
+     */
+    public void registerAnnotated(Object listener, EventFilter filter)
+    {
+        add(new FilteredEventListener(listener, new AnnotatedEventListener(listener), filter.copy()));
+    }
+
+    private synchronized void add(EventListener listener)
+    {
+        EventListener[] listeners = registry.listeners;
+        EventListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        registry = new Registry(updated);
     }
 
     public void unregister(EventListener listener)
     {
-        listeners.remove(listener);
+        remove(listener, false);
+    }
+
+    /**
+     * Removes an object previously registered with {@link #registerAnnotated(Object)}.
+     *
+     * @param listener
+     *          The object to remove.
+     */
+    public void unregisterAnnotated(Object listener)
+    {
+        remove(listener, true);
+    }
+
+    private synchronized void remove(Object listener, boolean annotated)
+    {
+        EventListener[] listeners = registry.listeners;
+        for (int i = 0; i < listeners.length; i++)
+        {
+            EventListener l = listeners[i];
+            if (targetOf(l) == listener && isAnnotated(l) == annotated)
+            {
+                ListenerProfiler profiler = this.profiler;
+                if (profiler != null)
+                    profiler.remove(listener);
+                EventListener[] updated = new EventListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, updated, 0, i);
+                System.arraycopy(listeners, i + 1, updated, i, updated.length - i);
+                registry = new Registry(updated);
+                return;
+            }
+        }
+    }
+
+    private static boolean isAnnotated(EventListener listener)
+    {
+        if (listener instanceof FilteredEventListener)
+            listener = ((FilteredEventListener) listener).getDelegate();
+        return listener instanceof AnnotatedEventListener;
+    }
+
+    private static Object targetOf(EventListener listener)
+    {
+        if (listener instanceof FilteredEventListener)
+            return ((FilteredEventListener) listener).getTarget();
+        if (listener instanceof AnnotatedEventListener)
+            return ((AnnotatedEventListener) listener).getTarget();
+        return listener;
+    }
+
+    /**
+     * A snapshot of all registered {@link net.dv8tion.jda.hooks.EventListener EventListeners} in registration order.
+     *
+     * @return
+     *      Unmodifiable list of the listeners. Annotated listeners are contained in their wrapped form.
+     */
+    public List<EventListener> getRegisteredListeners()
+    {
+        return Collections.unmodifiableList(Arrays.asList(registry.listeners));
+    }
+
+    /**
+     * Whether any registered {@link net.dv8tion.jda.hooks.EventListener EventListener} is interested in events of
+     * the provided type.<br>
+     * {@link net.dv8tion.jda.hooks.ListenerAdapter ListenerAdapters} are only interested in the types whose methods they
+     * override (or in every type if they override {@link net.dv8tion.jda.hooks.ListenerAdapter#onEvent(net.dv8tion.jda.events.Event) onEvent})
+     * and annotated listeners in the types of their {@link net.dv8tion.jda.hooks.SubscribeEvent SubscribeEvent} methods.
+     * Any other EventListener is interested in every event.
+     * <p>
+     * Used by the handlers to skip building events that nobody listens to.
+     *
+     * @param eventClass
+     *          The type of the event.
+     * @return
+     *      True, if an event of this type would reach at least one listener.
+     */
+    public boolean isListening(Class<? extends Event> eventClass)
+    {
+        return !registry.get(eventClass).isEmpty();
+    }
+
+    /**
+     * Whether any registered listener is interested in an event of the provided type with the given properties,
+     * taking the {@link net.dv8tion.jda.hooks.EventFilter EventFilters} of the listeners into account.<br>
+     * Used by the handlers to skip expensive work, like parsing embeds, before any entity or event is created.
+     *
+     * @param eventClass
+     *          The type of the event.
+     * @param guildId
+     *          The id of the Guild of the event or null if it has none.
+     * @param channelId
+     *          The id of the channel of the event or null if it has none.
+     * @param authorId
+     *          The id of the User that caused the event or null if there is none.
+     * @return
+     *      True, if such an event would reach at least one listener.
+     */
+    public boolean isListening(Class<? extends Event> eventClass, String guildId, String channelId, String authorId)
+    {
+        for (EventListener listener : registry.get(eventClass).get(guildId))
+        {
+            if (!(listener instanceof FilteredEventListener)
+                    || ((FilteredEventListener) listener).getFilter().matches(eventClass, guildId, channelId, authorId))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether the listener might handle events of the provided type. Only listeners that are known to ignore the type
+     * return false and are left out of the {@link Route Routes}, any listener JDA can't look into is always called.
+     */
+    private static boolean handles(EventListener listener, Class<? extends Event> eventClass)
+    {
+        if (listener instanceof ListenerAdapter)
+            return ((ListenerAdapter) listener).handles(eventClass);
+        if (listener instanceof AnnotatedEventListener)
+            return ((AnnotatedEventListener) listener).handles(eventClass);
+        if (listener instanceof FilteredEventListener)
+        {
+            FilteredEventListener filtered = (FilteredEventListener) listener;
+            return filtered.getFilter().matchesType(eventClass) && handles(filtered.getDelegate(), eventClass);
+        }
+        return true;
+    }
+
+    /**
+     * Sets the {@link java.util.concurrent.Executor Executor} used to call the listeners.<br>
+     * By default (or when set to null) all listeners are called on the thread that received the event, which is the
+     * thread reading from Discord. With an Executor, events are handed off to it instead.
+     * <p>
+     * Events with the same {@link #setOrderingKey(java.util.function.Function) ordering key} are still dispatched one after
+     * another in the order they were received, while events of different keys are dispatched in parallel.
+     * Any Executor can be used, like a {@link java.util.concurrent.Executors#newFixedThreadPool(int) fixed thread pool}
+     * or, on Java 21 and newer, {@code Executors.newVirtualThreadPerTaskExecutor()}.
+     *
+     * @param executor
+     *          The Executor to dispatch events with or null to dispatch synchronously.
+     */
+    public void setExecutor(Executor executor)
+    {
+        this.executor = executor;
+    }
+
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * Sets the {@link net.dv8tion.jda.hooks.ListenerProfiler ListenerProfiler} that times every listener invocation.
+     *
+     * @param profiler
+     *          The profiler or null to stop profiling.
+     */
+    public void setProfiler(ListenerProfiler profiler)
+    {
+        this.profiler = profiler;
+    }
+
+    public ListenerProfiler getProfiler()
+    {
+        return profiler;
+    }
+
+    /**
+     * Sets the {@link net.dv8tion.jda.hooks.ListenerErrorHandler ListenerErrorHandler} called for exceptions thrown by listeners.<br>
+     * Listeners are isolated from each other either way: an exception never keeps the following listeners from receiving
+     * the event and never reaches JDA itself. By default the exception is printed to System.err.<br>
+     * {@link java.lang.VirtualMachineError VirtualMachineErrors} are only passed to the handler when an
+     * {@link #setExecutor(java.util.concurrent.Executor) Executor} is used, without one they are rethrown.
+     *
+     * @param errorHandler
+     *          The error handler. Must not be null.
+     */
+    public void setErrorHandler(ListenerErrorHandler errorHandler)
+    {
+        if (errorHandler == null)
+            throw new IllegalArgumentException("The error handler must not be null.");
+        this.errorHandler = errorHandler;
+    }
+
+    public ListenerErrorHandler getErrorHandler()
+    {
+        return errorHandler;
+    }
+
+    /**
+     * Sets the function that decides which events have to be dispatched in order when an
+     * {@link #setExecutor(java.util.concurrent.Executor) Executor} is used.<br>
+     * Events with equal keys are dispatched serially, events with a null key share one global key.
+     * Defaults to {@link #getOrderingKey(net.dv8tion.jda.events.Event)}.
+     *
+     * @param orderingKey
+     *          The key function. Must not be null.
+     */
+    public void setOrderingKey(Function<Event, Object> orderingKey)
+    {
+        if (orderingKey == null)
+            throw new IllegalArgumentException("The ordering key function must not be null.");
+        this.orderingKey = orderingKey;
     }
 
     public void handle(Event event)
     {
+        Executor executor = this.executor;
+        if (executor == null)
+        {
+            dispatch(event, true);
+            return;
+        }
+        Object key = orderingKey.apply(event);
+        if (key == null)
+            key = GLOBAL_KEY;
+        SerialQueue queue;
+        synchronized (queues)
+        {
+            queue = queues.get(key);
+            if (queue == null)
+            {
+                queue = new SerialQueue(key);
+                queues.put(key, queue);
+            }
+            queue.events.add(event);
+            if (queue.scheduled)
+                return;
+            queue.scheduled = true;
+        }
+        schedule(queue);
+    }
+
+    private void schedule(SerialQueue queue)
+    {
+        Executor executor = this.executor;
+        if (executor != null)
+        {
+            try
+            {
+                executor.execute(queue);
+                return;
+            }
+            catch (RejectedExecutionException e)
+            {
+                //The queue is marked as scheduled, dropping it here would stall its key forever.
+                System.err.println("The event Executor rejected a task, dispatching its events on the current thread.");
+            }
+        }
+        queue.run();
+    }
+
+    private void dispatch(Event event, boolean mainThread)
+    {
+        Route route = registry.get(event.getClass());
+        EventListener[] listeners = route.byGuild.isEmpty() ? route.listeners : route.get(EventFilter.getGuildId(event));
+        ListenerProfiler profiler = this.profiler;
         for (EventListener listener : listeners)
         {
-            listener.onEvent(event);
+            if (listener instanceof FilteredEventListener)
+            {
+                //Checked here instead of by the wrapper, so rejected events are neither timed nor counted.
+                FilteredEventListener filtered = (FilteredEventListener) listener;
+                if (!filtered.getFilter().matchesChannelAndAuthor(event))
+                    continue;
+                listener = filtered.getDelegate();
+            }
+            Throwable failure = null;
+            long start = profiler == null ? 0 : System.nanoTime();
+            try
+            {
+                listener.onEvent(event);
+            }
+            catch (Throwable t)
+            {
+                //Isolate every listener, the following listeners and the handler calling us must not be affected.
+                failure = t;
+            }
+            if (profiler != null)
+                profiler.record(targetOf(listener), event, System.nanoTime() - start, failure != null, mainThread);
+            if (failure != null)
+                handleError(listener, event, failure, mainThread);
+        }
+    }
+
+    private void handleError(EventListener listener, Event event, Throwable error, boolean mainThread)
+    {
+        //On the thread reading from Discord the JVM is left to deal with it. With an Executor it is reported like any
+        //other failure, throwing it would only kill the worker and leave the rest of the queue behind.
+        if (mainThread && error instanceof VirtualMachineError)
+            throw (VirtualMachineError) error;
+        try
+        {
+            errorHandler.onError(targetOf(listener), event, error);
+        }
+        catch (RuntimeException e)
+        {
+            e.printStackTrace();
+        }
+    }
+
+    private static void printError(Object listener, Event event, Throwable error)
+    {
+        System.err.println("Listener " + listener + " threw an exception while handling " + event.getClass().getSimpleName() + ":");
+        error.printStackTrace();
+    }
+
+    /**
+     * The default ordering key of an event used with an {@link #setExecutor(java.util.concurrent.Executor) Executor}.<br>
+     * Events of a {@link net.dv8tion.jda.entities.Guild Guild} (including its channels, roles, members and messages) are
+     * keyed by their Guild, private messages by their {@link net.dv8tion.jda.entities.PrivateChannel PrivateChannel} and
+     * user and voice events by their {@link net.dv8tion.jda.entities.User User}. All other events return null.
+     *
+     * @param event
+     *          The event.
+     * @return
+     *      The ordering key or null.
+     */
+    public static Object getOrderingKey(Event event)
+    {
+        if (event instanceof GenericGuildEvent)
+            return ((GenericGuildEvent) event).getGuild();
+        if (event instanceof GenericTextChannelEvent)
+            return ((GenericTextChannelEvent) event).getGuild();
+        if (event instanceof GenericVoiceChannelEvent)
+            return ((GenericVoiceChannelEvent) event).getGuild();
+        if (event instanceof GenericGuildRoleUpdateEvent)
+            return ((GenericGuildRoleUpdateEvent) event).getRole().getGuild();
+        if (event instanceof GuildRoleUpdateEvent)
+            return ((GuildRoleUpdateEvent) event).getRole().getGuild();
+        if (event instanceof GenericGuildMessageEvent)
+            return ((GenericGuildMessageEvent) event).getGuild();
+        if (event instanceof GenericPrivateMessageEvent)
+            return ((GenericPrivateMessageEvent) event).getChannel();
+        if (event instanceof GenericUserEvent)
+            return ((GenericUserEvent) event).getUser();
+        if (event instanceof GenericVoiceEvent)
+            return ((GenericVoiceEvent) event).getUser();
+        if (event instanceof MessageReceivedEvent)
+        {
+            MessageReceivedEvent e = (MessageReceivedEvent) event;
+            return e.isPrivate() ? e.getPrivateChannel() : e.getGuild();
+        }
+        if (event instanceof MessageUpdateEvent)
+        {
+            MessageUpdateEvent e = (MessageUpdateEvent) event;
+            return e.isPrivate() ? e.getPrivateChannel() : e.getGuild();
+        }
+        if (event instanceof MessageDeleteEvent)
+        {
+            TextChannel channel = ((MessageDeleteEvent) event).getTextChannel();
+            return channel != null ? channel.getGuild() : ((MessageDeleteEvent) event).getPrivateChannel();
+        }
+        if (event instanceof MessageAcknowledgedEvent)
+        {
+            TextChannel channel = ((MessageAcknowledgedEvent) event).getTextChannel();
+            return channel != null ? channel.getGuild() : ((MessageAcknowledgedEvent) event).getPrivateChannel();
+        }
+        if (event instanceof MessageEmbedEvent)
+        {
+            TextChannel channel = ((MessageEmbedEvent) event).getTextChannel();
+            return channel != null ? channel.getGuild() : ((MessageEmbedEvent) event).getPrivateChannel();
+        }
+        return null;
+    }
+
+    /**
+     * Immutable set of listeners together with the lazily computed listeners of each event type.
+     * A new Registry is created on every change, so the arrays never have to be invalidated.
+     * The per-type arrays only leave out listeners for which {@link #handles(EventListener, Class)} is false.
+     */
+    private static final class Registry
+    {
+        private final EventListener[] listeners;
+        private final Map<Class<? extends Event>, Route> byType = new ConcurrentHashMap<>();
+
+        private Registry(EventListener[] listeners)
+        {
+            this.listeners = listeners;
+        }
+
+        private Route get(Class<? extends Event> eventClass)
+        {
+            Route route = byType.get(eventClass);
+            if (route == null)
+            {
+                List<EventListener> typed = new ArrayList<>(listeners.length);
+                Set<String> guildIds = new HashSet<>();
+                for (EventListener listener : listeners)
+                {
+                    if (handles(listener, eventClass))
+                    {
+                        typed.add(listener);
+                        if (listener instanceof FilteredEventListener)
+                            guildIds.addAll(((FilteredEventListener) listener).getFilter().getGuildIds());
+                    }
+                }
+                route = new Route(typed, guildIds);
+                byType.put(eventClass, route);
+            }
+            return route;
+        }
+    }
+
+    /**
+     * The listeners of one event type. Listeners filtered by Guild are only contained in the arrays of their Guilds,
+     * all arrays keep the registration order.
+     */
+    private static final class Route
+    {
+        //Listeners without a Guild filter, used for events of all other Guilds and events without Guild.
+        private final EventListener[] listeners;
+        private final Map<String, EventListener[]> byGuild = new HashMap<>();
+
+        private Route(List<EventListener> typed, Set<String> guildIds)
+        {
+            this.listeners = typed.stream().filter(l -> routedTo(l, null)).toArray(EventListener[]::new);
+            for (String guildId : guildIds)
+                byGuild.put(guildId, typed.stream().filter(l -> routedTo(l, guildId)).toArray(EventListener[]::new));
+        }
+
+        private static boolean routedTo(EventListener listener, String guildId)
+        {
+            if (!(listener instanceof FilteredEventListener))
+                return true;
+            Set<String> guildIds = ((FilteredEventListener) listener).getFilter().getGuildIds();
+            return guildIds.isEmpty() || guildIds.contains(guildId);
+        }
+
+        private EventListener[] get(String guildId)
+        {
+            EventListener[] routed = guildId == null ? null : byGuild.get(guildId);
+            return routed == null ? listeners : routed;
+        }
+
+        private boolean isEmpty()
+        {
+            return listeners.length == 0 && byGuild.isEmpty();
+        }
+    }
+
+    /**
+     * Dispatches the events of one ordering key one after another. Only one instance of this runs per key at any time.
+     */
+    private class SerialQueue implements Runnable
+    {
+        private final Object key;
+        private final Queue<Event> events = new ArrayDeque<>();
+        private boolean scheduled = false;
+
+        private SerialQueue(Object key)
+        {
+            this.key = key;
+        }
+
+        @Override
+        public void run()
+        {
+            boolean drained = false;
+            try
+            {
+                while (true)
+                {
+                    Event event;
+                    synchronized (queues)
+                    {
+                        event = events.poll();
+                        if (event == null)
+                        {
+                            scheduled = false;
+                            queues.remove(key);
+                            drained = true;
+                            return;
+                        }
+                    }
+                    dispatch(event, false);
+                }
+            }
+            finally
+            {
+                //Something escaped the dispatch. The queue is still marked as scheduled, so it has to be rescheduled
+                //for the remaining events, otherwise every following event of this key would wait forever.
+                if (!drained)
+                    reschedule();
+            }
+        }
+
+        private void reschedule()
+        {
+            synchronized (queues)
+            {
+                if (events.isEmpty())
+                {
+                    scheduled = false;
+                    queues.remove(key);
+                    return;
+                }
+            }
+            schedule(this);
         }
     }
 }
@@ -0,0 +1,173 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.hooks;
+
+import net.dv8tion.jda.events.Event;
+
+/**
+ * Exposes the events of JDA as a stream with backpressure.<br>
+ * Mirrors {@code java.util.concurrent.Flow.Publisher} of Java 9: a {@link net.dv8tion.jda.hooks.EventSubscriber EventSubscriber}
+ * only receives as many events as it requested. Events arriving faster are kept in a bounded buffer per subscriber,
+ * the {@link net.dv8tion.jda.hooks.OverflowStrategy OverflowStrategy} decides what happens once it is full.
+ * The thread dispatching the events is never blocked.
+ * <p>
+ * {@link net.dv8tion.jda.hooks.EventSubscriber#onNext(net.dv8tion.jda.events.Event) onNext} is called by the thread
+ * dispatching the event while there is outstanding demand, which is the thread reading from Discord unless an
+ * {@link net.dv8tion.jda.hooks.EventManager#setExecutor(java.util.concurrent.Executor) Executor} is set.
+ * Buffered events are delivered by the thread calling {@link net.dv8tion.jda.hooks.EventSubscription#request(long) request}.
+ * Subscribers doing heavy work should hand the events off to their own thread.
+ * <p>
+ * Publishers are immutable, the {@code with...} methods return a new publisher and leave this one unchanged:
+ * <pre>
+ * jda.getEventPublisher()
+ *         .ofType(GuildMessageReceivedEvent.class)
+ *         .withBufferSize(1000)
+ *         .withOverflowStrategy(OverflowStrategy.DROP_OLDEST)
+ *         .subscribe(subscriber);
+ * </pre>
+ *
+ * @param <T>
+ *          The type of the published events.
+ */
+public class EventPublisher<T extends Event>
+{
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private final EventManager eventManager;
+    private final Class<T> type;
+    private final int bufferSize;
+    private final OverflowStrategy overflowStrategy;
+    private final boolean conflate;
+
+    public EventPublisher(EventManager eventManager, Class<T> type)
+    {
+        this(eventManager, type, DEFAULT_BUFFER_SIZE, OverflowStrategy.DROP_OLDEST, false);
+    }
+
+    private EventPublisher(EventManager eventManager, Class<T> type, int bufferSize, OverflowStrategy overflowStrategy, boolean conflate)
+    {
+        this.eventManager = eventManager;
+        this.type = type;
+        this.bufferSize = bufferSize;
+        this.overflowStrategy = overflowStrategy;
+        this.conflate = conflate;
+    }
+
+    /**
+     * A publisher of only the events of the given type, with the same settings as this one.<br>
+     * Subscribers of it are only registered for this type, so JDA can still skip building events nobody listens to.
+     *
+     * @param type
+     *          The type of the events.
+     * @param <U>
+     *          The type of the events.
+     * @return
+     *      A new publisher.
+     */
+    public <U extends T> EventPublisher<U> ofType(Class<U> type)
+    {
+        return new EventPublisher<>(eventManager, type, bufferSize, overflowStrategy, conflate);
+    }
+
+    /**
+     * A publisher with the same settings as this one, except for the amount of events buffered per subscriber while it
+     * has no outstanding demand.
+     * Default: {@value #DEFAULT_BUFFER_SIZE}
+     *
+     * @param bufferSize
+     *          The size of the buffer. Must be positive.
+     * @return
+     *      A new publisher.
+     */
+    public EventPublisher<T> withBufferSize(int bufferSize)
+    {
+        if (bufferSize < 1)
+            throw new IllegalArgumentException("The buffer size must be positive. Provided: " + bufferSize);
+        return new EventPublisher<>(eventManager, type, bufferSize, overflowStrategy, conflate);
+    }
+
+    /**
+     * A publisher with the same settings as this one, except for what happens to new events when the buffer of a
+     * subscriber is full.
+     * Default: {@link net.dv8tion.jda.hooks.OverflowStrategy#DROP_OLDEST DROP_OLDEST}
+     *
+     * @param overflowStrategy
+     *          The strategy. Must not be null.
+     * @return
+     *      A new publisher.
+     */
+    public EventPublisher<T> withOverflowStrategy(OverflowStrategy overflowStrategy)
+    {
+        if (overflowStrategy == null)
+            throw new IllegalArgumentException("The overflow strategy must not be null.");
+        return new EventPublisher<>(eventManager, type, bufferSize, overflowStrategy, conflate);
+    }
+
+    /**
+     * A publisher with the same settings as this one, except for whether buffered presence and typing events are conflated.<br>
+     * If enabled, a {@link net.dv8tion.jda.events.user.UserOnlineStatusUpdateEvent UserOnlineStatusUpdateEvent},
+     * {@link net.dv8tion.jda.events.user.UserGameUpdateEvent UserGameUpdateEvent} or
+     * {@link net.dv8tion.jda.events.user.UserTypingEvent UserTypingEvent} replaces a still buffered event of the same type
+     * for the same User (and channel) instead of taking another place in the buffer. The newer event is delivered at
+     * the position of the older one, with the previous status or game of the older one, so the delivered event
+     * spans all replaced changes. This only takes effect while a subscriber falls behind.
+     * Default: false
+     *
+     * @param conflate
+     *          Whether to conflate.
+     * @return
+     *      A new publisher.
+     */
+    public EventPublisher<T> withConflate(boolean conflate)
+    {
+        return new EventPublisher<>(eventManager, type, bufferSize, overflowStrategy, conflate);
+    }
+
+    /**
+     * Subscribes to the events of this publisher.<br>
+     * {@link net.dv8tion.jda.hooks.EventSubscriber#onSubscribe(EventSubscription) onSubscribe} is called before this
+     * returns, events are received from then on until the subscription is cancelled.
+     *
+     * @param subscriber
+     *          The subscriber.
+     */
+    public void subscribe(EventSubscriber<? super T> subscriber)
+    {
+        PublisherSubscription<T> subscription = new PublisherSubscription<>(eventManager, type, subscriber, bufferSize, overflowStrategy, conflate);
+        subscriber.onSubscribe(subscription);
+        subscription.start();
+    }
+
+    public Class<T> getType()
+    {
+        return type;
+    }
+
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    public OverflowStrategy getOverflowStrategy()
+    {
+        return overflowStrategy;
+    }
+
+    public boolean isConflate()
+    {
+        return conflate;
+    }
+}
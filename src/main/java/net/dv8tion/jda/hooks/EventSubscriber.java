@@ -0,0 +1,60 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.hooks;
+
+import net.dv8tion.jda.events.Event;
+
+/**
+ * Receives events from an {@link net.dv8tion.jda.hooks.EventPublisher EventPublisher}.<br>
+ * Mirrors {@code java.util.concurrent.Flow.Subscriber} of Java 9: no events are delivered until they were
+ * requested through the {@link net.dv8tion.jda.hooks.EventSubscription EventSubscription} passed to
+ * {@link #onSubscribe(EventSubscription)}. Calls to one subscriber never happen concurrently.
+ *
+ * @param <T>
+ *          The type of the received events.
+ */
+public interface EventSubscriber<T extends Event>
+{
+    /**
+     * Called once before any other method with the subscription used to request events or cancel.
+     *
+     * @param subscription
+     *          The subscription of this subscriber.
+     */
+    void onSubscribe(EventSubscription subscription);
+
+    /**
+     * Called with the next event, at most as often as events were requested.
+     *
+     * @param event
+     *          The event.
+     */
+    void onNext(T event);
+
+    /**
+     * Called when the stream failed, for example if the buffer overflowed with
+     * {@link net.dv8tion.jda.hooks.OverflowStrategy#ERROR OverflowStrategy.ERROR}. No further events are delivered.
+     *
+     * @param error
+     *          The reason of the failure.
+     */
+    void onError(Throwable error);
+
+    /**
+     * Called when the stream ended and no further events will be delivered.
+     */
+    void onComplete();
+}
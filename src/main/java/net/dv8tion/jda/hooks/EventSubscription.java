@@ -0,0 +1,40 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.hooks;
+
+/**
+ * The link between an {@link net.dv8tion.jda.hooks.EventPublisher EventPublisher} and one
+ * {@link net.dv8tion.jda.hooks.EventSubscriber EventSubscriber}.<br>
+ * Mirrors {@code java.util.concurrent.Flow.Subscription} of Java 9.
+ */
+public interface EventSubscription
+{
+    /**
+     * Requests the given amount of additional events. Events received while none are requested are buffered
+     * according to the settings of the {@link net.dv8tion.jda.hooks.EventPublisher EventPublisher}.<br>
+     * {@link java.lang.Long#MAX_VALUE Long.MAX_VALUE} requests an unbounded amount.
+     *
+     * @param n
+     *          The amount of events to request. A non-positive amount fails the stream with an
+     *          {@link java.lang.IllegalArgumentException IllegalArgumentException}.
+     */
+    void request(long n);
+
+    /**
+     * Stops the delivery of events and discards all buffered events. May be called multiple times.
+     */
+    void cancel();
+}
@@ -0,0 +1,59 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.hooks;
+
+import net.dv8tion.jda.events.Event;
+
+/**
+ * Wraps a listener registered with an {@link net.dv8tion.jda.hooks.EventFilter EventFilter}.<br>
+ * Event type and Guild are already matched by the routing of the {@link net.dv8tion.jda.hooks.EventManager EventManager},
+ * only channel and author are checked here.
+ */
+class FilteredEventListener implements EventListener
+{
+    private final Object target;
+    private final EventListener delegate;
+    private final EventFilter filter;
+
+    FilteredEventListener(Object target, EventListener delegate, EventFilter filter)
+    {
+        this.target = target;
+        this.delegate = delegate;
+        this.filter = filter;
+    }
+
+    @Override
+    public void onEvent(Event event)
+    {
+        if (filter.matchesChannelAndAuthor(event))
+            delegate.onEvent(event);
+    }
+
+    Object getTarget()
+    {
+        return target;
+    }
+
+    EventListener getDelegate()
+    {
+        return delegate;
+    }
+
+    EventFilter getFilter()
+    {
+        return filter;
+    }
+}
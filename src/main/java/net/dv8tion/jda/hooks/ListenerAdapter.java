@@ -30,6 +30,11 @@ import net.dv8tion.jda.events.message.priv.*;
 import net.dv8tion.jda.events.user.*;
 import net.dv8tion.jda.events.voice.*;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
 public abstract class ListenerAdapter implements EventListener
 {
     //JDA Events
@@ -127,182 +132,230 @@ public abstract class ListenerAdapter implements EventListener
     public void onGenericVoice(GenericVoiceEvent event) {}
     public void onGenericGuildRoleUpdate(GenericGuildRoleUpdateEvent event) {}
 
-    @Override
-    public void onEvent(Event event)
+    //Every chain dispatches only to the first matching type, the same way an if-else chain would.
+    //Chains are evaluated in order, so an event can trigger one method of each chain.
+    private static final Handler[][] CHAINS =
     {
-        //JDA Events
-        if (event instanceof ReadyEvent)
-            onReady((ReadyEvent) event);
-
-        //Message Events
-        //Guild (TextChannel) Message Events
-        else if (event instanceof GuildMessageReceivedEvent)
-            onGuildMessageReceived((GuildMessageReceivedEvent) event);
-        else if (event instanceof GuildMessageAcknowledgedEvent)
-            onGuildMessageAcknowledged((GuildMessageAcknowledgedEvent) event);
-        else if (event instanceof GuildMessageUpdateEvent)
-            onGuildMessageUpdate((GuildMessageUpdateEvent) event);
-        else if (event instanceof GuildMessageDeleteEvent)
-            onGuildMessageDelete((GuildMessageDeleteEvent) event);
-        else if (event instanceof GuildMessageEmbedEvent)
-            onGuildMessageEmbed((GuildMessageEmbedEvent) event);
-        //Private Message Events
-        else if (event instanceof PrivateMessageReceivedEvent)
-            onPrivateMessageReceived((PrivateMessageReceivedEvent) event);
-        else if (event instanceof PrivateMessageAcknowledgedEvent)
-            onPrivateMessageAcknowledged((PrivateMessageAcknowledgedEvent) event);
-        else if (event instanceof PrivateMessageUpdateEvent)
-            onPrivateMessageUpdate((PrivateMessageUpdateEvent) event);
-        else if (event instanceof PrivateMessageDeleteEvent)
-            onPrivateMessageDelete((PrivateMessageDeleteEvent) event);
-        else if (event instanceof PrivateMessageEmbedEvent)
-            onPrivateMessageEmbed((PrivateMessageEmbedEvent) event);
-        //Combined Message Events (Combines Guild and Private message into 1 event)
-        else if (event instanceof MessageReceivedEvent)
-            onMessageReceived((MessageReceivedEvent) event);
-        else if (event instanceof MessageAcknowledgedEvent)
-            onMessageAcknowledged((MessageAcknowledgedEvent) event);
-        else if (event instanceof MessageUpdateEvent)
-            onMessageUpdate((MessageUpdateEvent) event);
-        else if (event instanceof MessageDeleteEvent)
-            onMessageDelete((MessageDeleteEvent) event);
-        else if (event instanceof MessageEmbedEvent)
-            onMessageEmbed((MessageEmbedEvent) event);
-        //Invite Messages
-        else if (event instanceof InviteReceivedEvent)
-            onInviteReceived(((InviteReceivedEvent) event));
-
-        //User Events
-        else if (event instanceof UserNameUpdateEvent)
-            onUserNameUpdate((UserNameUpdateEvent) event);
-        else if (event instanceof UserAvatarUpdateEvent)
-            onUserAvatarUpdate((UserAvatarUpdateEvent) event);
-        else if (event instanceof UserGameUpdateEvent)
-            onUserGameUpdate((UserGameUpdateEvent) event);
-        else if (event instanceof UserOnlineStatusUpdateEvent)
-            onUserOnlineStatusUpdate((UserOnlineStatusUpdateEvent) event);
-        else if (event instanceof UserTypingEvent)
-            onUserTyping((UserTypingEvent) event);
-        else if (event instanceof GenericUserEvent)         //We check this here so that we don't catch 4 different update events.
-            onGenericUserEvent((GenericUserEvent) event);   //Must be after all the others because they are subclasses of the Generic.
-
-        //TextChannel Events
-        else if (event instanceof TextChannelCreateEvent)
-            onTextChannelCreate((TextChannelCreateEvent) event);
-        else if (event instanceof TextChannelUpdateNameEvent)
-            onTextChannelUpdateName((TextChannelUpdateNameEvent) event);
-        else if (event instanceof TextChannelUpdateTopicEvent)
-            onTextChannelUpdateTopic((TextChannelUpdateTopicEvent) event);
-        else if (event instanceof TextChannelUpdatePositionEvent)
-            onTextChannelUpdatePosition((TextChannelUpdatePositionEvent) event);
-        else if (event instanceof TextChannelDeleteEvent)
-            onTextChannelDelete((TextChannelDeleteEvent) event);
-        else if (event instanceof TextChannelUpdatePermissionsEvent)
-            onTextChannelUpdatePermissions((TextChannelUpdatePermissionsEvent) event);
-
-        //VoiceChannel Events
-        else if (event instanceof VoiceChannelCreateEvent)
-            onVoiceChannelCreate((VoiceChannelCreateEvent) event);
-        else if (event instanceof VoiceChannelUpdateNameEvent)
-            onVoiceChannelUpdateName((VoiceChannelUpdateNameEvent) event);
-        else if (event instanceof VoiceChannelUpdatePositionEvent)
-            onVoiceChannelUpdatePosition((VoiceChannelUpdatePositionEvent) event);
-        else if (event instanceof VoiceChannelUpdatePermissionsEvent)
-            onVoiceChannelUpdatePermissions((VoiceChannelUpdatePermissionsEvent) event);
-        else if (event instanceof VoiceChannelDeleteEvent)
-            onVoiceChannelDelete((VoiceChannelDeleteEvent) event);
+        {
+            //JDA Events
+            handler(ReadyEvent.class, ListenerAdapter::onReady),
+            //Message Events
+            //Guild (TextChannel) Message Events
+            handler(GuildMessageReceivedEvent.class, ListenerAdapter::onGuildMessageReceived),
+            handler(GuildMessageAcknowledgedEvent.class, ListenerAdapter::onGuildMessageAcknowledged),
+            handler(GuildMessageUpdateEvent.class, ListenerAdapter::onGuildMessageUpdate),
+            handler(GuildMessageDeleteEvent.class, ListenerAdapter::onGuildMessageDelete),
+            handler(GuildMessageEmbedEvent.class, ListenerAdapter::onGuildMessageEmbed),
+            //Private Message Events
+            handler(PrivateMessageReceivedEvent.class, ListenerAdapter::onPrivateMessageReceived),
+            handler(PrivateMessageAcknowledgedEvent.class, ListenerAdapter::onPrivateMessageAcknowledged),
+            handler(PrivateMessageUpdateEvent.class, ListenerAdapter::onPrivateMessageUpdate),
+            handler(PrivateMessageDeleteEvent.class, ListenerAdapter::onPrivateMessageDelete),
+            handler(PrivateMessageEmbedEvent.class, ListenerAdapter::onPrivateMessageEmbed),
+            //Combined Message Events (Combines Guild and Private message into 1 event)
+            handler(MessageReceivedEvent.class, ListenerAdapter::onMessageReceived),
+            handler(MessageAcknowledgedEvent.class, ListenerAdapter::onMessageAcknowledged),
+            handler(MessageUpdateEvent.class, ListenerAdapter::onMessageUpdate),
+            handler(MessageDeleteEvent.class, ListenerAdapter::onMessageDelete),
+            handler(MessageEmbedEvent.class, ListenerAdapter::onMessageEmbed),
+            //Invite Messages
+            handler(InviteReceivedEvent.class, ListenerAdapter::onInviteReceived),
+            //User Events
+            handler(UserNameUpdateEvent.class, ListenerAdapter::onUserNameUpdate),
+            handler(UserAvatarUpdateEvent.class, ListenerAdapter::onUserAvatarUpdate),
+            handler(UserGameUpdateEvent.class, ListenerAdapter::onUserGameUpdate),
+            handler(UserOnlineStatusUpdateEvent.class, ListenerAdapter::onUserOnlineStatusUpdate),
+            handler(UserTypingEvent.class, ListenerAdapter::onUserTyping),
+            //Must be after all the others because they are subclasses of the Generic.
+            handler(GenericUserEvent.class, ListenerAdapter::onGenericUserEvent),
+            //TextChannel Events
+            handler(TextChannelCreateEvent.class, ListenerAdapter::onTextChannelCreate),
+            handler(TextChannelUpdateNameEvent.class, ListenerAdapter::onTextChannelUpdateName),
+            handler(TextChannelUpdateTopicEvent.class, ListenerAdapter::onTextChannelUpdateTopic),
+            handler(TextChannelUpdatePositionEvent.class, ListenerAdapter::onTextChannelUpdatePosition),
+            handler(TextChannelDeleteEvent.class, ListenerAdapter::onTextChannelDelete),
+            handler(TextChannelUpdatePermissionsEvent.class, ListenerAdapter::onTextChannelUpdatePermissions),
+            //VoiceChannel Events
+            handler(VoiceChannelCreateEvent.class, ListenerAdapter::onVoiceChannelCreate),
+            handler(VoiceChannelUpdateNameEvent.class, ListenerAdapter::onVoiceChannelUpdateName),
+            handler(VoiceChannelUpdatePositionEvent.class, ListenerAdapter::onVoiceChannelUpdatePosition),
+            handler(VoiceChannelUpdatePermissionsEvent.class, ListenerAdapter::onVoiceChannelUpdatePermissions),
+            handler(VoiceChannelDeleteEvent.class, ListenerAdapter::onVoiceChannelDelete),
+            //PrivateChannel Events
+            handler(PrivateChannelCreateEvent.class, ListenerAdapter::onPrivateChannelCreate),
+            //Guild Events
+            handler(GuildJoinEvent.class, ListenerAdapter::onGuildJoin),
+            handler(GuildUpdateEvent.class, ListenerAdapter::onGuildUpdate),
+            handler(GuildLeaveEvent.class, ListenerAdapter::onGuildLeave),
+            handler(GuildMemberJoinEvent.class, ListenerAdapter::onGuildMemberJoin),
+            handler(GuildMemberBanEvent.class, ListenerAdapter::onGuildMemberBan),
+            handler(GuildMemberUnbanEvent.class, ListenerAdapter::onGuildMemberUnban),
+            handler(GuildMemberRoleAddEvent.class, ListenerAdapter::onGuildMemberRoleAdd),
+            handler(GuildMemberRoleRemoveEvent.class, ListenerAdapter::onGuildMemberRoleRemove),
+            handler(GuildRoleCreateEvent.class, ListenerAdapter::onGuildRoleCreate),
+            handler(GuildRoleDeleteEvent.class, ListenerAdapter::onGuildRoleDelete),
+            //GuildRoleUpdateEvents
+            handler(GuildRoleUpdateNameEvent.class, ListenerAdapter::onGuildRoleUpdateName),
+            handler(GuildRoleUpdateColorEvent.class, ListenerAdapter::onGuildRoleUpdateColor),
+            handler(GuildRoleUpdatePositionEvent.class, ListenerAdapter::onGuildRoleUpdatePosition),
+            handler(GuildRoleUpdatePermissionEvent.class, ListenerAdapter::onGuildRoleUpdatePermission),
+            handler(GuildRoleUpdateGroupedEvent.class, ListenerAdapter::onGuildRoleUpdateGrouped),
+            //Voice Events
+            handler(VoiceSelfMuteEvent.class, ListenerAdapter::onVoiceSelfMute),
+            handler(VoiceServerMuteEvent.class, ListenerAdapter::onVoiceServerMute),
+            handler(VoiceSelfDeafEvent.class, ListenerAdapter::onVoiceSelfDeaf),
+            handler(VoiceServerDeafEvent.class, ListenerAdapter::onVoiceServerDeaf),
+            handler(VoiceJoinEvent.class, ListenerAdapter::onVoiceJoin),
+            handler(VoiceLeaveEvent.class, ListenerAdapter::onVoiceLeave)
+        },
+        {
+            //Leave needs to be checked in a separate if-statement so that the Ban and Kick events will also fire this.
+            handler(GuildMemberLeaveEvent.class, ListenerAdapter::onGuildMemberLeave)
+        },
+        {
+            //Grouped Mute/Deaf events
+            handler(VoiceMuteEvent.class, ListenerAdapter::onVoiceMute),
+            handler(VoiceDeafEvent.class, ListenerAdapter::onVoiceDeaf)
+        },
+        {
+            //Single GuildRoleUpdate event
+            handler(GuildRoleUpdateEvent.class, ListenerAdapter::onGuildRoleUpdate)
+        },
+        {
+            //Generic Events
+            //Start a new if statement so that these are no overridden by the above events.
+            handler(GenericPrivateMessageEvent.class, ListenerAdapter::onGenericPrivateMessage),
+            handler(GenericGuildMessageEvent.class, ListenerAdapter::onGenericGuildMessage),
+            handler(GenericTextChannelUpdateEvent.class, ListenerAdapter::onGenericTextChannelUpdate),
+            handler(GenericVoiceChannelUpdateEvent.class, ListenerAdapter::onGenericVoiceChannelUpdate),
+            handler(GenericGuildMemberEvent.class, ListenerAdapter::onGenericGuildMember),
+            handler(GenericVoiceEvent.class, ListenerAdapter::onGenericVoice),
+            handler(GenericGuildRoleUpdateEvent.class, ListenerAdapter::onGenericGuildRoleUpdate)
+        },
+        {
+            //Generic events that have generic subclasses (the subclasses as above).
+            handler(GenericGuildEvent.class, ListenerAdapter::onGenericGuild),
+            handler(GenericTextChannelEvent.class, ListenerAdapter::onGenericTextChannel),
+            handler(GenericVoiceChannelEvent.class, ListenerAdapter::onGenericVoiceChannel),
+            handler(GenericMessageEvent.class, ListenerAdapter::onGenericMessage)
+        }
+    };
+    //Listener class -> (Event class -> Handlers of all chains that match it and are overridden by the listener class).
+    //Resolved once per listener and event class, so dispatching doesn't depend on the amount of event types.
+    private static final ClassValue<ClassValue<Handler[]>> DISPATCH = new ClassValue<ClassValue<Handler[]>>()
+    {
+        @Override
+        protected ClassValue<Handler[]> computeValue(Class<?> listenerClass)
+        {
+            return new ClassValue<Handler[]>()
+            {
+                @Override
+                protected Handler[] computeValue(Class<?> eventClass)
+                {
+                    return resolve(listenerClass, eventClass);
+                }
+            };
+        }
+    };
 
-        //PrivateChannel Events
-        else if (event instanceof PrivateChannelCreateEvent)
-            onPrivateChannelCreate((PrivateChannelCreateEvent) event);
+    //Listener class -> whether it overrides onEvent, in which case it might handle any event itself.
+    private static final ClassValue<Boolean> OVERRIDES_ON_EVENT = new ClassValue<Boolean>()
+    {
+        @Override
+        protected Boolean computeValue(Class<?> listenerClass)
+        {
+            try
+            {
+                return listenerClass.getMethod("onEvent", Event.class).getDeclaringClass() != ListenerAdapter.class;
+            }
+            catch (NoSuchMethodException e)
+            {
+                return true;
+            }
+        }
+    };
 
-        //Guild Events
-        else if (event instanceof GuildJoinEvent)
-            onGuildJoin((GuildJoinEvent) event);
-        else if (event instanceof GuildUpdateEvent)
-            onGuildUpdate((GuildUpdateEvent) event);
-        else if (event instanceof GuildLeaveEvent)
-            onGuildLeave((GuildLeaveEvent) event);
-        else if (event instanceof GuildMemberJoinEvent)
-            onGuildMemberJoin((GuildMemberJoinEvent) event);
-        else if (event instanceof GuildMemberBanEvent)
-            onGuildMemberBan((GuildMemberBanEvent) event);
-        else if (event instanceof GuildMemberUnbanEvent)
-            onGuildMemberUnban((GuildMemberUnbanEvent) event);
-        else if (event instanceof GuildMemberRoleAddEvent)
-            onGuildMemberRoleAdd((GuildMemberRoleAddEvent) event);
-        else if (event instanceof GuildMemberRoleRemoveEvent)
-            onGuildMemberRoleRemove((GuildMemberRoleRemoveEvent) event);
-        else if (event instanceof GuildRoleCreateEvent)
-            onGuildRoleCreate((GuildRoleCreateEvent) event);
-        else if (event instanceof GuildRoleDeleteEvent)
-            onGuildRoleDelete((GuildRoleDeleteEvent) event);
+    private final ClassValue<Handler[]> dispatch = DISPATCH.get(getClass());
 
-        //GuildRoleUpdateEvents
-        else if (event instanceof GuildRoleUpdateNameEvent)
-            onGuildRoleUpdateName(((GuildRoleUpdateNameEvent) event));
-        else if (event instanceof GuildRoleUpdateColorEvent)
-            onGuildRoleUpdateColor(((GuildRoleUpdateColorEvent) event));
-        else if (event instanceof GuildRoleUpdatePositionEvent)
-            onGuildRoleUpdatePosition(((GuildRoleUpdatePositionEvent) event));
-        else if (event instanceof GuildRoleUpdatePermissionEvent)
-            onGuildRoleUpdatePermission(((GuildRoleUpdatePermissionEvent) event));
-        else if (event instanceof GuildRoleUpdateGroupedEvent)
-            onGuildRoleUpdateGrouped(((GuildRoleUpdateGroupedEvent) event));
+    @Override
+    public void onEvent(Event event)
+    {
+        for (Handler handler : dispatch.get(event.getClass()))
+        {
+            handler.method.accept(this, event);
+        }
+    }
 
-        //Voice Events
-        else if (event instanceof VoiceSelfMuteEvent)
-            onVoiceSelfMute((VoiceSelfMuteEvent) event);
-        else if (event instanceof VoiceServerMuteEvent)
-            onVoiceServerMute((VoiceServerMuteEvent) event);
-        else if (event instanceof VoiceSelfDeafEvent)
-            onVoiceSelfDeaf((VoiceSelfDeafEvent) event);
-        else if (event instanceof VoiceServerDeafEvent)
-            onVoiceServerDeaf((VoiceServerDeafEvent) event);
-        else if (event instanceof VoiceJoinEvent)
-            onVoiceJoin((VoiceJoinEvent) event);
-        else if (event instanceof VoiceLeaveEvent)
-            onVoiceLeave((VoiceLeaveEvent) event);
+    /**
+     * Whether this listener overrides any method that is called for events of the provided type.<br>
+     * A subclass that overrides {@link #onEvent(net.dv8tion.jda.events.Event)} itself is assumed to handle every type.
+     *
+     * @param eventClass
+     *          The type of the event.
+     * @return
+     *      True, if {@link #onEvent(net.dv8tion.jda.events.Event)} is overridden or would call an overridden method for this type.
+     */
+    boolean handles(Class<? extends Event> eventClass)
+    {
+        return OVERRIDES_ON_EVENT.get(getClass()) || dispatch.get(eventClass).length > 0;
+    }
 
-        //Leave needs to be checked in a separate if-statement so that the Ban and Kick events will also fire this.
-        if (event instanceof GuildMemberLeaveEvent)
-            onGuildMemberLeave((GuildMemberLeaveEvent) event);
+    private static Handler[] resolve(Class<?> listenerClass, Class<?> eventClass)
+    {
+        List<Handler> handlers = new ArrayList<>();
+        for (Handler[] chain : CHAINS)
+        {
+            for (Handler handler : chain)
+            {
+                if (handler.type.isAssignableFrom(eventClass))
+                {
+                    //Methods that aren't overridden are empty, there is no need to call them.
+                    if (isOverridden(listenerClass, handler.type))
+                        handlers.add(handler);
+                    break;
+                }
+            }
+        }
+        return handlers.toArray(new Handler[handlers.size()]);
+    }
 
-        //Grouped Mute/Deaf events
-        if (event instanceof VoiceMuteEvent)
-            onVoiceMute((VoiceMuteEvent) event);
-        else if (event instanceof VoiceDeafEvent)
-            onVoiceDeaf((VoiceDeafEvent) event);
+    private static boolean isOverridden(Class<?> listenerClass, Class<?> eventType)
+    {
+        //Every on... method of this class takes a different event type, so it is identified by its parameter.
+        for (Method method : ListenerAdapter.class.getDeclaredMethods())
+        {
+            Class<?>[] params = method.getParameterTypes();
+            if (method.getName().startsWith("on") && params.length == 1 && params[0] == eventType)
+            {
+                try
+                {
+                    return listenerClass.getMethod(method.getName(), eventType).getDeclaringClass() != ListenerAdapter.class;
+                }
+                catch (NoSuchMethodException e)
+                {
+                    return true;
+                }
+            }
+        }
+        return true;
+    }
 
-        //Single GuildRoleUpdate event
-        if (event instanceof GuildRoleUpdateEvent)
-            onGuildRoleUpdate(((GuildRoleUpdateEvent) event));
+    @SuppressWarnings("unchecked")
+    private static <T extends Event> Handler handler(Class<T> type, BiConsumer<ListenerAdapter, T> method)
+    {
+        //Safe, as a Handler is only ever invoked with events of its type.
+        return new Handler(type, (BiConsumer<ListenerAdapter, Event>) method);
+    }
 
-        //Generic Events
-        //Start a new if statement so that these are no overridden by the above events.
-        if (event instanceof GenericPrivateMessageEvent)
-            onGenericPrivateMessage((GenericPrivateMessageEvent) event);
-        else if (event instanceof GenericGuildMessageEvent)
-            onGenericGuildMessage((GenericGuildMessageEvent) event);
-        else if (event instanceof GenericTextChannelUpdateEvent)
-            onGenericTextChannelUpdate((GenericTextChannelUpdateEvent) event);
-        else if (event instanceof GenericVoiceChannelUpdateEvent)
-            onGenericVoiceChannelUpdate((GenericVoiceChannelUpdateEvent) event);
-        else if (event instanceof GenericGuildMemberEvent)
-            onGenericGuildMember((GenericGuildMemberEvent) event);
-        else if (event instanceof GenericVoiceEvent)
-            onGenericVoice((GenericVoiceEvent) event);
-        else if (event instanceof GenericGuildRoleUpdateEvent)
-            onGenericGuildRoleUpdate(((GenericGuildRoleUpdateEvent) event));
+    private static final class Handler
+    {
+        private final Class<?> type;
+        private final BiConsumer<ListenerAdapter, Event> method;
 
-        //Generic events that have generic subclasses (the subclasses as above).
-        if (event instanceof GenericGuildEvent)
-            onGenericGuild((GenericGuildEvent) event);
-        else if (event instanceof GenericTextChannelEvent)
-            onGenericTextChannel((GenericTextChannelEvent) event);
-        else if (event instanceof GenericVoiceChannelEvent)
-            onGenericVoiceChannel((GenericVoiceChannelEvent) event);
-        else if (event instanceof GenericMessageEvent)
-            onGenericMessage((GenericMessageEvent) event);
+        private Handler(Class<?> type, BiConsumer<ListenerAdapter, Event> method)
+        {
+            this.type = type;
+            this.method = method;
+        }
     }
 }
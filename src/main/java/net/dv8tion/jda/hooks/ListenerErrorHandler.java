@@ -0,0 +1,40 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.hooks;
+
+import net.dv8tion.jda.events.Event;
+
+/**
+ * Handles exceptions thrown by listeners.<br>
+ * Set with {@link net.dv8tion.jda.hooks.EventManager#setErrorHandler(ListenerErrorHandler)} or
+ * {@link net.dv8tion.jda.JDABuilder#setListenerErrorHandler(ListenerErrorHandler)}.
+ * A failing listener never keeps the other listeners from receiving the event.
+ */
+public interface ListenerErrorHandler
+{
+    /**
+     * Called on the thread that dispatched the event, after the listener failed and before the next listener is called.
+     *
+     * @param listener
+     *          The listener as it was registered.
+     * @param event
+     *          The event the listener failed on.
+     * @param error
+     *          The thrown exception. With an {@link net.dv8tion.jda.hooks.EventManager#setExecutor(java.util.concurrent.Executor) Executor}
+     *          this includes {@link java.lang.VirtualMachineError VirtualMachineErrors} like a StackOverflowError.
+     */
+    void onError(Object listener, Event event, Throwable error);
+}
@@ -0,0 +1,249 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.hooks;
+
+import net.dv8tion.jda.events.Event;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long each listener takes for each event type.<br>
+ * Set it with {@link net.dv8tion.jda.hooks.EventManager#setProfiler(ListenerProfiler)} or
+ * {@link net.dv8tion.jda.JDABuilder#setListenerProfiler(ListenerProfiler)}. Without a profiler listeners are not timed at all.
+ * <p>
+ * For every listener and event type the invocation count, total and maximum time and the amount of thrown exceptions
+ * are collected. Only actual invocations are counted, events rejected by an {@link net.dv8tion.jda.hooks.EventFilter EventFilter}
+ * are not. The statistics of a listener are dropped once it is unregistered. {@link #getSnapshot()} returns the current values. Listeners exceeding the
+ * {@link #setBudget(long, java.util.concurrent.TimeUnit) budget} while running on the thread that reads from Discord
+ * (that is, without an {@link net.dv8tion.jda.hooks.EventManager#setExecutor(java.util.concurrent.Executor) Executor})
+ * are reported to the {@link #setSlowListenerHandler(SlowListenerHandler) SlowListenerHandler}.
+ */
+public class ListenerProfiler
+{
+    private final Map<Key, Counter> counters = new ConcurrentHashMap<>();
+    private volatile long budgetNanos = TimeUnit.MILLISECONDS.toNanos(50);
+    private volatile SlowListenerHandler slowListenerHandler = (listener, event, nanos) ->
+            System.err.println("Listener " + listener + " took " + TimeUnit.NANOSECONDS.toMillis(nanos)
+                    + "ms for " + event.getClass().getSimpleName() + " on the main thread.");
+
+    /**
+     * Sets how long a listener may take for one event on the thread reading from Discord before it is reported.
+     * Default: 50ms
+     *
+     * @param budget
+     *          The budget. 0 or less disables the reports.
+     * @param unit
+     *          The unit of the budget.
+     * @return
+     *      This profiler. Useful for chaining.
+     */
+    public ListenerProfiler setBudget(long budget, TimeUnit unit)
+    {
+        this.budgetNanos = unit.toNanos(budget);
+        return this;
+    }
+
+    /**
+     * Sets the callback for listeners exceeding the budget. By default they are printed to System.err.
+     *
+     * @param slowListenerHandler
+     *          The callback or null to not report slow listeners.
+     * @return
+     *      This profiler. Useful for chaining.
+     */
+    public ListenerProfiler setSlowListenerHandler(SlowListenerHandler slowListenerHandler)
+    {
+        this.slowListenerHandler = slowListenerHandler;
+        return this;
+    }
+
+    /**
+     * The statistics of all listener and event type combinations recorded so far, sorted by total time, highest first.
+     *
+     * @return
+     *      Unmodifiable list of the statistics at the time of the call.
+     */
+    public List<Stats> getSnapshot()
+    {
+        List<Stats> snapshot = new ArrayList<>(counters.size());
+        counters.forEach((key, counter) -> snapshot.add(new Stats(key.listener, key.eventType, counter)));
+        snapshot.sort((s1, s2) -> Long.compare(s2.getTotalNanos(), s1.getTotalNanos()));
+        return Collections.unmodifiableList(snapshot);
+    }
+
+    /**
+     * Removes all recorded statistics.
+     */
+    public void reset()
+    {
+        counters.clear();
+    }
+
+    //Called when the listener is unregistered, so the statistics don't keep it from being collected.
+    void remove(Object listener)
+    {
+        counters.keySet().removeIf(key -> key.listener == listener);
+    }
+
+    void record(Object listener, Event event, long nanos, boolean failed, boolean mainThread)
+    {
+        Counter counter = counters.computeIfAbsent(new Key(listener, event.getClass()), k -> new Counter());
+        counter.count.increment();
+        counter.totalNanos.add(nanos);
+        counter.maxNanos.accumulateAndGet(nanos, Math::max);
+        if (failed)
+            counter.exceptions.increment();
+
+        SlowListenerHandler handler = slowListenerHandler;
+        long budget = budgetNanos;
+        if (mainThread && handler != null && budget > 0 && nanos > budget)
+        {
+            try
+            {
+                handler.onSlowListener(listener, event, nanos);
+            }
+            catch (RuntimeException e)
+            {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Callback for listeners exceeding the budget of a {@link net.dv8tion.jda.hooks.ListenerProfiler ListenerProfiler}.
+     */
+    public interface SlowListenerHandler
+    {
+        /**
+         * Called after the listener finished, on the thread that dispatched the event.
+         *
+         * @param listener
+         *          The listener as it was registered.
+         * @param event
+         *          The event that took too long.
+         * @param nanos
+         *          The time the listener took in nanoseconds.
+         */
+        void onSlowListener(Object listener, Event event, long nanos);
+    }
+
+    /**
+     * The statistics of one listener for one event type.
+     */
+    public static class Stats
+    {
+        private final Object listener;
+        private final Class<? extends Event> eventType;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long exceptions;
+
+        private Stats(Object listener, Class<? extends Event> eventType, Counter counter)
+        {
+            this.listener = listener;
+            this.eventType = eventType;
+            this.count = counter.count.sum();
+            this.totalNanos = counter.totalNanos.sum();
+            this.maxNanos = counter.maxNanos.get();
+            this.exceptions = counter.exceptions.sum();
+        }
+
+        public Object getListener()
+        {
+            return listener;
+        }
+
+        public Class<? extends Event> getEventType()
+        {
+            return eventType;
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public long getTotalNanos()
+        {
+            return totalNanos;
+        }
+
+        public long getMaxNanos()
+        {
+            return maxNanos;
+        }
+
+        public long getAverageNanos()
+        {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+
+        public long getExceptions()
+        {
+            return exceptions;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Stats(" + listener + ", " + eventType.getSimpleName() + ", count: " + count
+                    + ", total: " + TimeUnit.NANOSECONDS.toMicros(totalNanos) + "us"
+                    + ", max: " + TimeUnit.NANOSECONDS.toMicros(maxNanos) + "us"
+                    + ", exceptions: " + exceptions + ")";
+        }
+    }
+
+    //Listeners are compared by identity, they might override equals.
+    private static final class Key
+    {
+        private final Object listener;
+        private final Class<? extends Event> eventType;
+
+        private Key(Object listener, Class<? extends Event> eventType)
+        {
+            this.listener = listener;
+            this.eventType = eventType;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return listener == key.listener && eventType == key.eventType;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * System.identityHashCode(listener) + eventType.hashCode();
+        }
+    }
+
+    private static final class Counter
+    {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder exceptions = new LongAdder();
+    }
+}
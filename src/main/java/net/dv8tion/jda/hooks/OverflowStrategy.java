@@ -0,0 +1,37 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.hooks;
+
+/**
+ * What an {@link net.dv8tion.jda.hooks.EventPublisher EventPublisher} does with a new event when the buffer of a
+ * subscriber is full because it requests events slower than Discord sends them.<br>
+ * None of these block the thread dispatching the events.
+ */
+public enum OverflowStrategy
+{
+    /**
+     * Discards the oldest buffered event to make room for the new one.
+     */
+    DROP_OLDEST,
+    /**
+     * Discards the new event and keeps the buffer as it is.
+     */
+    DROP_LATEST,
+    /**
+     * Cancels the subscription and calls {@link net.dv8tion.jda.hooks.EventSubscriber#onError(Throwable) onError}.
+     */
+    ERROR
+}
@@ -0,0 +1,242 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.hooks;
+
+import net.dv8tion.jda.events.Event;
+import net.dv8tion.jda.events.user.UserGameUpdateEvent;
+import net.dv8tion.jda.events.user.UserOnlineStatusUpdateEvent;
+import net.dv8tion.jda.events.user.UserTypingEvent;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The subscription of one {@link net.dv8tion.jda.hooks.EventSubscriber EventSubscriber}.<br>
+ * Registered as listener for its event type. Events are buffered and delivered by whichever thread currently drains,
+ * either the one dispatching the event (the thread reading from Discord without an Executor) or the one calling
+ * {@link #request(long)}, never by two at once.
+ */
+class PublisherSubscription<T extends Event> implements EventSubscription, EventListener
+{
+    private final EventManager eventManager;
+    private final Class<T> type;
+    private final EventSubscriber<? super T> subscriber;
+    private final int bufferSize;
+    private final OverflowStrategy overflowStrategy;
+    private final boolean conflate;
+
+    private final AtomicInteger wip = new AtomicInteger();
+    //Guarded by this
+    private final Deque<Slot<T>> buffer = new ArrayDeque<>();
+    private final Map<Object, Slot<T>> conflated = new HashMap<>();
+    private long requested = 0;
+    private boolean cancelled = false;
+    private Throwable error = null;
+
+    PublisherSubscription(EventManager eventManager, Class<T> type, EventSubscriber<? super T> subscriber,
+                          int bufferSize, OverflowStrategy overflowStrategy, boolean conflate)
+    {
+        this.eventManager = eventManager;
+        this.type = type;
+        this.subscriber = subscriber;
+        this.bufferSize = bufferSize;
+        this.overflowStrategy = overflowStrategy;
+        this.conflate = conflate;
+    }
+
+    void start()
+    {
+        synchronized (this)
+        {
+            if (cancelled)
+                return;
+        }
+        eventManager.register(this, new EventFilter().type(type));
+        //cancel() might have run before we were registered.
+        synchronized (this)
+        {
+            if (!cancelled)
+                return;
+        }
+        eventManager.unregister(this);
+    }
+
+    @Override
+    public void onEvent(Event event)
+    {
+        if (!type.isInstance(event))
+            return;
+        T next = type.cast(event);
+        synchronized (this)
+        {
+            if (cancelled || error != null)
+                return;
+            Object key = conflate ? getConflationKey(event) : null;
+            Slot<T> slot = key == null ? null : conflated.get(key);
+            if (slot != null)
+            {
+                slot.event = merge(slot.event, next);
+            }
+            else
+            {
+                if (buffer.size() >= bufferSize)
+                {
+                    switch (overflowStrategy)
+                    {
+                        case DROP_LATEST:
+                            return;
+                        case DROP_OLDEST:
+                            Slot<T> oldest = buffer.poll();
+                            if (oldest.key != null)
+                                conflated.remove(oldest.key);
+                            break;
+                        case ERROR:
+                            error = new IllegalStateException("The buffer of " + bufferSize + " events overflowed. Subscriber: " + subscriber);
+                            break;
+                    }
+                }
+                if (error == null)
+                {
+                    slot = new Slot<>(key, next);
+                    buffer.add(slot);
+                    if (key != null)
+                        conflated.put(key, slot);
+                }
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void request(long n)
+    {
+        synchronized (this)
+        {
+            if (cancelled)
+                return;
+            if (n <= 0)
+                error = new IllegalArgumentException("The amount of requested events must be positive. Provided: " + n);
+            else
+                requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+        }
+        drain();
+    }
+
+    @Override
+    public void cancel()
+    {
+        synchronized (this)
+        {
+            if (cancelled)
+                return;
+            cancelled = true;
+            buffer.clear();
+            conflated.clear();
+        }
+        eventManager.unregister(this);
+    }
+
+    private void drain()
+    {
+        if (wip.getAndIncrement() != 0)
+            return;
+        do
+        {
+            while (true)
+            {
+                T next;
+                Throwable failure = null;
+                synchronized (this)
+                {
+                    if (cancelled)
+                        break;
+                    if (error != null)
+                    {
+                        failure = error;
+                        next = null;
+                    }
+                    else
+                    {
+                        if (requested == 0 || buffer.isEmpty())
+                            break;
+                        Slot<T> slot = buffer.poll();
+                        if (slot.key != null)
+                            conflated.remove(slot.key);
+                        if (requested != Long.MAX_VALUE)
+                            requested--;
+                        next = slot.event;
+                    }
+                }
+                if (failure != null)
+                {
+                    cancel();
+                    subscriber.onError(failure);
+                    break;
+                }
+                try
+                {
+                    subscriber.onNext(next);
+                }
+                catch (RuntimeException e)
+                {
+                    //Subscribers must not throw, treat it like a cancellation.
+                    cancel();
+                    e.printStackTrace();
+                }
+            }
+        }
+        while (wip.decrementAndGet() != 0);
+    }
+
+    //The replacing event keeps the previous value of the replaced one, like all updates in between never happened.
+    private T merge(T replaced, T next)
+    {
+        Event merged = next;
+        if (next.getClass() == UserOnlineStatusUpdateEvent.class)
+            merged = new UserOnlineStatusUpdateEvent(next.getJDA(), next.getResponseNumber(),
+                    ((UserOnlineStatusUpdateEvent) next).getUser(), ((UserOnlineStatusUpdateEvent) replaced).getPreviousOnlineStatus());
+        else if (next.getClass() == UserGameUpdateEvent.class)
+            merged = new UserGameUpdateEvent(next.getJDA(), next.getResponseNumber(),
+                    ((UserGameUpdateEvent) next).getUser(), ((UserGameUpdateEvent) replaced).getPreviousGameId());
+        return type.cast(merged);
+    }
+
+    private static Object getConflationKey(Event event)
+    {
+        if (event instanceof UserTypingEvent)
+        {
+            UserTypingEvent e = (UserTypingEvent) event;
+            return Arrays.asList(UserTypingEvent.class, e.getUser(), e.getChannel());
+        }
+        if (event instanceof UserOnlineStatusUpdateEvent)
+            return Arrays.asList(UserOnlineStatusUpdateEvent.class, ((UserOnlineStatusUpdateEvent) event).getUser());
+        if (event instanceof UserGameUpdateEvent)
+            return Arrays.asList(UserGameUpdateEvent.class, ((UserGameUpdateEvent) event).getUser());
+        return null;
+    }
+
+    private static class Slot<T>
+    {
+        private final Object key;
+        private T event;
+
+        private Slot(Object key, T event)
+        {
+            this.key = key;
+            this.event = event;
+        }
+    }
+}
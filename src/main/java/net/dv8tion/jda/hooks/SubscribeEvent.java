@@ -0,0 +1,40 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.hooks;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a method of a listener object as event handler.<br>
+ * The method has to be public, non-static and take exactly one parameter, which is the type of
+ * {@link net.dv8tion.jda.events.Event Event} it subscribes to. It receives all events of that type, including its subclasses.
+ * <p>
+ * Objects with annotated methods are registered with
+ * {@link net.dv8tion.jda.JDA#addAnnotatedEventListener(Object) JDA.addAnnotatedEventListener(Object)}.
+ * <pre>{@code
+ * public class MyListener
+ * {
+ *     @SubscribeEvent
+ *     public void onMessage(MessageReceivedEvent event) { ... }
+ * }
+ * }</pre>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SubscribeEvent
+{
+}
@@ -113,7 +113,11 @@ public class WebSocketClient extends WebSocketAdapter
             keepAliveThread.start();
         }
 
+        api.getCacheLock().lock();
         try {
+            //Presence events of the EventCoalescer whose window is over are dispatched on this thread only.
+            if (api.getEventCoalescer() != null)
+                api.getEventCoalescer().dispatchDue();
             switch (type) {
                 case "READY":
                     new ReadyHandler(api, responseTotal).handle(content);
@@ -202,6 +206,10 @@ public class WebSocketClient extends WebSocketAdapter
             else
                 System.err.println(ex.getMessage());
         }
+        finally
+        {
+            api.getCacheLock().unlock();
+        }
     }
 
     @Override
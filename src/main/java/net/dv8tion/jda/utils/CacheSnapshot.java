@@ -0,0 +1,465 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.utils;
+
+import net.dv8tion.jda.JDA;
+import net.dv8tion.jda.OnlineStatus;
+import net.dv8tion.jda.Region;
+import net.dv8tion.jda.entities.*;
+import net.dv8tion.jda.entities.impl.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes the entity cache of a {@link net.dv8tion.jda.JDA JDA} instance (guilds, roles, channels,
+ * permission overrides, members and presences) into a compact binary snapshot and restores it again.
+ * <p>
+ * Loading a snapshot before login allows the cache to be used immediately on startup instead of waiting for
+ * the READY event to rebuild it. Once READY arrives the cached entities are updated in place and entities that
+ * no longer exist are dropped (see {@link net.dv8tion.jda.handle.ReadyHandler ReadyHandler}).
+ * <p>
+ * Voice states are not part of the snapshot, as READY does not provide them to reconcile against.<br>
+ * Snapshots are read through a memory-mapped buffer. They are only meant to be read by the same version of JDA
+ * that wrote them; snapshots of a different format version are rejected.
+ */
+public class CacheSnapshot
+{
+    private static final int MAGIC = 0x4A444153; //"JDAS"
+    private static final int VERSION = 1;
+    private static final int LOCK_TIMEOUT = 5;
+
+    /**
+     * Writes the current entity cache of the provided {@link net.dv8tion.jda.JDA JDA} instance to the provided file.<br>
+     * The snapshot is first written to a temporary file which then replaces the provided file, so an interrupted
+     * write never corrupts an existing snapshot.<br>
+     * The WebSocket thread is blocked while the cache is written. If it is busy for longer than
+     * {@value #LOCK_TIMEOUT} seconds (e.g. a listener that never returns), no snapshot is written.
+     *
+     * @param api
+     *          The JDA instance whose cache should be saved.
+     * @param file
+     *          The file to write the snapshot to.
+     * @throws IOException
+     *          If the snapshot could not be written or the cache could not be locked in time.
+     */
+    public static void save(JDA api, Path file) throws IOException
+    {
+        JDAImpl jda = (JDAImpl) api;
+        try
+        {
+            if (!jda.getCacheLock().tryLock(LOCK_TIMEOUT, TimeUnit.SECONDS))
+                throw new IOException("Timed out waiting for the WebSocket thread to release the cache.");
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the WebSocket thread to release the cache.");
+        }
+        try
+        {
+            write(jda, file);
+        }
+        finally
+        {
+            jda.getCacheLock().unlock();
+        }
+    }
+
+    private static void write(JDAImpl jda, Path file) throws IOException
+    {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            SelfInfoImpl self = (SelfInfoImpl) jda.getSelfInfo();
+            out.writeBoolean(self != null);
+            if (self != null)
+            {
+                writeString(out, self.getId());
+                writeString(out, self.getEmail());
+                out.writeBoolean(self.isVerified());
+            }
+
+            Map<String, User> users = jda.getUserMap();
+            out.writeInt(users.size());
+            for (User user : users.values())
+            {
+                writeString(out, user.getId());
+                writeString(out, user.getUsername());
+                writeString(out, user.getDiscriminator());
+                writeString(out, user.getAvatarId());
+                writeString(out, user.getCurrentGame());
+                writeString(out, user.getOnlineStatus().name());
+            }
+
+            Map<String, Guild> guilds = jda.getGuildMap();
+            out.writeInt(guilds.size());
+            for (Guild g : guilds.values())
+            {
+                writeGuild(out, (GuildImpl) g);
+            }
+
+            Map<String, PrivateChannel> privateChannels = jda.getPmChannelMap();
+            out.writeInt(privateChannels.size());
+            for (PrivateChannel channel : privateChannels.values())
+            {
+                writeString(out, channel.getId());
+                writeString(out, channel.getUser().getId());
+            }
+
+            Map<String, String> offlinePms = jda.getOffline_pms();
+            out.writeInt(offlinePms.size());
+            for (Map.Entry<String, String> entry : offlinePms.entrySet())
+            {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Loads a snapshot previously written by {@link #save(net.dv8tion.jda.JDA, java.nio.file.Path)} into the
+     * entity cache of the provided {@link net.dv8tion.jda.JDA JDA} instance.<br>
+     * This should be called before the instance logs in, while its cache is still empty. If the snapshot cannot be read
+     * completely (e.g. a truncated file), the cache is cleared again so no partial state is left behind.
+     *
+     * @param api
+     *          The JDA instance whose cache should be populated.
+     * @param file
+     *          The snapshot file.
+     * @throws IOException
+     *          If the file could not be read.
+     * @throws IllegalArgumentException
+     *          If the file is not a snapshot or was written by an incompatible version.
+     */
+    public static void load(JDA api, Path file) throws IOException
+    {
+        JDAImpl jda = (JDAImpl) api;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            read(jda, file, channel);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            clear(jda);
+            throw e;
+        }
+    }
+
+    private static void read(JDAImpl jda, Path file, FileChannel channel) throws IOException
+    {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC)
+            throw new IllegalArgumentException("The provided file is not a JDA cache snapshot: " + file);
+        int version = buffer.getInt();
+        if (version != VERSION)
+            throw new IllegalArgumentException("The provided snapshot has an unsupported version. Expected: " + VERSION + " Found: " + version);
+
+        StringPool pool = jda.getStringPool();
+        if (buffer.get() != 0)
+        {
+            SelfInfoImpl self = new SelfInfoImpl(readString(buffer), readString(buffer), jda);
+            self.setVerified(buffer.get() != 0);
+            jda.setSelfInfo(self);
+            jda.getUserMap().put(self.getId(), self);
+        }
+
+        int userCount = buffer.getInt();
+        for (int i = 0; i < userCount; i++)
+        {
+            String id = readString(buffer);
+            UserImpl user = (UserImpl) jda.getUserMap().get(id);
+            if (user == null)
+            {
+                user = new UserImpl(id, jda);
+                jda.getUserMap().put(id, user);
+            }
+            String oldName = user.getUsername();
+            user.setUserName(pool.get(readString(buffer)))
+                .setDiscriminator(readString(buffer))
+                .setAvatarId(readString(buffer))
+                .setCurrentGame(pool.get(readString(buffer)))
+                .setOnlineStatus(OnlineStatus.valueOf(readString(buffer)));
+            jda.updateUserName(user, oldName);
+        }
+
+        int guildCount = buffer.getInt();
+        for (int i = 0; i < guildCount; i++)
+        {
+            readGuild(buffer, jda);
+        }
+
+        int privateCount = buffer.getInt();
+        for (int i = 0; i < privateCount; i++)
+        {
+            String channelId = readString(buffer);
+            String userId = readString(buffer);
+            UserImpl user = (UserImpl) jda.getUserMap().get(userId);
+            //setPrivateChannel also registers the channel in the pm channel map, like EntityBuilder does.
+            if (user != null)
+                user.setPrivateChannel(new PrivateChannelImpl(channelId, user, jda));
+            else
+                jda.getOffline_pms().put(userId, channelId);
+        }
+
+        int offlineCount = buffer.getInt();
+        for (int i = 0; i < offlineCount; i++)
+        {
+            jda.getOffline_pms().put(readString(buffer), readString(buffer));
+        }
+    }
+
+    //Drops everything a failed load put into the cache.
+    private static void clear(JDAImpl jda)
+    {
+        for (User user : jda.getUserMap().values())
+        {
+            jda.getUserNameIndex().remove(user);
+            ((UserImpl) user).detach();
+        }
+        jda.getUserMap().clear();
+        jda.getGuildMap().clear();
+        jda.getChannelMap().clear();
+        jda.getVoiceChannelMap().clear();
+        jda.getPmChannelMap().clear();
+        jda.getOffline_pms().clear();
+        jda.setSelfInfo(null);
+    }
+
+    private static void writeGuild(DataOutputStream out, GuildImpl guild) throws IOException
+    {
+        writeString(out, guild.getId());
+        writeString(out, guild.getName());
+        writeString(out, guild.getIconId());
+        writeString(out, guild.getAfkChannelId());
+        writeString(out, guild.getOwnerId());
+        out.writeInt(guild.getAfkTimeout());
+        writeString(out, guild.getRegion().getKey());
+
+        out.writeInt(guild.getRolesMap().size());
+        for (Role r : guild.getRolesMap().values())
+        {
+            RoleImpl role = (RoleImpl) r;
+            writeString(out, role.getId());
+            writeString(out, role.getName());
+            out.writeInt(role.getColor());
+            out.writeInt(role.getPosition());
+            out.writeInt(role.getPermissions());
+            out.writeBoolean(role.isManaged());
+            out.writeBoolean(role.isGrouped());
+        }
+        writeString(out, guild.getPublicRole() == null ? null : guild.getPublicRole().getId());
+
+        out.writeInt(guild.getUserRoles().size());
+        for (Map.Entry<User, List<Role>> entry : guild.getUserRoles().entrySet())
+        {
+            writeString(out, entry.getKey().getId());
+            out.writeInt(entry.getValue().size());
+            for (Role role : entry.getValue())
+            {
+                writeString(out, role.getId());
+            }
+        }
+
+        out.writeInt(guild.getTextChannelsMap().size());
+        for (TextChannel c : guild.getTextChannelsMap().values())
+        {
+            TextChannelImpl channel = (TextChannelImpl) c;
+            writeString(out, channel.getId());
+            writeString(out, channel.getName());
+            writeString(out, channel.getTopic());
+            out.writeInt(channel.getPosition());
+            writeOverrides(out, channel.getRolePermissionOverrides(), channel.getUserPermissionOverrides());
+        }
+
+        out.writeInt(guild.getVoiceChannelsMap().size());
+        for (VoiceChannel c : guild.getVoiceChannelsMap().values())
+        {
+            VoiceChannelImpl channel = (VoiceChannelImpl) c;
+            writeString(out, channel.getId());
+            writeString(out, channel.getName());
+            out.writeInt(channel.getPosition());
+            writeOverrides(out, channel.getRolePermissionOverrides(), channel.getUserPermissionOverrides());
+        }
+    }
+
+    private static void readGuild(ByteBuffer in, JDAImpl jda)
+    {
+        String id = readString(in);
+        GuildImpl guild = (GuildImpl) jda.getGuildMap().get(id);
+        if (guild == null)
+        {
+            guild = new GuildImpl(jda, id);
+            jda.getGuildMap().put(id, guild);
+        }
+        guild.setName(readString(in))
+            .setIconId(readString(in))
+            .setAfkChannelId(readString(in))
+            .setOwnerId(readString(in))
+            .setAfkTimeout(in.getInt())
+            .setRegion(Region.fromKey(readString(in)));
+
+        Map<String, Role> roles = guild.getRolesMap();
+        int roleCount = in.getInt();
+        for (int i = 0; i < roleCount; i++)
+        {
+            String roleId = readString(in);
+            RoleImpl role = (RoleImpl) roles.get(roleId);
+            if (role == null)
+            {
+                role = new RoleImpl(roleId, guild);
+                roles.put(roleId, role);
+            }
+            role.setName(readString(in))
+                .setColor(in.getInt())
+                .setPosition(in.getInt())
+                .setPermissions(in.getInt())
+                .setManaged(in.get() != 0)
+                .setGrouped(in.get() != 0);
+        }
+        String publicRoleId = readString(in);
+        if (publicRoleId != null)
+            guild.setPublicRole(roles.get(publicRoleId));
+
+        List<Role> memberRoles = new ArrayList<>();
+        int memberCount = in.getInt();
+        for (int i = 0; i < memberCount; i++)
+        {
+            User user = jda.getUserMap().get(readString(in));
+            int count = in.getInt();
+            memberRoles.clear();
+            for (int j = 0; j < count; j++)
+            {
+                Role role = roles.get(readString(in));
+                if (role != null)
+                    memberRoles.add(role);
+            }
+            if (user != null)
+                guild.setRolesForUser(user, memberRoles);
+        }
+
+        int textCount = in.getInt();
+        for (int i = 0; i < textCount; i++)
+        {
+            String channelId = readString(in);
+            TextChannelImpl channel = (TextChannelImpl) jda.getChannelMap().get(channelId);
+            if (channel == null)
+            {
+                channel = new TextChannelImpl(channelId, guild);
+                guild.getTextChannelsMap().put(channelId, channel);
+                jda.getChannelMap().put(channelId, channel);
+            }
+            channel.setName(readString(in))
+                .setTopic(readString(in))
+                .setPosition(in.getInt());
+            readOverrides(in, jda, guild, channel.getRolePermissionOverrides(), channel.getUserPermissionOverrides());
+        }
+
+        int voiceCount = in.getInt();
+        for (int i = 0; i < voiceCount; i++)
+        {
+            String channelId = readString(in);
+            VoiceChannelImpl channel = (VoiceChannelImpl) jda.getVoiceChannelMap().get(channelId);
+            if (channel == null)
+            {
+                channel = new VoiceChannelImpl(channelId, guild);
+                guild.getVoiceChannelsMap().put(channelId, channel);
+                jda.getVoiceChannelMap().put(channelId, channel);
+            }
+            channel.setName(readString(in))
+                .setPosition(in.getInt());
+            readOverrides(in, jda, guild, channel.getRolePermissionOverrides(), channel.getUserPermissionOverrides());
+        }
+    }
+
+    private static void writeOverrides(DataOutputStream out, Map<Role, PermissionOverride> roleOverrides, Map<User, PermissionOverride> userOverrides) throws IOException
+    {
+        out.writeInt(roleOverrides.size());
+        for (Map.Entry<Role, PermissionOverride> entry : roleOverrides.entrySet())
+        {
+            writeString(out, entry.getKey().getId());
+            out.writeInt(entry.getValue().getAllow());
+            out.writeInt(entry.getValue().getDeny());
+        }
+        out.writeInt(userOverrides.size());
+        for (Map.Entry<User, PermissionOverride> entry : userOverrides.entrySet())
+        {
+            writeString(out, entry.getKey().getId());
+            out.writeInt(entry.getValue().getAllow());
+            out.writeInt(entry.getValue().getDeny());
+        }
+    }
+
+    private static void readOverrides(ByteBuffer in, JDAImpl jda, GuildImpl guild, Map<Role, PermissionOverride> roleOverrides, Map<User, PermissionOverride> userOverrides)
+    {
+        int roleCount = in.getInt();
+        for (int i = 0; i < roleCount; i++)
+        {
+            Role role = guild.getRolesMap().get(readString(in));
+            PermissionOverride override = new PermissionOverride(in.getInt(), in.getInt());
+            if (role != null)
+                roleOverrides.put(role, override);
+        }
+        int userCount = in.getInt();
+        for (int i = 0; i < userCount; i++)
+        {
+            User user = jda.getUserMap().get(readString(in));
+            PermissionOverride override = new PermissionOverride(in.getInt(), in.getInt());
+            if (user != null)
+                userOverrides.put(user, override);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException
+    {
+        if (string == null)
+        {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in)
+    {
+        int length = in.getInt();
+        if (length == -1)
+            return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.utils;
+
+import net.dv8tion.jda.JDA;
+import net.dv8tion.jda.entities.Guild;
+import net.dv8tion.jda.entities.TextChannel;
+import net.dv8tion.jda.entities.impl.JDAImpl;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exports the message history of many text channels into a {@link net.dv8tion.jda.utils.MessageArchive MessageArchive}.
+ * <p>
+ * Channels are walked concurrently, each by one worker going back page by page and appending every page to the
+ * archive right away, so no history is kept in memory. The parallelism is also the maximum amount of concurrent
+ * requests, keep it low to stay within the rate limits of Discord. A rate limited page is requested again once the
+ * time Discord asks to wait is over.<br>
+ * Exports are resumable: channels that are completely archived are skipped, all others continue before their oldest
+ * archived message. Channels failing to export are printed and stay resumable, channels Discord refuses to return
+ * (e.g. missing access) are printed and skipped.
+ */
+public class HistoryExporter
+{
+    private static final int PAGE_SIZE = 100;
+
+    private final JDAImpl api;
+    private final MessageArchive archive;
+    private int parallelism = 2;
+
+    public HistoryExporter(JDA api, MessageArchive archive)
+    {
+        this.api = (JDAImpl) api;
+        this.archive = archive;
+    }
+
+    /**
+     * Sets the amount of channels exported at the same time. Default is 2.
+     *
+     * @param parallelism
+     *          The amount of channels, at least 1.
+     * @return
+     *      This HistoryExporter, useful for chaining.
+     */
+    public HistoryExporter setParallelism(int parallelism)
+    {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism has to be at least 1. Provided: " + parallelism);
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Exports all text channels of the Guild. Blocks until done.
+     *
+     * @param guild
+     *          The Guild to export.
+     * @return
+     *      The amount of newly archived messages.
+     * @throws InterruptedException
+     *          If interrupted while waiting, the running exports are stopped after their current page.
+     */
+    public long export(Guild guild) throws InterruptedException
+    {
+        return export(guild.getTextChannels());
+    }
+
+    /**
+     * Exports the given text channels. Blocks until done.
+     *
+     * @param channels
+     *          The channels to export.
+     * @return
+     *      The amount of newly archived messages.
+     * @throws InterruptedException
+     *          If interrupted while waiting, the running exports are stopped after their current page.
+     */
+    public long export(Collection<TextChannel> channels) throws InterruptedException
+    {
+        AtomicLong exported = new AtomicLong();
+        //Not interrupting the workers, an interrupt during a write would close the FileChannels of the archive.
+        AtomicBoolean cancelled = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, channels.size())), r ->
+        {
+            Thread thread = new Thread(r, "JDA HistoryExporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>(channels.size());
+            for (TextChannel channel : channels)
+                futures.add(pool.submit(() -> exportChannel(channel.getId(), exported, cancelled)));
+            for (Future<?> future : futures)
+            {
+                try
+                {
+                    future.get();
+                }
+                catch (ExecutionException e)
+                {
+                    e.getCause().printStackTrace();
+                }
+            }
+        }
+        finally
+        {
+            cancelled.set(true);
+            pool.shutdown();
+        }
+        return exported.get();
+    }
+
+    private void exportChannel(String channelId, AtomicLong exported, AtomicBoolean cancelled)
+    {
+        try
+        {
+            if (archive.isComplete(channelId))
+                return;
+            String before = archive.getLastId(channelId);
+            while (!cancelled.get())
+            {
+                JSONArray page = api.getRequester().getA("https://discordapp.com/api/channels/" + channelId
+                        + "/messages?limit=" + PAGE_SIZE + (before != null ? "&before=" + before : ""));
+                if (page == null)
+                {
+                    System.err.println("Could not retrieve the history of channel " + channelId + ", it can be resumed later.");
+                    return;
+                }
+                JSONObject error = getError(page);
+                if (error != null)
+                {
+                    if (error.has("retry_after"))
+                    {
+                        Thread.sleep(error.getLong("retry_after"));
+                        continue;
+                    }
+                    System.err.println("Skipping the history of channel " + channelId + ": " + error.optString("message", error.toString()));
+                    return;
+                }
+                archive.append(channelId, page);
+                exported.addAndGet(page.length());
+                if (page.length() < PAGE_SIZE)
+                {
+                    archive.setComplete(channelId);
+                    return;
+                }
+                before = page.getJSONObject(page.length() - 1).getString("id");
+            }
+        }
+        catch (IOException e)
+        {
+            System.err.println("Could not archive the history of channel " + channelId + ", it can be resumed later.");
+            e.printStackTrace();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //Unirest wraps error responses (e.g. 429 or 403) into an array holding the error object instead of messages.
+    private static JSONObject getError(JSONArray page)
+    {
+        if (page.length() != 1)
+            return null;
+        JSONObject object = page.optJSONObject(0);
+        if (object == null || object.has("id") || !(object.has("retry_after") || object.has("code")))
+            return null;
+        return object;
+    }
+}
@@ -0,0 +1,527 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.utils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only local archive of the message history of text channels, written by
+ * {@link net.dv8tion.jda.utils.HistoryExporter HistoryExporter}.
+ * <p>
+ * Every channel has two files in the archive directory. {@code <channelId>.dat} holds gzip compressed blocks of
+ * messages, newest first, as the history is walked backwards. {@code <channelId>.idx} holds one fixed-size entry per
+ * block with its position, message count and the id range it covers. Message ids contain their creation time,
+ * so the id index is also the time index and reads of a time range only decompress the blocks overlapping it.
+ * <p>
+ * A block is written before its index entry, so an interrupted write is discarded when the channel is opened again
+ * and the export continues after the oldest indexed message (see {@link #getLastId(String)}).
+ */
+public class MessageArchive
+{
+    private static final String DATA_SUFFIX = ".dat";
+    private static final String INDEX_SUFFIX = ".idx";
+    //offset, length, count, newest id, oldest id
+    private static final int ENTRY_SIZE = 8 + 4 + 4 + 8 + 8;
+
+    private final Path directory;
+    private final Map<String, ChannelFiles> channels = new ConcurrentHashMap<>();
+
+    /**
+     * Opens (or creates) the archive in the given directory.
+     *
+     * @param directory
+     *          The directory of the archive.
+     * @throws IOException
+     *          If the directory could not be created.
+     */
+    public MessageArchive(Path directory) throws IOException
+    {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * The ids of all channels with archived messages.
+     *
+     * @return
+     *      A new list of the channel ids.
+     * @throws IOException
+     *          If the archive directory could not be read.
+     */
+    public List<String> getChannelIds() throws IOException
+    {
+        List<String> ids = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + INDEX_SUFFIX))
+        {
+            for (Path path : stream)
+            {
+                String name = path.getFileName().toString();
+                ids.add(name.substring(0, name.length() - INDEX_SUFFIX.length()));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * The id of the oldest archived message of the channel, an export of the channel continues before it.
+     *
+     * @param channelId
+     *          The id of the channel.
+     * @return
+     *      The id or null if nothing of the channel is archived yet.
+     * @throws IOException
+     *          If the channel files could not be opened.
+     */
+    public String getLastId(String channelId) throws IOException
+    {
+        ChannelFiles files = open(channelId, false);
+        if (files == null)
+            return null;
+        synchronized (files)
+        {
+            return files.oldestId == 0 ? null : Long.toString(files.oldestId);
+        }
+    }
+
+    /**
+     * Whether the whole history of the channel is archived.
+     *
+     * @param channelId
+     *          The id of the channel.
+     * @return
+     *      true if the export of the channel reached its first message.
+     * @throws IOException
+     *          If the channel files could not be opened.
+     */
+    public boolean isComplete(String channelId) throws IOException
+    {
+        ChannelFiles files = open(channelId, false);
+        if (files == null)
+            return false;
+        synchronized (files)
+        {
+            return files.complete;
+        }
+    }
+
+    /**
+     * The amount of archived messages of the channel.
+     *
+     * @param channelId
+     *          The id of the channel.
+     * @return
+     *      The amount of messages.
+     * @throws IOException
+     *          If the channel files could not be opened.
+     */
+    public long getMessageCount(String channelId) throws IOException
+    {
+        ChannelFiles files = open(channelId, false);
+        if (files == null)
+            return 0;
+        synchronized (files)
+        {
+            return files.count;
+        }
+    }
+
+    /**
+     * Appends a page of messages as returned by the REST api (newest first), which has to be older than all
+     * messages of the channel archived so far.
+     *
+     * @param channelId
+     *          The id of the channel.
+     * @param messages
+     *          The message json objects.
+     * @throws IOException
+     *          If the block could not be written.
+     */
+    public void append(String channelId, JSONArray messages) throws IOException
+    {
+        if (messages.length() == 0)
+            return;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        long newestId = Long.parseLong(messages.getJSONObject(0).getString("id"));
+        long oldestId = Long.parseLong(messages.getJSONObject(messages.length() - 1).getString("id"));
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes)))
+        {
+            for (int i = 0; i < messages.length(); i++)
+                writeMessage(out, messages.getJSONObject(i));
+        }
+
+        ChannelFiles files = open(channelId, true);
+        synchronized (files)
+        {
+            if (files.complete)
+                throw new IllegalStateException("The channel " + channelId + " is already completely archived.");
+            if (files.oldestId != 0 && newestId >= files.oldestId)
+                throw new IllegalArgumentException("The messages have to be older than the archived ones. Provided: " + newestId);
+            writeBlock(files, bytes.toByteArray(), messages.length(), newestId, oldestId);
+            files.oldestId = oldestId;
+            files.count += messages.length();
+        }
+    }
+
+    /**
+     * Marks the channel as completely archived, no further messages can be appended.
+     *
+     * @param channelId
+     *          The id of the channel.
+     * @throws IOException
+     *          If the marker could not be written.
+     */
+    public void setComplete(String channelId) throws IOException
+    {
+        ChannelFiles files = open(channelId, true);
+        synchronized (files)
+        {
+            if (files.complete)
+                return;
+            //An empty block marks the end of the history.
+            writeBlock(files, new byte[0], 0, 0, 0);
+            files.complete = true;
+        }
+    }
+
+    /**
+     * Reads all archived messages of the channel, newest first.
+     *
+     * @param channelId
+     *          The id of the channel.
+     * @param consumer
+     *          Called for every message.
+     * @throws IOException
+     *          If the archive could not be read.
+     */
+    public void forEach(String channelId, Consumer<ArchivedMessage> consumer) throws IOException
+    {
+        forEach(channelId, 0, Long.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Reads the archived messages of the channel sent in the given time range, newest first.
+     * Only the blocks overlapping the range are decompressed.
+     *
+     * @param channelId
+     *          The id of the channel.
+     * @param from
+     *          The earliest time (inclusive) or null.
+     * @param to
+     *          The latest time (exclusive) or null.
+     * @param consumer
+     *          Called for every message in the range.
+     * @throws IOException
+     *          If the archive could not be read.
+     */
+    public void forEach(String channelId, OffsetDateTime from, OffsetDateTime to, Consumer<ArchivedMessage> consumer) throws IOException
+    {
+        forEach(channelId,
+                from == null ? 0 : MiscUtil.getIdForTime(from),
+                to == null ? Long.MAX_VALUE : MiscUtil.getIdForTime(to) - 1,
+                consumer);
+    }
+
+    private void forEach(String channelId, long minId, long maxId, Consumer<ArchivedMessage> consumer) throws IOException
+    {
+        ChannelFiles files = open(channelId, false);
+        if (files == null)
+            return;
+        ByteBuffer index;
+        synchronized (files)
+        {
+            index = ByteBuffer.allocate((int) files.index.size());
+            files.index.read(index, 0);
+        }
+        index.flip();
+        while (index.remaining() >= ENTRY_SIZE)
+        {
+            long offset = index.getLong();
+            int length = index.getInt();
+            int count = index.getInt();
+            long newestId = index.getLong();
+            long oldestId = index.getLong();
+            if (count == 0 || oldestId > maxId)
+                continue;
+            if (newestId < minId)
+                break;
+
+            ByteBuffer block = ByteBuffer.allocate(length);
+            while (block.hasRemaining())
+            {
+                if (files.data.read(block, offset + block.position()) == -1)
+                    throw new EOFException("Block of channel " + channelId + " at " + offset + " is truncated.");
+            }
+            try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(block.array()))))
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    ArchivedMessage message = readMessage(in, channelId);
+                    if (message.id >= minId && message.id <= maxId)
+                        consumer.accept(message);
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes all open channel files.
+     *
+     * @throws IOException
+     *          If a file could not be closed.
+     */
+    public void close() throws IOException
+    {
+        for (ChannelFiles files : channels.values())
+        {
+            synchronized (files)
+            {
+                files.data.close();
+                files.index.close();
+            }
+        }
+        channels.clear();
+    }
+
+    //Queries don't create the files, so getChannelIds only lists channels something was written for.
+    private ChannelFiles open(String channelId, boolean create) throws IOException
+    {
+        ChannelFiles files = channels.get(channelId);
+        if (files != null)
+            return files;
+        synchronized (channels)
+        {
+            files = channels.get(channelId);
+            if (files == null)
+            {
+                if (!create && !Files.exists(directory.resolve(channelId + INDEX_SUFFIX)))
+                    return null;
+                files = new ChannelFiles(directory.resolve(channelId + DATA_SUFFIX), directory.resolve(channelId + INDEX_SUFFIX));
+                channels.put(channelId, files);
+            }
+            return files;
+        }
+    }
+
+    private static void writeBlock(ChannelFiles files, byte[] block, int count, long newestId, long oldestId) throws IOException
+    {
+        long offset = files.data.size();
+        ByteBuffer data = ByteBuffer.wrap(block);
+        while (data.hasRemaining())
+            files.data.write(data, offset + data.position());
+        files.data.force(false);
+
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+        entry.putLong(offset).putInt(block.length).putInt(count).putLong(newestId).putLong(oldestId);
+        entry.flip();
+        long position = files.index.size();
+        while (entry.hasRemaining())
+            files.index.write(entry, position + entry.position());
+        files.index.force(false);
+    }
+
+    private static void writeMessage(DataOutputStream out, JSONObject message) throws IOException
+    {
+        JSONObject author = message.getJSONObject("author");
+        out.writeLong(Long.parseLong(message.getString("id")));
+        out.writeLong(Long.parseLong(author.getString("id")));
+        writeString(out, author.getString("username"));
+        writeString(out, message.getString("content"));
+        out.writeBoolean(message.optBoolean("tts"));
+        out.writeLong(message.isNull("edited_timestamp") ? -1
+                : OffsetDateTime.parse(message.getString("edited_timestamp")).toInstant().toEpochMilli());
+        JSONArray mentions = message.getJSONArray("mentions");
+        out.writeInt(mentions.length());
+        for (int i = 0; i < mentions.length(); i++)
+            out.writeLong(Long.parseLong(mentions.getJSONObject(i).getString("id")));
+    }
+
+    private static ArchivedMessage readMessage(DataInputStream in, String channelId) throws IOException
+    {
+        long id = in.readLong();
+        long authorId = in.readLong();
+        String authorName = readString(in);
+        String content = readString(in);
+        boolean tts = in.readBoolean();
+        long editedTime = in.readLong();
+        long[] mentions = new long[in.readInt()];
+        for (int i = 0; i < mentions.length; i++)
+            mentions[i] = in.readLong();
+        return new ArchivedMessage(id, channelId, authorId, authorName, content, tts, editedTime, mentions);
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException
+    {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A message as stored in a {@link net.dv8tion.jda.utils.MessageArchive MessageArchive}.<br>
+     * Holds ids instead of entities, as the author may have left the guild long ago.
+     */
+    public static class ArchivedMessage
+    {
+        private final long id;
+        private final String channelId;
+        private final long authorId;
+        private final String authorName;
+        private final String content;
+        private final boolean tts;
+        private final long editedTime;
+        private final long[] mentionedUserIds;
+
+        private ArchivedMessage(long id, String channelId, long authorId, String authorName, String content,
+                                boolean tts, long editedTime, long[] mentionedUserIds)
+        {
+            this.id = id;
+            this.channelId = channelId;
+            this.authorId = authorId;
+            this.authorName = authorName;
+            this.content = content;
+            this.tts = tts;
+            this.editedTime = editedTime;
+            this.mentionedUserIds = mentionedUserIds;
+        }
+
+        public String getId()
+        {
+            return Long.toString(id);
+        }
+
+        public String getChannelId()
+        {
+            return channelId;
+        }
+
+        public String getAuthorId()
+        {
+            return Long.toString(authorId);
+        }
+
+        public String getAuthorName()
+        {
+            return authorName;
+        }
+
+        /**
+         * The raw content, mentions are not resolved.
+         *
+         * @return
+         *      The content.
+         */
+        public String getContent()
+        {
+            return content;
+        }
+
+        public boolean isTTS()
+        {
+            return tts;
+        }
+
+        public OffsetDateTime getTime()
+        {
+            return MiscUtil.getCreationTime(getId());
+        }
+
+        /**
+         * The time of the last edit, with millisecond precision.
+         *
+         * @return
+         *      The time or null if the message was not edited.
+         */
+        public OffsetDateTime getEditedTime()
+        {
+            return editedTime == -1 ? null : OffsetDateTime.ofInstant(Instant.ofEpochMilli(editedTime), ZoneOffset.UTC);
+        }
+
+        public List<String> getMentionedUserIds()
+        {
+            List<String> ids = new ArrayList<>(mentionedUserIds.length);
+            for (long mention : mentionedUserIds)
+                ids.add(Long.toString(mention));
+            return Collections.unmodifiableList(ids);
+        }
+    }
+
+    private static final class ChannelFiles
+    {
+        private final FileChannel data;
+        private final FileChannel index;
+        private long oldestId = 0;
+        private long count = 0;
+        private boolean complete = false;
+
+        private ChannelFiles(Path dataFile, Path indexFile) throws IOException
+        {
+            this.data = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.index = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            //Drop a partially written index entry and any block written after the last entry.
+            long entries = index.size() / ENTRY_SIZE;
+            index.truncate(entries * ENTRY_SIZE);
+            long dataEnd = 0;
+            ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+            for (long i = 0; i < entries; i++)
+            {
+                entry.clear();
+                index.read(entry, i * ENTRY_SIZE);
+                entry.flip();
+                long offset = entry.getLong();
+                int length = entry.getInt();
+                int count = entry.getInt();
+                entry.getLong();
+                long oldest = entry.getLong();
+                dataEnd = offset + length;
+                if (count == 0)
+                {
+                    complete = true;
+                }
+                else
+                {
+                    this.count += count;
+                    this.oldestId = oldest;
+                }
+            }
+            data.truncate(dataEnd);
+        }
+    }
+}
@@ -0,0 +1,1242 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.utils;
+
+import net.dv8tion.jda.entities.Message;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Opt-in local inverted index over messages, queryable by term, author, channel and time range without any request.
+ * <p>
+ * Set it with {@link net.dv8tion.jda.JDABuilder#setMessageSearchIndex(MessageSearchIndex)} to index every received
+ * message and to follow edits and deletes. Older messages can be backfilled with {@link #add(Message)}
+ * (e.g. from a {@link net.dv8tion.jda.MessageHistory MessageHistory}) or {@link #add(MessageArchive)}.
+ * <p>
+ * New messages are indexed in memory. Every {@code flushThreshold} messages they are handed to a background thread
+ * that writes them to an immutable, memory-mapped segment file, so indexing never waits for the disk.
+ * {@link #flush()} and {@link #close()} wait for all messages to be written. Messages indexed after the last
+ * completed flush are lost if the process dies, an edited message keeps its previous version until the edit is flushed.
+ * <p>
+ * Segments are merged in tiers on the same background thread: once eight consecutive segments of the same size class
+ * exist they are merged into one of the next class, which also drops deleted messages. This way every message is
+ * rewritten a logarithmic amount of times. Merges stream the sorted terms of the merged segments into the new file,
+ * and segments larger than 128 MiB are not merged anymore, so no segment exceeds 1 GiB.
+ * <p>
+ * The ids, author, channel and flags of every message are kept in the memory-mapped {@code docs.bin} and
+ * a memory-mapped hash table from message id to document ({@code ids.bin}, rebuilt on open), not on the heap.
+ * The contents themselves are not stored, only the terms.
+ */
+public class MessageSearchIndex
+{
+    public static final int DEFAULT_FLUSH_THRESHOLD = 10000;
+
+    private static final int MAGIC = 0x4A44534D; //"JDSM"
+    private static final int DOC_SIZE = 32;
+    private static final int CHANNEL_POSITION = 8;
+    private static final int AUTHOR_POSITION = 16;
+    private static final int FLAGS_POSITION = 24;
+    private static final int PREVIOUS_POSITION = 28;
+    private static final int DELETED = 1;
+    //Replaced by an edit that is not flushed yet, restored on open if the edit got lost.
+    private static final int SUPERSEDED = 2;
+    private static final int MAX_DOCS = Integer.MAX_VALUE / DOC_SIZE;
+    private static final int MERGE_FACTOR = 8;
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final String DOCS_FILE = "docs.bin";
+    private static final String IDS_FILE = "ids.bin";
+
+    private final Path directory;
+    private final int flushThreshold;
+    private final FileChannel docsFile;
+    private final ExecutorService flusher;
+
+    //Document number (order of indexing) -> ids, author, channel, flags and the document of the previous version + 1.
+    //The first flushedDocs of them have a segment.
+    private MappedByteBuffer docs;
+    private final IdTable docsById;
+    private int docCount = 0;
+    private int flushedDocs = 0;
+    private int liveDocs = 0;
+
+    //Only changed by the flusher thread (and the constructor), always under the lock of the index.
+    private final List<Segment> segments = new ArrayList<>();
+    //Batches handed to the flusher thread, oldest first
+    private final Deque<Batch> pending = new ArrayDeque<>();
+    private Batch memory;
+    //Files of merged segments that could not be deleted yet as they were still mapped. Only used by the flusher thread.
+    private final List<Path> obsolete = new ArrayList<>();
+
+    /**
+     * Opens (or creates) the index in the given directory with the {@link #DEFAULT_FLUSH_THRESHOLD}.
+     *
+     * @param directory
+     *          The directory of the index.
+     * @throws IOException
+     *          If the index could not be opened.
+     */
+    public MessageSearchIndex(Path directory) throws IOException
+    {
+        this(directory, DEFAULT_FLUSH_THRESHOLD);
+    }
+
+    /**
+     * Opens (or creates) the index in the given directory.
+     *
+     * @param directory
+     *          The directory of the index.
+     * @param flushThreshold
+     *          The amount of messages indexed in memory before they are written to a new segment.
+     * @throws IOException
+     *          If the index could not be opened.
+     */
+    public MessageSearchIndex(Path directory, int flushThreshold) throws IOException
+    {
+        if (flushThreshold < 1)
+            throw new IllegalArgumentException("The flush threshold has to be at least 1. Provided: " + flushThreshold);
+        this.directory = Files.createDirectories(directory);
+        this.flushThreshold = flushThreshold;
+
+        //Segments cover consecutive document ranges. A merge that was interrupted before the merged segments were
+        //deleted leaves overlapping ranges behind, the widest ones win.
+        //The ranges are taken from the names, superseded segments are deleted without ever being mapped.
+        List<Path> found = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "segment-??????????-??????????.idx"))
+        {
+            for (Path path : stream)
+                found.add(path);
+        }
+        found.sort(Comparator.comparingInt((Path p) -> getStartDoc(p)).thenComparing((Path p) -> -getEndDoc(p)));
+        for (Path path : found)
+        {
+            if (getStartDoc(path) == flushedDocs)
+            {
+                Segment segment = new Segment(path);
+                segments.add(segment);
+                flushedDocs = segment.endDoc;
+            }
+            else
+            {
+                Files.delete(path);
+            }
+        }
+
+        docsFile = FileChannel.open(directory.resolve(DOCS_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (docsFile.size() < (long) flushedDocs * DOC_SIZE)
+            throw new IOException("The documents of the index in " + directory + " are truncated.");
+        //Documents written after the last flush have no segment.
+        docsFile.truncate((long) flushedDocs * DOC_SIZE);
+        docCount = flushedDocs;
+        docs = docsFile.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacityFor(flushedDocs) * DOC_SIZE);
+        memory = new Batch(flushedDocs);
+
+        docsById = new IdTable(directory.resolve(IDS_FILE), flushedDocs);
+        for (int doc = 0; doc < flushedDocs; doc++)
+        {
+            if ((getFlags(docs, doc) & DELETED) == 0)
+                docsById.put(getId(docs, doc), doc);
+        }
+        for (int doc = 0; doc < flushedDocs; doc++)
+        {
+            //A superseded version is still the newest one if its edit was lost.
+            if ((getFlags(docs, doc) & SUPERSEDED) != 0)
+                setFlags(doc, docsById.get(getId(docs, doc)) == doc ? 0 : DELETED);
+            if (!isDeleted(docs, doc))
+                liveDocs++;
+        }
+
+        flusher = Executors.newSingleThreadExecutor(r ->
+        {
+            Thread thread = new Thread(r, "JDA MessageSearchIndex");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Indexes a message. Messages that are already indexed are ignored.
+     *
+     * @param messageId
+     *          The id of the message.
+     * @param channelId
+     *          The id of the channel of the message.
+     * @param authorId
+     *          The id of the author.
+     * @param content
+     *          The raw content.
+     * @throws IOException
+     *          If the files of the index could not be grown.
+     */
+    public synchronized void add(String messageId, String channelId, String authorId, String content) throws IOException
+    {
+        long id = Long.parseLong(messageId);
+        int existing = docsById.get(id);
+        if (existing != -1 && !isDeleted(docs, existing))
+            return;
+        index(id, Long.parseLong(channelId), Long.parseLong(authorId), content, -1);
+    }
+
+    private void index(long id, long channelId, long authorId, String content, int previous) throws IOException
+    {
+        int doc = addDoc(id, channelId, authorId, previous);
+        for (String term : tokenize(content))
+            memory.add(term, doc);
+        if (docCount - memory.startDoc >= flushThreshold)
+        {
+            freeze();
+            flusher.execute(this::flushInBackground);
+        }
+    }
+
+    /**
+     * Indexes a message, e.g. from a {@link net.dv8tion.jda.MessageHistory MessageHistory}.
+     *
+     * @param message
+     *          The message.
+     * @throws IOException
+     *          If the files of the index could not be grown.
+     */
+    public void add(Message message) throws IOException
+    {
+        add(message.getId(), message.getChannelId(), message.getAuthor().getId(), message.getRawContent());
+    }
+
+    /**
+     * Indexes all messages of the archive that are not indexed yet.
+     *
+     * @param archive
+     *          The archive.
+     * @throws IOException
+     *          If the archive could not be read or the files of the index could not be grown.
+     */
+    public void add(MessageArchive archive) throws IOException
+    {
+        for (String channelId : archive.getChannelIds())
+        {
+            try
+            {
+                archive.forEach(channelId, message ->
+                {
+                    try
+                    {
+                        add(message.getId(), message.getChannelId(), message.getAuthorId(), message.getContent());
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            catch (UncheckedIOException e)
+            {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Replaces the indexed content of an edited message.
+     *
+     * @param messageId
+     *          The id of the message.
+     * @param channelId
+     *          The id of the channel of the message.
+     * @param authorId
+     *          The id of the author.
+     * @param content
+     *          The new raw content.
+     * @throws IOException
+     *          If the files of the index could not be grown.
+     */
+    public synchronized void update(String messageId, String channelId, String authorId, String content) throws IOException
+    {
+        long id = Long.parseLong(messageId);
+        int previous = docsById.get(id);
+        if (previous != -1 && !isDeleted(docs, previous))
+        {
+            //Only deleted once the new version is flushed, a crash before keeps the old version.
+            setFlags(previous, SUPERSEDED);
+            liveDocs--;
+        }
+        else
+        {
+            previous = -1;
+        }
+        index(id, Long.parseLong(channelId), Long.parseLong(authorId), content, previous);
+    }
+
+    /**
+     * Removes a deleted message from the index.
+     * <br>The deletion is written to the mapped {@code docs.bin} and reaches the disk with the next flush.
+     *
+     * @param messageId
+     *          The id of the message.
+     * @throws IOException
+     *          If the deletion could not be written.
+     */
+    public synchronized void remove(String messageId) throws IOException
+    {
+        int doc = docsById.get(Long.parseLong(messageId));
+        if (doc == -1 || isDeleted(docs, doc))
+            return;
+        liveDocs--;
+        //Versions superseded by edits that are not flushed yet would be restored on open otherwise.
+        for (; doc != -1 && (getFlags(docs, doc) & DELETED) == 0; doc = getPrevious(docs, doc))
+            setFlags(doc, DELETED);
+    }
+
+    /**
+     * The amount of indexed (not deleted) messages.
+     *
+     * @return
+     *      The amount of messages.
+     */
+    public synchronized int size()
+    {
+        return liveDocs;
+    }
+
+    /**
+     * Searches the index.
+     *
+     * @param query
+     *          The query.
+     * @return
+     *      The matching messages, newest first.
+     */
+    public synchronized List<Hit> search(Query query)
+    {
+        int[] candidates = null;
+        for (String term : query.terms)
+        {
+            int[] docs = getPostings(term);
+            candidates = candidates == null ? docs : intersect(candidates, docs);
+            if (candidates.length == 0)
+                return Collections.emptyList();
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        int count = candidates == null ? docCount : candidates.length;
+        for (int i = 0; i < count; i++)
+        {
+            int doc = candidates == null ? i : candidates[i];
+            if (isDeleted(docs, doc))
+                continue;
+            int position = doc * DOC_SIZE;
+            long id = docs.getLong(position);
+            long channelId = docs.getLong(position + CHANNEL_POSITION);
+            long authorId = docs.getLong(position + AUTHOR_POSITION);
+            if (id < query.minId || id > query.maxId
+                    || (query.authorId != 0 && authorId != query.authorId)
+                    || (query.channelId != 0 && channelId != query.channelId))
+                continue;
+            hits.add(new Hit(id, channelId, authorId));
+        }
+        hits.sort((a, b) -> Long.compare(b.id, a.id));
+        return hits.size() > query.limit ? new ArrayList<>(hits.subList(0, query.limit)) : hits;
+    }
+
+    /**
+     * Writes all messages indexed in memory to a new segment and waits until all segments are written.
+     *
+     * @throws IOException
+     *          If a segment could not be written.
+     */
+    public void flush() throws IOException
+    {
+        Future<?> future;
+        synchronized (this)
+        {
+            freeze();
+            future = flusher.submit(() ->
+            {
+                flushPending();
+                return null;
+            });
+        }
+        try
+        {
+            future.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the flush of the message search index.");
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Flushes the index and closes its files.
+     *
+     * @throws IOException
+     *          If the flush failed.
+     */
+    public void close() throws IOException
+    {
+        //The flush also ran the merges it caused, the flusher is idle afterwards.
+        flush();
+        flusher.shutdown();
+        synchronized (this)
+        {
+            docs.force();
+            docsFile.close();
+            docsById.close();
+            segments.clear();
+        }
+    }
+
+    //Hands the messages indexed in memory to the flusher thread.
+    private void freeze()
+    {
+        if (docCount == memory.startDoc)
+            return;
+        memory.endDoc = docCount;
+        pending.add(memory);
+        memory = new Batch(docCount);
+    }
+
+    private void flushInBackground()
+    {
+        try
+        {
+            flushPending();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            //The batches stay pending and are retried with the next flush.
+            System.err.println("Could not flush the message search index.");
+            e.printStackTrace();
+        }
+    }
+
+    //Runs on the flusher thread only.
+    private void flushPending() throws IOException
+    {
+        while (true)
+        {
+            Batch batch;
+            MappedByteBuffer mapped;
+            synchronized (this)
+            {
+                batch = pending.peek();
+                if (batch == null)
+                    break;
+                mapped = docs;
+            }
+            //The batch is frozen, reading it and writing the segment does not need the lock.
+            //The documents have to be on disk before their segment exists.
+            mapped.force();
+            Segment segment = batch.write(directory);
+            synchronized (this)
+            {
+                pending.poll();
+                segments.add(segment);
+                flushedDocs = batch.endDoc;
+                //The edits are on disk now, the versions they replaced can go.
+                for (int doc = batch.startDoc; doc < batch.endDoc; doc++)
+                {
+                    int previous = getPrevious(docs, doc);
+                    if (previous != -1 && (getFlags(docs, previous) & SUPERSEDED) != 0)
+                        setFlags(previous, DELETED);
+                }
+            }
+            mergeTiers();
+            deleteObsolete();
+        }
+    }
+
+    //Runs on the flusher thread only, so the segments can be read without the lock.
+    private void mergeTiers() throws IOException
+    {
+        while (true)
+        {
+            //First run of MERGE_FACTOR consecutive, mergeable segments of the same tier
+            int start = -1;
+            for (int i = 0, runStart = 0; i < segments.size() && start == -1; i++)
+            {
+                if (segments.get(i).size() > MAX_SEGMENT_SIZE / MERGE_FACTOR)
+                {
+                    runStart = i + 1;
+                    continue;
+                }
+                if (getTier(segments.get(i)) != getTier(segments.get(runStart)))
+                    runStart = i;
+                if (i - runStart + 1 == MERGE_FACTOR)
+                    start = runStart;
+            }
+            if (start == -1)
+                return;
+            int end = start + MERGE_FACTOR;
+            List<Segment> run = new ArrayList<>(segments.subList(start, end));
+            ByteBuffer flags;
+            synchronized (this)
+            {
+                flags = docs.duplicate();
+            }
+            Segment merged = merge(run, flags);
+            synchronized (this)
+            {
+                segments.subList(start, end).clear();
+                segments.add(start, merged);
+            }
+            //Searches are done with them, but they stay mapped until collected, which prevents deleting on Windows.
+            for (Segment old : run)
+                obsolete.add(old.file);
+        }
+    }
+
+    private void deleteObsolete()
+    {
+        for (Iterator<Path> it = obsolete.iterator(); it.hasNext(); )
+        {
+            try
+            {
+                Files.deleteIfExists(it.next());
+                it.remove();
+            }
+            catch (IOException ignored)
+            {
+                //Retried after the next flush, or deleted on open as its range is covered by the merged segment.
+            }
+        }
+    }
+
+    //Size class of a segment: 0 up to MERGE_FACTOR flushes, 1 up to MERGE_FACTOR^2 flushes and so on.
+    private int getTier(Segment segment)
+    {
+        long size = flushThreshold;
+        int tier = 0;
+        while (segment.endDoc - segment.startDoc >= size * MERGE_FACTOR)
+        {
+            size *= MERGE_FACTOR;
+            tier++;
+        }
+        return tier;
+    }
+
+    private Segment merge(List<Segment> run, ByteBuffer flags) throws IOException
+    {
+        //k-way merge of the sorted terms. Segments cover consecutive, ascending document ranges, so taking the
+        //postings of equal terms in the order of the segments keeps them sorted.
+        //Deletes that happen during the merge are not dropped, search checks the flags anyway.
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>((a, b) ->
+        {
+            int comparison = Segment.compare(a.key, b.key);
+            return comparison != 0 ? comparison : Integer.compare(a.order, b.order);
+        });
+        for (int i = 0; i < run.size(); i++)
+        {
+            Cursor cursor = new Cursor(run.get(i), i);
+            if (cursor.next())
+                cursors.add(cursor);
+        }
+        try (SegmentWriter writer = new SegmentWriter(directory, run.get(0).startDoc, run.get(run.size() - 1).endDoc))
+        {
+            while (!cursors.isEmpty())
+            {
+                byte[] key = cursors.peek().key;
+                while (!cursors.isEmpty() && Segment.compare(cursors.peek().key, key) == 0)
+                {
+                    Cursor cursor = cursors.poll();
+                    int position = cursor.segment.getPostingsPosition(cursor.term);
+                    int count = cursor.segment.getPostingsCount(cursor.term);
+                    for (int i = 0; i < count; i++)
+                    {
+                        int doc = cursor.segment.buffer.getInt(position + i * 4);
+                        if ((getFlags(flags, doc) & DELETED) == 0)
+                            writer.addPosting(doc);
+                    }
+                    if (cursor.next())
+                        cursors.add(cursor);
+                }
+                writer.endTerm(key);
+            }
+            return writer.finish();
+        }
+    }
+
+    private int[] getPostings(String term)
+    {
+        int[][] parts = new int[segments.size() + pending.size() + 1][];
+        int part = 0;
+        int length = 0;
+        for (Segment segment : segments)
+        {
+            parts[part] = segment.get(term);
+            length += parts[part++].length;
+        }
+        for (Batch batch : pending)
+        {
+            parts[part] = batch.get(term);
+            length += parts[part++].length;
+        }
+        parts[part] = memory.get(term);
+        length += parts[part].length;
+
+        int[] docs = new int[length];
+        int position = 0;
+        for (int[] postings : parts)
+        {
+            System.arraycopy(postings, 0, docs, position, postings.length);
+            position += postings.length;
+        }
+        return docs;
+    }
+
+    private static int[] intersect(int[] a, int[] b)
+    {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; )
+        {
+            if (a[i] < b[j])
+                i++;
+            else if (a[i] > b[j])
+                j++;
+            else
+            {
+                out[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, size);
+    }
+
+    private int addDoc(long id, long channelId, long authorId, int previous) throws IOException
+    {
+        if ((long) docCount * DOC_SIZE == docs.capacity())
+        {
+            if (docCount == MAX_DOCS)
+                throw new IOException("The message search index in " + directory + " is full.");
+            //The old mapping stays valid for the flusher thread, both map the same file.
+            docs = docsFile.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacityFor(docCount + 1) * DOC_SIZE);
+        }
+        int doc = docCount++;
+        int position = doc * DOC_SIZE;
+        docs.putLong(position, id);
+        docs.putLong(position + CHANNEL_POSITION, channelId);
+        docs.putLong(position + AUTHOR_POSITION, authorId);
+        docs.putInt(position + FLAGS_POSITION, 0);
+        docs.putInt(position + PREVIOUS_POSITION, previous + 1);
+        docsById.put(id, doc);
+        liveDocs++;
+        return doc;
+    }
+
+    private static long getId(ByteBuffer docs, int doc)
+    {
+        return docs.getLong(doc * DOC_SIZE);
+    }
+
+    private static int getFlags(ByteBuffer docs, int doc)
+    {
+        return docs.getInt(doc * DOC_SIZE + FLAGS_POSITION);
+    }
+
+    private void setFlags(int doc, int flags)
+    {
+        docs.putInt(doc * DOC_SIZE + FLAGS_POSITION, flags);
+    }
+
+    //The document of the version this one replaced, or -1.
+    private static int getPrevious(ByteBuffer docs, int doc)
+    {
+        return docs.getInt(doc * DOC_SIZE + PREVIOUS_POSITION) - 1;
+    }
+
+    //Whether the document is not part of search results, because it was deleted or replaced by an edit.
+    private static boolean isDeleted(ByteBuffer docs, int doc)
+    {
+        return getFlags(docs, doc) != 0;
+    }
+
+    private static int getStartDoc(Path segment)
+    {
+        return Integer.parseInt(segment.getFileName().toString().substring(8, 18));
+    }
+
+    private static int getEndDoc(Path segment)
+    {
+        return Integer.parseInt(segment.getFileName().toString().substring(19, 29));
+    }
+
+    //Power of two of at least 1024 documents, capped at MAX_DOCS.
+    private static int capacityFor(int docs)
+    {
+        long capacity = 1024;
+        while (capacity < docs)
+            capacity *= 2;
+        return (int) Math.min(capacity, MAX_DOCS);
+    }
+
+    /**
+     * Splits the content into lower case terms of letters and digits, without duplicates.
+     */
+    static Set<String> tokenize(String content)
+    {
+        Set<String> terms = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= content.length(); i++)
+        {
+            boolean part = i < content.length() && Character.isLetterOrDigit(content.charAt(i));
+            if (part && start == -1)
+            {
+                start = i;
+            }
+            else if (!part && start != -1)
+            {
+                if (i - start <= MAX_TERM_LENGTH)
+                    terms.add(content.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * A search of a {@link net.dv8tion.jda.utils.MessageSearchIndex MessageSearchIndex}. All set criteria have to match.
+     */
+    public static class Query
+    {
+        private final Set<String> terms = new LinkedHashSet<>();
+        private long authorId = 0;
+        private long channelId = 0;
+        private long minId = 0;
+        private long maxId = Long.MAX_VALUE;
+        private int limit = 100;
+
+        /**
+         * Adds terms that all have to be contained. The text is split into terms the same way the contents are.
+         *
+         * @param text
+         *          The terms.
+         * @return
+         *      This Query, useful for chaining.
+         */
+        public Query terms(String text)
+        {
+            terms.addAll(tokenize(text));
+            return this;
+        }
+
+        public Query author(String authorId)
+        {
+            this.authorId = Long.parseLong(authorId);
+            return this;
+        }
+
+        public Query channel(String channelId)
+        {
+            this.channelId = Long.parseLong(channelId);
+            return this;
+        }
+
+        /**
+         * Only messages sent at or after the given time.
+         */
+        public Query after(OffsetDateTime time)
+        {
+            this.minId = MiscUtil.getIdForTime(time);
+            return this;
+        }
+
+        /**
+         * Only messages sent before the given time.
+         */
+        public Query before(OffsetDateTime time)
+        {
+            this.maxId = MiscUtil.getIdForTime(time) - 1;
+            return this;
+        }
+
+        /**
+         * The maximum amount of results, the newest ones are returned. Default is 100.
+         */
+        public Query limit(int limit)
+        {
+            if (limit < 1)
+                throw new IllegalArgumentException("The limit has to be at least 1. Provided: " + limit);
+            this.limit = limit;
+            return this;
+        }
+    }
+
+    /**
+     * A message found by {@link net.dv8tion.jda.utils.MessageSearchIndex#search(Query) MessageSearchIndex#search}.
+     */
+    public static class Hit
+    {
+        private final long id;
+        private final long channelId;
+        private final long authorId;
+
+        private Hit(long id, long channelId, long authorId)
+        {
+            this.id = id;
+            this.channelId = channelId;
+            this.authorId = authorId;
+        }
+
+        public String getMessageId()
+        {
+            return Long.toString(id);
+        }
+
+        public String getChannelId()
+        {
+            return Long.toString(channelId);
+        }
+
+        public String getAuthorId()
+        {
+            return Long.toString(authorId);
+        }
+
+        public OffsetDateTime getTime()
+        {
+            return MiscUtil.getCreationTime(getMessageId());
+        }
+    }
+
+    private static final class Postings
+    {
+        private int[] docs = new int[4];
+        private int size = 0;
+
+        private void add(int doc)
+        {
+            if (size == docs.length)
+                docs = Arrays.copyOf(docs, size * 2);
+            docs[size++] = doc;
+        }
+    }
+
+    /**
+     * Messages indexed in memory, from startDoc to endDoc (set when frozen). Not changed anymore once frozen.
+     */
+    private static final class Batch
+    {
+        private final int startDoc;
+        private int endDoc;
+        private final Map<String, Postings> terms = new HashMap<>();
+
+        private Batch(int startDoc)
+        {
+            this.startDoc = startDoc;
+        }
+
+        private void add(String term, int doc)
+        {
+            Postings postings = terms.get(term);
+            if (postings == null)
+            {
+                postings = new Postings();
+                terms.put(term, postings);
+            }
+            postings.add(doc);
+        }
+
+        private int[] get(String term)
+        {
+            Postings postings = terms.get(term);
+            return postings == null ? new int[0] : Arrays.copyOf(postings.docs, postings.size);
+        }
+
+        private Segment write(Path directory) throws IOException
+        {
+            TreeMap<byte[], Postings> sorted = new TreeMap<>(Segment::compare);
+            terms.forEach((term, postings) -> sorted.put(term.getBytes(StandardCharsets.UTF_8), postings));
+            try (SegmentWriter writer = new SegmentWriter(directory, startDoc, endDoc))
+            {
+                for (Map.Entry<byte[], Postings> entry : sorted.entrySet())
+                {
+                    Postings postings = entry.getValue();
+                    for (int i = 0; i < postings.size; i++)
+                        writer.addPosting(postings.docs[i]);
+                    writer.endTerm(entry.getKey());
+                }
+                return writer.finish();
+            }
+        }
+    }
+
+    /**
+     * Memory-mapped open addressing hash table from message id to the newest document of the message.
+     * Entries are never removed, a message indexed again overwrites its entry. The file is rebuilt on open.
+     */
+    private static final class IdTable
+    {
+        private static final int SLOT_SIZE = 12; //id, document + 1 (0 is an empty slot)
+        private static final int MAX_CAPACITY = 1 << 27;
+
+        private final Path file;
+        private FileChannel channel;
+        private MappedByteBuffer buffer;
+        private int capacity;
+        private int size = 0;
+
+        private IdTable(Path file, int expected) throws IOException
+        {
+            this.file = file;
+            int capacity = 1024;
+            while (capacity < expected * 2L && capacity < MAX_CAPACITY)
+                capacity *= 2;
+            this.channel = open(file);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * SLOT_SIZE);
+            this.capacity = capacity;
+        }
+
+        private int get(long id)
+        {
+            for (int slot = slot(id); ; slot = (slot + 1) & (capacity - 1))
+            {
+                int position = slot * SLOT_SIZE;
+                int doc = buffer.getInt(position + 8);
+                if (doc == 0)
+                    return -1;
+                if (buffer.getLong(position) == id)
+                    return doc - 1;
+            }
+        }
+
+        private void put(long id, int doc) throws IOException
+        {
+            if (size * 2L >= capacity)
+                grow();
+            for (int slot = slot(id); ; slot = (slot + 1) & (capacity - 1))
+            {
+                int position = slot * SLOT_SIZE;
+                if (buffer.getInt(position + 8) == 0)
+                {
+                    buffer.putLong(position, id);
+                    size++;
+                }
+                else if (buffer.getLong(position) != id)
+                {
+                    continue;
+                }
+                buffer.putInt(position + 8, doc + 1);
+                return;
+            }
+        }
+
+        private void grow() throws IOException
+        {
+            if (capacity == MAX_CAPACITY)
+                throw new IOException("The message search index in " + file.getParent() + " is full.");
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            FileChannel oldChannel = channel;
+            MappedByteBuffer old = buffer;
+            int oldCapacity = capacity;
+            channel = open(tmp);
+            capacity = oldCapacity * 2;
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * SLOT_SIZE);
+            size = 0;
+            for (int slot = 0; slot < oldCapacity; slot++)
+            {
+                int doc = old.getInt(slot * SLOT_SIZE + 8);
+                if (doc != 0)
+                    put(old.getLong(slot * SLOT_SIZE), doc - 1);
+            }
+            oldChannel.close();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        private int slot(long id)
+        {
+            return (int) ((id * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(capacity)));
+        }
+
+        private void close() throws IOException
+        {
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+
+        private static FileChannel open(Path file) throws IOException
+        {
+            return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+    }
+
+    /**
+     * Immutable segment file: the magic, the postings of all terms, the entries of the terms sorted by their UTF-8 bytes
+     * (length, bytes, position and amount of the postings), the positions of the entries and a trailer
+     * (positions of the entries and of their positions, first and end document, term count, magic).
+     */
+    private static final class Segment
+    {
+        private static final int TRAILER_SIZE = 32;
+
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private final int entriesPosition;
+        private final int offsetsPosition;
+        private final int startDoc;
+        private final int endDoc;
+        private final int termCount;
+
+        private Segment(Path file) throws IOException
+        {
+            this.file = file;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+            {
+                if (channel.size() > Integer.MAX_VALUE)
+                    throw new IOException("The segment " + file + " is too large to be mapped.");
+                this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            int trailer = buffer.capacity() - TRAILER_SIZE;
+            if (trailer < 4 || buffer.getInt(0) != MAGIC || buffer.getInt(trailer + 28) != MAGIC)
+                throw new IOException("The file " + file + " is not a segment of a MessageSearchIndex.");
+            this.entriesPosition = (int) buffer.getLong(trailer);
+            this.offsetsPosition = (int) buffer.getLong(trailer + 8);
+            this.startDoc = buffer.getInt(trailer + 16);
+            this.endDoc = buffer.getInt(trailer + 20);
+            this.termCount = buffer.getInt(trailer + 24);
+        }
+
+        private long size()
+        {
+            return buffer.capacity();
+        }
+
+        private int[] get(String term)
+        {
+            byte[] key = term.getBytes(StandardCharsets.UTF_8);
+            int low = 0;
+            int high = termCount - 1;
+            while (low <= high)
+            {
+                int middle = (low + high) >>> 1;
+                int comparison = compare(getEntry(middle), key);
+                if (comparison < 0)
+                {
+                    low = middle + 1;
+                }
+                else if (comparison > 0)
+                {
+                    high = middle - 1;
+                }
+                else
+                {
+                    int[] docs = new int[getPostingsCount(middle)];
+                    int position = getPostingsPosition(middle);
+                    for (int i = 0; i < docs.length; i++)
+                        docs[i] = buffer.getInt(position + i * 4);
+                    return docs;
+                }
+            }
+            return new int[0];
+        }
+
+        private int getEntry(int term)
+        {
+            return entriesPosition + (int) buffer.getLong(offsetsPosition + term * 8);
+        }
+
+        private byte[] getKey(int term)
+        {
+            int entry = getEntry(term);
+            byte[] key = new byte[buffer.getShort(entry)];
+            for (int i = 0; i < key.length; i++)
+                key[i] = buffer.get(entry + 2 + i);
+            return key;
+        }
+
+        private int getPostingsPosition(int term)
+        {
+            int entry = getEntry(term);
+            return (int) buffer.getLong(entry + 2 + buffer.getShort(entry));
+        }
+
+        private int getPostingsCount(int term)
+        {
+            int entry = getEntry(term);
+            return buffer.getInt(entry + 10 + buffer.getShort(entry));
+        }
+
+        private int compare(int entry, byte[] key)
+        {
+            int length = buffer.getShort(entry);
+            for (int i = 0; i < Math.min(length, key.length); i++)
+            {
+                int difference = (buffer.get(entry + 2 + i) & 0xFF) - (key[i] & 0xFF);
+                if (difference != 0)
+                    return difference;
+            }
+            return length - key.length;
+        }
+
+        private static int compare(byte[] a, byte[] b)
+        {
+            for (int i = 0; i < Math.min(a.length, b.length); i++)
+            {
+                int difference = (a[i] & 0xFF) - (b[i] & 0xFF);
+                if (difference != 0)
+                    return difference;
+            }
+            return a.length - b.length;
+        }
+    }
+
+    /**
+     * Position in the sorted terms of a segment during a merge.
+     */
+    private static final class Cursor
+    {
+        private final Segment segment;
+        private final int order;
+        private int term = -1;
+        private byte[] key;
+
+        private Cursor(Segment segment, int order)
+        {
+            this.segment = segment;
+            this.order = order;
+        }
+
+        private boolean next()
+        {
+            if (++term == segment.termCount)
+                return false;
+            key = segment.getKey(term);
+            return true;
+        }
+    }
+
+    /**
+     * Streams a segment to disk, the terms have to be written in sorted order and each term after its postings.
+     * The postings go straight to the segment, the entries and their positions to temporary files appended at the end,
+     * so nothing but the current term is held in memory.
+     */
+    private static final class SegmentWriter implements Closeable
+    {
+        private final Path file;
+        private final Path tmp;
+        private final Path entriesTmp;
+        private final Path offsetsTmp;
+        private final FileChannel channel;
+        private final DataOutputStream out;
+        private final DataOutputStream entries;
+        private final DataOutputStream offsets;
+        private final int startDoc;
+        private final int endDoc;
+        private long position = 4;
+        private long termStart = 4;
+        private long entriesSize = 0;
+        private int termCount = 0;
+
+        private SegmentWriter(Path directory, int startDoc, int endDoc) throws IOException
+        {
+            this.file = directory.resolve(String.format("segment-%010d-%010d.idx", startDoc, endDoc));
+            this.tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            this.entriesTmp = file.resolveSibling(file.getFileName() + ".entries.tmp");
+            this.offsetsTmp = file.resolveSibling(file.getFileName() + ".offsets.tmp");
+            this.startDoc = startDoc;
+            this.endDoc = endDoc;
+            this.channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            this.entries = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(entriesTmp), 1 << 16));
+            this.offsets = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(offsetsTmp), 1 << 16));
+            out.writeInt(MAGIC);
+        }
+
+        private void addPosting(int doc) throws IOException
+        {
+            out.writeInt(doc);
+            position += 4;
+        }
+
+        //Terms without postings (e.g. all deleted) are left out.
+        private void endTerm(byte[] key) throws IOException
+        {
+            int count = (int) ((position - termStart) / 4);
+            if (count > 0)
+            {
+                offsets.writeLong(entriesSize);
+                entries.writeShort(key.length);
+                entries.write(key);
+                entries.writeLong(termStart);
+                entries.writeInt(count);
+                entriesSize += 2 + key.length + 12;
+                termCount++;
+            }
+            termStart = position;
+        }
+
+        private Segment finish() throws IOException
+        {
+            entries.close();
+            offsets.close();
+            long entriesPosition = position;
+            long offsetsPosition = entriesPosition + entriesSize;
+            Files.copy(entriesTmp, out);
+            Files.copy(offsetsTmp, out);
+            out.writeLong(entriesPosition);
+            out.writeLong(offsetsPosition);
+            out.writeInt(startDoc);
+            out.writeInt(endDoc);
+            out.writeInt(termCount);
+            out.writeInt(MAGIC);
+            out.flush();
+            //Merged segments and the deletes applied after a flush rely on the segment being on disk.
+            channel.force(true);
+            out.close();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new Segment(file);
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            out.close();
+            entries.close();
+            offsets.close();
+            Files.deleteIfExists(entriesTmp);
+            Files.deleteIfExists(offsetsTmp);
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
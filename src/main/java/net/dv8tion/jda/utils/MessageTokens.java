@@ -0,0 +1,206 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The mentions and invites of a message content, found in a single pass.<br>
+ * Every token is stored as three ints (type, start, end) in one array. For mentions the id is between
+ * {@link #getIdStart(int)} and {@link #getEnd(int)} - 1, for invites the code.
+ */
+public class MessageTokens
+{
+    public static final int USER = 0;
+    public static final int CHANNEL = 1;
+    public static final int ROLE = 2;
+    public static final int INVITE = 3;
+
+    private static final MessageTokens EMPTY = new MessageTokens("", new int[0], 0);
+    private static final String INVITE_PREFIX = "https://discord.gg/";
+
+    private final String content;
+    private final int[] tokens;
+    private final int size;
+
+    private MessageTokens(String content, int[] tokens, int size)
+    {
+        this.content = content;
+        this.tokens = tokens;
+        this.size = size;
+    }
+
+    /**
+     * Finds all user (&lt;@id&gt; and &lt;@!id&gt;), channel (&lt;#id&gt;) and role (&lt;@&amp;id&gt;) mentions
+     * and all invite links (https://discord.gg/code) of the content.
+     *
+     * @param content
+     *          The raw content.
+     * @return
+     *      The tokens in order of appearance.
+     */
+    public static MessageTokens tokenize(String content)
+    {
+        int[] tokens = null;
+        int size = 0;
+        for (int i = 0; i < content.length(); i++)
+        {
+            char c = content.charAt(i);
+            int type;
+            int idStart;
+            int end;
+            if (c == '<' && i + 1 < content.length())
+            {
+                char next = content.charAt(i + 1);
+                if (next == '#')
+                {
+                    type = CHANNEL;
+                    idStart = i + 2;
+                }
+                else if (next == '@')
+                {
+                    char marker = i + 2 < content.length() ? content.charAt(i + 2) : 0;
+                    type = marker == '&' ? ROLE : USER;
+                    idStart = marker == '&' || marker == '!' ? i + 3 : i + 2;
+                }
+                else
+                {
+                    continue;
+                }
+                end = idStart;
+                while (end < content.length() && content.charAt(end) >= '0' && content.charAt(end) <= '9')
+                    end++;
+                if (end == idStart || end == content.length() || content.charAt(end) != '>')
+                    continue;
+                end++;
+            }
+            else if (c == 'h' && content.startsWith(INVITE_PREFIX, i) && (i == 0 || !isWordChar(content.charAt(i - 1))))
+            {
+                type = INVITE;
+                idStart = i + INVITE_PREFIX.length();
+                end = idStart;
+                while (end < content.length() && isAlphanumeric(content.charAt(end)))
+                    end++;
+                //Like the former pattern \bhttps://discord.gg/([a-zA-Z0-9]+)\b the code has to end at a word boundary.
+                if (end == idStart || (end < content.length() && isWordChar(content.charAt(end))))
+                    continue;
+            }
+            else
+            {
+                continue;
+            }
+            if (end - i > 0xFFFF)
+                continue;
+
+            if (tokens == null)
+                tokens = new int[3 * 4];
+            else if (size * 3 == tokens.length)
+                tokens = Arrays.copyOf(tokens, tokens.length * 2);
+            tokens[size * 3] = type;
+            tokens[size * 3 + 1] = i;
+            tokens[size * 3 + 2] = (idStart - i) << 16 | (end - i);
+            size++;
+            i = end - 1;
+        }
+        return size == 0 ? EMPTY : new MessageTokens(content, tokens, size);
+    }
+
+    /**
+     * The amount of tokens.
+     *
+     * @return
+     *      The amount of tokens.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    public int getType(int index)
+    {
+        return tokens[index * 3];
+    }
+
+    /**
+     * The position of the first character of the token (the &lt; of mentions).
+     */
+    public int getStart(int index)
+    {
+        return tokens[index * 3 + 1];
+    }
+
+    /**
+     * The position of the first character of the id or invite code.
+     */
+    public int getIdStart(int index)
+    {
+        return getStart(index) + (tokens[index * 3 + 2] >>> 16);
+    }
+
+    /**
+     * The position after the last character of the token.
+     */
+    public int getEnd(int index)
+    {
+        return getStart(index) + (tokens[index * 3 + 2] & 0xFFFF);
+    }
+
+    /**
+     * The id of the mentioned entity or the invite code.
+     */
+    public String getId(int index)
+    {
+        int end = getEnd(index);
+        return content.substring(getIdStart(index), getType(index) == INVITE ? end : end - 1);
+    }
+
+    /**
+     * The ids (or invite codes) of all tokens of the given type, without duplicates.
+     *
+     * @param type
+     *          {@link #USER}, {@link #CHANNEL}, {@link #ROLE} or {@link #INVITE}.
+     * @return
+     *      The ids in order of appearance.
+     */
+    public List<String> getIds(int type)
+    {
+        List<String> ids = null;
+        for (int i = 0; i < size; i++)
+        {
+            if (getType(i) != type)
+                continue;
+            if (ids == null)
+                ids = new ArrayList<>();
+            String id = getId(i);
+            if (!ids.contains(id))
+                ids.add(id);
+        }
+        return ids == null ? Collections.emptyList() : ids;
+    }
+
+    private static boolean isAlphanumeric(char c)
+    {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isWordChar(char c)
+    {
+        return isAlphanumeric(c) || c == '_';
+    }
+}
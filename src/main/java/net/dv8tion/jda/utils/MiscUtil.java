@@ -0,0 +1,58 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.utils;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+public class MiscUtil
+{
+    /**
+     * The first millisecond of 2015, the epoch of the timestamps in Discord ids (snowflakes).
+     */
+    public static final long DISCORD_EPOCH = 1420070400000L;
+
+    /**
+     * The creation time of an entity, which is stored in the upper 42 bits of its id.
+     *
+     * @param id
+     *          The id of the entity (message, user, channel, ...).
+     * @return
+     *      The creation time in UTC, with millisecond precision.
+     */
+    public static OffsetDateTime getCreationTime(String id)
+    {
+        long millis = (Long.parseUnsignedLong(id) >>> 22) + DISCORD_EPOCH;
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    /**
+     * The smallest id an entity created at the given time can have, useful as bound for id based queries.
+     *
+     * @param time
+     *          The time, has to be after the {@link #DISCORD_EPOCH}.
+     * @return
+     *      The id as long.
+     */
+    public static long getIdForTime(OffsetDateTime time)
+    {
+        long millis = time.toInstant().toEpochMilli() - DISCORD_EPOCH;
+        if (millis < 0)
+            throw new IllegalArgumentException("The time has to be after the Discord epoch. Provided: " + time);
+        return millis << 22;
+    }
+}
@@ -16,43 +16,263 @@
 package net.dv8tion.jda.utils;
 
 import net.dv8tion.jda.Permission;
+import net.dv8tion.jda.entities.Guild;
 import net.dv8tion.jda.entities.Role;
 import net.dv8tion.jda.entities.TextChannel;
 import net.dv8tion.jda.entities.User;
 import net.dv8tion.jda.entities.VoiceChannel;
 import net.dv8tion.jda.entities.impl.*;
 
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 public class PermissionUtil
 {
+    //All known permission bits, granted to owners and members with MANAGE_ROLES.
+    private static final int ALL_PERMISSIONS;
+    static
+    {
+        int all = 0;
+        for (Permission permission : Permission.values())
+            all |= 1 << permission.getOffset();
+        ALL_PERMISSIONS = all;
+    }
+    //Result of a role-set granting everything. Not a valid set of permission bits, Discord never uses the sign bit.
+    private static final int ALL_MARKER = -1;
+
     public static boolean checkPermission(TextChannel channel, User user, Permission perm)
     {
-        return checkPermission(user, perm, ((GuildImpl) channel.getGuild()),
-                ((TextChannelImpl) channel).getRolePermissionOverrides(), ((TextChannelImpl) channel).getUserPermissionOverrides());
+        return (getEffectivePermissions(channel, user) & (1 << perm.getOffset())) != 0;
     }
 
     public static boolean checkPermission(VoiceChannel channel, User user, Permission perm)
     {
-        return checkPermission(user, perm, ((GuildImpl) channel.getGuild()),
-                ((VoiceChannelImpl) channel).getRolePermissionOverrides(), ((VoiceChannelImpl) channel).getUserPermissionOverrides());
+        return (getEffectivePermissions(channel, user) & (1 << perm.getOffset())) != 0;
     }
 
-    private static boolean checkPermission(User user, Permission perm, GuildImpl guild, Map<Role, PermissionOverride> roleOverrides, Map<User, PermissionOverride> userOverrides)
+    /**
+     * The effective permissions of the {@link net.dv8tion.jda.entities.User User} in the channel as raw bits,
+     * where bit {@link net.dv8tion.jda.Permission#getOffset() offset} is set for every granted permission.<br>
+     * The result is cached per member and channel until roles, the member's roles or the channel's overrides change.
+     *
+     * @param channel
+     *          The channel.
+     * @param user
+     *          The User.
+     * @return
+     *      The permission bits.
+     */
+    public static int getEffectivePermissions(TextChannel channel, User user)
     {
-        //Do we have all permissions possible? (Owner or user has MANAGE_ROLES permission)
+        TextChannelImpl impl = (TextChannelImpl) channel;
+        return getEffectivePermissions(user, (GuildImpl) channel.getGuild(), impl.getPermissionCache(),
+                impl.getRolePermissionOverrides(), impl.getUserPermissionOverrides());
+    }
+
+    /**
+     * The effective permissions of the {@link net.dv8tion.jda.entities.User User} in the channel as raw bits,
+     * where bit {@link net.dv8tion.jda.Permission#getOffset() offset} is set for every granted permission.<br>
+     * The result is cached per member and channel until roles, the member's roles or the channel's overrides change.
+     *
+     * @param channel
+     *          The channel.
+     * @param user
+     *          The User.
+     * @return
+     *      The permission bits.
+     */
+    public static int getEffectivePermissions(VoiceChannel channel, User user)
+    {
+        VoiceChannelImpl impl = (VoiceChannelImpl) channel;
+        return getEffectivePermissions(user, (GuildImpl) channel.getGuild(), impl.getPermissionCache(),
+                impl.getRolePermissionOverrides(), impl.getUserPermissionOverrides());
+    }
+
+    /**
+     * The Guild-wide permissions of the {@link net.dv8tion.jda.entities.User User} as raw bits, without channel overrides.
+     *
+     * @param guild
+     *          The Guild.
+     * @param user
+     *          The User.
+     * @return
+     *      The permission bits.
+     */
+    public static int getEffectivePermissions(Guild guild, User user)
+    {
+        GuildImpl impl = (GuildImpl) guild;
+        int permissions = computeRoleSetPermissions(impl, impl.getRolesForUser(user), Collections.emptyMap());
+        return permissions == ALL_MARKER || impl.getOwnerId().equals(user.getId()) ? ALL_PERMISSIONS : permissions;
+    }
+
+    private static int getEffectivePermissions(User user, GuildImpl guild, PermissionCache cache,
+                                               Map<Role, PermissionOverride> roleOverrides, Map<User, PermissionOverride> userOverrides)
+    {
+        int index = guild.getMemberIndex(user);
+        if (index == -1)
+            return computePermissions(user, guild, roleOverrides, userOverrides);
+
+        //Read the stamp before computing, a concurrent change then leaves a stale stamp behind instead of stale permissions.
+        int stamp = guild.getPermissionStamp(index) + cache.getStamp();
+        int permissions = cache.get(index, stamp);
+        if (permissions == -1)
+        {
+            permissions = computePermissions(user, guild, roleOverrides, userOverrides);
+            cache.put(index, stamp, permissions, guild.getMemberCapacity());
+        }
+        return permissions;
+    }
+
+    /**
+     * The members of the channel's Guild that have the {@link net.dv8tion.jda.Permission Permission} in the channel,
+     * as a bitset over the member indices of the Guild (see {@link GuildImpl#getMemberIndex(User)}).<br>
+     * All members are evaluated in one pass: the role fold and the role overrides are applied once per distinct role-set,
+     * only the owner check and the member overrides are done per member. The result is cached until roles,
+     * members or the channel's overrides change.
+     *
+     * @param channel
+     *          The channel.
+     * @param perm
+     *          The permission.
+     * @return
+     *      A new BitSet with the indices of all members having the permission.
+     */
+    public static BitSet getMembersWithPermission(TextChannel channel, Permission perm)
+    {
+        TextChannelImpl impl = (TextChannelImpl) channel;
+        return (BitSet) getMembersWithPermission((GuildImpl) channel.getGuild(), impl.getPermissionCache(),
+                impl.getRolePermissionOverrides(), impl.getUserPermissionOverrides(), perm).clone();
+    }
+
+    /**
+     * The members of the channel's Guild that have the {@link net.dv8tion.jda.Permission Permission} in the channel,
+     * as a bitset over the member indices of the Guild (see {@link GuildImpl#getMemberIndex(User)}).<br>
+     * All members are evaluated in one pass: the role fold and the role overrides are applied once per distinct role-set,
+     * only the owner check and the member overrides are done per member. The result is cached until roles,
+     * members or the channel's overrides change.
+     *
+     * @param channel
+     *          The channel.
+     * @param perm
+     *          The permission.
+     * @return
+     *      A new BitSet with the indices of all members having the permission.
+     */
+    public static BitSet getMembersWithPermission(VoiceChannel channel, Permission perm)
+    {
+        VoiceChannelImpl impl = (VoiceChannelImpl) channel;
+        return (BitSet) getMembersWithPermission((GuildImpl) channel.getGuild(), impl.getPermissionCache(),
+                impl.getRolePermissionOverrides(), impl.getUserPermissionOverrides(), perm).clone();
+    }
+
+    /**
+     * The members of the channel's Guild that have the {@link net.dv8tion.jda.Permission Permission} in the channel.
+     *
+     * @param channel
+     *          The channel.
+     * @param perm
+     *          The permission.
+     * @return
+     *      A new List of the members having the permission.
+     * @see #getMembersWithPermission(TextChannel, Permission)
+     */
+    public static List<User> getUsersWithPermission(TextChannel channel, Permission perm)
+    {
+        TextChannelImpl impl = (TextChannelImpl) channel;
+        GuildImpl guild = (GuildImpl) channel.getGuild();
+        return toUsers(guild, getMembersWithPermission(guild, impl.getPermissionCache(),
+                impl.getRolePermissionOverrides(), impl.getUserPermissionOverrides(), perm));
+    }
+
+    /**
+     * The members of the channel's Guild that have the {@link net.dv8tion.jda.Permission Permission} in the channel.
+     *
+     * @param channel
+     *          The channel.
+     * @param perm
+     *          The permission.
+     * @return
+     *      A new List of the members having the permission.
+     * @see #getMembersWithPermission(VoiceChannel, Permission)
+     */
+    public static List<User> getUsersWithPermission(VoiceChannel channel, Permission perm)
+    {
+        VoiceChannelImpl impl = (VoiceChannelImpl) channel;
+        GuildImpl guild = (GuildImpl) channel.getGuild();
+        return toUsers(guild, getMembersWithPermission(guild, impl.getPermissionCache(),
+                impl.getRolePermissionOverrides(), impl.getUserPermissionOverrides(), perm));
+    }
+
+    private static List<User> toUsers(GuildImpl guild, BitSet members)
+    {
+        List<User> users = new ArrayList<>(members.cardinality());
+        for (int i = members.nextSetBit(0); i >= 0; i = members.nextSetBit(i + 1))
+            users.add(guild.getMemberByIndex(i));
+        return users;
+    }
+
+    //The returned BitSet is shared with the cache and must not be modified.
+    private static BitSet getMembersWithPermission(GuildImpl guild, PermissionCache cache, Map<Role, PermissionOverride> roleOverrides,
+                                                   Map<User, PermissionOverride> userOverrides, Permission perm)
+    {
+        int stamp = guild.getPermissionStamp() + cache.getStamp();
+        BitSet members = cache.getMembers(perm, stamp);
+        if (members == null)
+        {
+            members = computeMembers(guild, roleOverrides, userOverrides, perm);
+            cache.putMembers(perm, stamp, members);
+        }
+        return members;
+    }
+
+    private static BitSet computeMembers(GuildImpl guild, Map<Role, PermissionOverride> roleOverrides,
+                                         Map<User, PermissionOverride> userOverrides, Permission perm)
+    {
+        int bit = 1 << perm.getOffset();
+        BitSet members = new BitSet(guild.getMemberCapacity());
+        //Role-sets are interned by the Guild, identical sets are the same instance.
+        Map<List<Role>, Integer> roleSetPermissions = new IdentityHashMap<>();
+        for (Map.Entry<User, List<Role>> entry : guild.getUserRoles().entrySet())
+        {
+            User user = entry.getKey();
+            Integer permissions = roleSetPermissions.get(entry.getValue());
+            if (permissions == null)
+            {
+                permissions = computeRoleSetPermissions(guild, entry.getValue(), roleOverrides);
+                roleSetPermissions.put(entry.getValue(), permissions);
+            }
+            int effective = applyMember(user, guild, permissions, userOverrides);
+            if ((effective & bit) != 0)
+                members.set(guild.getMemberIndex(user));
+        }
+        return members;
+    }
+
+    private static int computePermissions(User user, GuildImpl guild, Map<Role, PermissionOverride> roleOverrides, Map<User, PermissionOverride> userOverrides)
+    {
+        //The roles are shared between all members with the same role-set, so this is a plain lookup.
+        int permissions = computeRoleSetPermissions(guild, guild.getRolesForUser(user), roleOverrides);
+        return applyMember(user, guild, permissions, userOverrides);
+    }
+
+    /**
+     * Everything of the permission computation that only depends on the roles: the fold of the role permissions,
+     * the @everyone override and the role overrides.
+     *
+     * @return
+     *      The permissions or {@link #ALL_MARKER} if the roles grant MANAGE_ROLES.
+     */
+    private static int computeRoleSetPermissions(GuildImpl guild, List<Role> rolesOfUser, Map<Role, PermissionOverride> roleOverrides)
+    {
+        //Do we have all permissions possible? (user has MANAGE_ROLES permission)
         //If we have all permissions possible, then we will be able to see this room.
-        if (guild.getOwnerId().equals(user.getId())
-                || guild.getPublicRole().hasPermission(Permission.MANAGE_ROLES)
-                || guild.getRolesForUser(user).stream().anyMatch(role -> role.hasPermission(Permission.MANAGE_ROLES)))
+        if (guild.getPublicRole().hasPermission(Permission.MANAGE_ROLES)
+                || rolesOfUser.stream().anyMatch(role -> role.hasPermission(Permission.MANAGE_ROLES)))
         {
-            return true;
+            return ALL_MARKER;
         }
 
         //Default to binary OR of all global permissions in this guild
         int permission = ((RoleImpl) guild.getPublicRole()).getPermissions();
-        List<Role> rolesOfUser = guild.getRolesForUser(user);
         for (Role role : rolesOfUser)
         {
             permission = permission | ((RoleImpl) role).getPermissions();
@@ -76,13 +296,24 @@ public class PermissionUtil
         {
             permission = override.apply(permission);
         }
+        return permission;
+    }
+
+    /**
+     * The member specific part of the permission computation: the owner check and the user override.
+     */
+    private static int applyMember(User user, GuildImpl guild, int roleSetPermissions, Map<User, PermissionOverride> userOverrides)
+    {
+        //The owner has all permissions possible as well.
+        if (roleSetPermissions == ALL_MARKER || guild.getOwnerId().equals(user.getId()))
+            return ALL_PERMISSIONS;
 
         //handle user-specific overrides
         PermissionOverride useroverride = userOverrides.get(user);
         if (useroverride != null)
         {
-            permission = useroverride.apply(permission);
+            return useroverride.apply(roleSetPermissions);
         }
-        return (permission & (1 << perm.getOffset())) > 0;
+        return roleSetPermissions;
     }
 }
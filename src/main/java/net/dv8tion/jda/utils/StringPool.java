@@ -0,0 +1,165 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded pool used to deduplicate Strings that are cached in high numbers, like usernames and game names.<br>
+ * Tens of thousands of {@link net.dv8tion.jda.entities.User Users} can report the same game, so instead of holding
+ * one String instance per User, all of them share the instance stored in this pool.
+ * <p>
+ * The pool keeps the most recently used Strings and evicts the least recently used ones once
+ * {@link #getMaxSize() the maximum size} is reached. A maximum size of 0 disables pooling completely.
+ */
+public class StringPool
+{
+    //Approximation of the memory used by a String on a 64bit JVM with compressed oops (String object + char array headers).
+    private static final int STRING_OVERHEAD = 24 + 16;
+
+    private final int maxSize;
+    private final Map<String, String> pool;
+    private long hits = 0;
+    private long misses = 0;
+    private long deduplicatedBytes = 0;
+
+    /**
+     * Creates a new StringPool which will hold at most the provided amount of Strings.
+     *
+     * @param maxSize
+     *          The maximum amount of Strings to hold. 0 disables pooling.
+     * @throws IllegalArgumentException
+     *          If the provided size is negative.
+     */
+    public StringPool(int maxSize)
+    {
+        if (maxSize < 0)
+            throw new IllegalArgumentException("The size of the StringPool cannot be negative. Provided: " + maxSize);
+        this.maxSize = maxSize;
+        this.pool = new LinkedHashMap<String, String>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest)
+            {
+                return size() > StringPool.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the pooled instance equal to the provided String.
+     * If no such instance exists yet, the provided String is added to the pool and returned.
+     * <p>
+     * Every hit is counted towards {@link #getDeduplicatedBytes()}, so this should only be called for Strings that
+     * are about to be stored, not for values that are only compared and then discarded.
+     *
+     * @param string
+     *          The String to deduplicate. May be null.
+     * @return
+     *      A String equal to the provided one, or null if null was provided.
+     */
+    public synchronized String get(String string)
+    {
+        if (string == null || maxSize == 0)
+            return string;
+        String pooled = pool.get(string);
+        if (pooled != null)
+        {
+            hits++;
+            //Handing out the instance the caller already holds doesn't drop a duplicate.
+            if (pooled != string)
+                deduplicatedBytes += STRING_OVERHEAD + 2L * string.length();
+            return pooled;
+        }
+        misses++;
+        pool.put(string, string);
+        return string;
+    }
+
+    /**
+     * The maximum amount of Strings this pool will hold.
+     *
+     * @return
+     *      The maximum size. 0 if pooling is disabled.
+     */
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * The amount of Strings currently held by this pool.
+     *
+     * @return
+     *      The current size.
+     */
+    public synchronized int getSize()
+    {
+        return pool.size();
+    }
+
+    /**
+     * The amount of lookups that were answered by an already pooled String.
+     *
+     * @return
+     *      The amount of hits.
+     */
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * The amount of lookups that added a new String to the pool.
+     *
+     * @return
+     *      The amount of misses.
+     */
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * A cumulative estimate of the bytes of all duplicate Strings that were replaced by a pooled instance
+     * since this pool was created.<br>
+     * This is a running total, not the memory saved right now: the pool does not know when the holders of
+     * a pooled String drop it, so the counter never decreases, not even on {@link #clear()} or eviction.
+     * Use the difference between two readings to see how much was deduplicated in between.
+     *
+     * @return
+     *      The estimated amount of deduplicated bytes.
+     */
+    public synchronized long getDeduplicatedBytes()
+    {
+        return deduplicatedBytes;
+    }
+
+    /**
+     * Removes all Strings from the pool. The statistics are kept.
+     */
+    public synchronized void clear()
+    {
+        pool.clear();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "StringPool(" + getSize() + "/" + maxSize + ", hits: " + getHits() + ", deduplicated: " + getDeduplicatedBytes() + " bytes)";
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ *    Copyright 2015 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.dv8tion.jda;
+
+import net.dv8tion.jda.entities.Message;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Checks the splitting of {@link net.dv8tion.jda.MessageBuilder#buildAll() MessageBuilder#buildAll()}.
+ * <br>Run it with {@code java net.dv8tion.jda.MessageBuilderTest}, it throws an AssertionError on failure.
+ */
+public class MessageBuilderTest
+{
+    public static void main(String[] args) throws Exception
+    {
+        String line = repeat('x', 3000);
+        check("single line code block", new MessageBuilder().appendCodeBlock(line, "java"));
+        check("single line code block after text", new MessageBuilder().appendString("hi\n").appendCodeBlock(line, "java"));
+        check("single line code block without language", new MessageBuilder().appendCodeBlock(line, ""));
+        check("code block after long text", new MessageBuilder().appendString(repeat('y', 1990)).appendCodeBlock(line, "java"));
+        check("multi line code block", new MessageBuilder().appendString("text\n").appendCodeBlock(repeat("line of code\n", 400), "java"));
+        check("words", new MessageBuilder().appendString(repeat("word ", 1000)));
+        check("formatted words", new MessageBuilder().appendString("intro\n")
+                .appendString(repeat("bold words ", 400), MessageBuilder.Formatting.BOLD, MessageBuilder.Formatting.UNDERLINE));
+        check("lines", new MessageBuilder().appendString(repeat("a line of text\n", 300)));
+        System.out.println("All MessageBuilder checks passed.");
+    }
+
+    private static void check(String name, MessageBuilder builder) throws Exception
+    {
+        //buildAll used to loop forever on some inputs
+        ExecutorService executor = Executors.newSingleThreadExecutor(r ->
+        {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Message> messages;
+        try
+        {
+            messages = executor.submit(builder::buildAll).get(10, TimeUnit.SECONDS);
+        }
+        catch (TimeoutException e)
+        {
+            throw new AssertionError(name + ": buildAll did not terminate");
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        if (messages.isEmpty())
+            throw new AssertionError(name + ": no messages built");
+        for (Message message : messages)
+        {
+            String content = message.getRawContent();
+            if (content.length() > MessageBuilder.MAX_LENGTH)
+                throw new AssertionError(name + ": part of " + content.length() + " characters");
+            if (count(content, "```") % 2 != 0)
+                throw new AssertionError(name + ": unbalanced code block in part: " + content);
+        }
+        if (!reconstructs(messages, 0, builder.build().getRawContent(), 0, new HashSet<>()))
+            throw new AssertionError(name + ": the parts don't add up to the original content");
+    }
+
+    //Whether the parts, without the tags reopened at their start and closed at their end, concatenate to the
+    //original content, allowing one dropped whitespace at every break.
+    private static boolean reconstructs(List<Message> messages, int index, String original, int position, Set<String> failed)
+    {
+        if (index == messages.size())
+            return position == original.length();
+        if (!failed.add(index + ":" + position))
+            return false;
+        String content = messages.get(index).getRawContent();
+        for (int prefix : getTagLengths(content, true))
+        {
+            for (int suffix : getTagLengths(content, false))
+            {
+                if (prefix + suffix > content.length())
+                    continue;
+                String text = content.substring(prefix, content.length() - suffix);
+                if (!original.startsWith(text, position))
+                    continue;
+                int end = position + text.length();
+                if (reconstructs(messages, index + 1, original, end, failed))
+                    return true;
+                if (end < original.length() && Character.isWhitespace(original.charAt(end))
+                        && reconstructs(messages, index + 1, original, end + 1, failed))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<Integer> getTagLengths(String content, boolean opening)
+    {
+        Set<Integer> lengths = new HashSet<>();
+        lengths.add(0);
+        if (opening && content.startsWith("```") && content.indexOf('\n') != -1)
+            lengths.add(content.indexOf('\n') + 1);
+        if (!opening && content.endsWith("\n```"))
+            lengths.add(4);
+        for (int i = 0; i < content.length() && "*_~`".indexOf(content.charAt(opening ? i : content.length() - 1 - i)) != -1; i++)
+            lengths.add(i + 1);
+        return lengths;
+    }
+
+    private static int count(String content, String tag)
+    {
+        int count = 0;
+        for (int i = content.indexOf(tag); i != -1; i = content.indexOf(tag, i + tag.length()))
+            count++;
+        return count;
+    }
+
+    private static String repeat(char c, int times)
+    {
+        return repeat(String.valueOf(c), times);
+    }
+
+    private static String repeat(String text, int times)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++)
+            builder.append(text);
+        return builder.toString();
+    }
+}